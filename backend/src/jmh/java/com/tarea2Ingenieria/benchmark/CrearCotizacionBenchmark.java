@@ -0,0 +1,53 @@
+package com.tarea2Ingenieria.benchmark;
+
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.CotizacionResponseDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.Variante;
+import com.tarea2Ingenieria.service.CotizacionServiceImpl;
+import com.tarea2Ingenieria.service.MuebleServiceImpl;
+import com.tarea2Ingenieria.service.VarianteServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// crearCotizacion completo: carga en lote, validaciones, acumulación de precios y mapeo de la respuesta
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CrearCotizacionBenchmark {
+
+    @Param({"1", "10", "40"})
+    private int lineas;
+
+    private CotizacionServiceImpl cotizacionService;
+    private CotizacionRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        Map<Long, Mueble> muebles = DatosBenchmark.muebles(200);
+        Map<Long, Variante> variantes = DatosBenchmark.variantes();
+        cotizacionService = new CotizacionServiceImpl(
+                RepositoriosEnMemoria.cotizaciones(new HashMap<>()),
+                RepositoriosEnMemoria.muebles(muebles),
+                RepositoriosEnMemoria.variantes(variantes),
+                DatosBenchmark.objectMapper(),
+                evento -> { },
+                new MuebleServiceImpl(RepositoriosEnMemoria.muebles(muebles), evento -> { }, RepositoriosEnMemoria.eventosSinEfecto(),
+                        RepositoriosEnMemoria.cargadorMuebles(muebles), RepositoriosEnMemoria.cacheMuebles()),
+                new VarianteServiceImpl(RepositoriosEnMemoria.variantes(variantes), RepositoriosEnMemoria.cargadorVariantes(variantes)),
+                RepositoriosEnMemoria.reservaStock(muebles),
+                RepositoriosEnMemoria.eventosSinEfecto());
+        request = DatosBenchmark.request(lineas, muebles.size());
+    }
+
+    @Benchmark
+    public CotizacionResponseDTO crearCotizacion() {
+        return cotizacionService.crearCotizacion(request);
+    }
+}
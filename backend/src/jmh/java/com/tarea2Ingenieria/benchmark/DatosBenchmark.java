@@ -0,0 +1,111 @@
+package com.tarea2Ingenieria.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.model.Cotizacion;
+import com.tarea2Ingenieria.model.DetalleCotizacion;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.Variante;
+import com.tarea2Ingenieria.model.enums.EstadoCotizacion;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Datos sintéticos compartidos por los benchmarks
+final class DatosBenchmark {
+
+    private static final String[] TIPOS = {"Silla", "Mesa", "Sofá", "Estante", "Cama"};
+    private static final String[] MATERIALES = {"Roble", "Pino", "Tela Premium", "Metal"};
+
+    private DatosBenchmark() {
+    }
+
+    static Map<Long, Mueble> muebles(int cantidad) {
+        Map<Long, Mueble> muebles = new LinkedHashMap<>();
+        for (long id = 1; id <= cantidad; id++) {
+            Mueble mueble = new Mueble();
+            mueble.setIdMueble(id);
+            mueble.setNombreMueble(TIPOS[(int) (id % TIPOS.length)] + " Modelo " + id);
+            mueble.setTipo(TIPOS[(int) (id % TIPOS.length)]);
+            mueble.setMaterial(MATERIALES[(int) (id % MATERIALES.length)]);
+            mueble.setPrecioBase(10000.0 + id * 10);
+            mueble.setStock(1_000_000);
+            mueble.setTamanio(TamanioMueble.values()[(int) (id % TamanioMueble.values().length)]);
+            mueble.setEstado(EstadoMueble.ACTIVO);
+            mueble.setVersion(0L);
+            muebles.put(id, mueble);
+        }
+        return muebles;
+    }
+
+    static Map<Long, Variante> variantes() {
+        Map<Long, Variante> variantes = new LinkedHashMap<>();
+        String[] nombres = {"Normal", "Barniz Premium", "Acabado Mate"};
+        double[] aumentos = {0.0, 3500.0, 2000.0};
+        for (int i = 0; i < nombres.length; i++) {
+            Variante variante = new Variante();
+            variante.setIdVariante((long) i + 1);
+            variante.setNombre(nombres[i]);
+            variante.setAumentoPrecio(aumentos[i]);
+            variantes.put(variante.getIdVariante(), variante);
+        }
+        return variantes;
+    }
+
+    static CotizacionRequestDTO request(int lineas, int totalMuebles) {
+        List<DetalleRequestDTO> detalles = new ArrayList<>();
+        for (int i = 0; i < lineas; i++) {
+            DetalleRequestDTO detalle = new DetalleRequestDTO();
+            detalle.setIdMueble((long) (i % totalMuebles) + 1);
+            detalle.setIdVariante((long) (i % 3) + 1);
+            detalle.setCantidad(1 + i % 4);
+            detalles.add(detalle);
+        }
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(detalles);
+        return request;
+    }
+
+    static Map<Long, Cotizacion> cotizaciones(int cantidad, int detallesPorCotizacion,
+                                              Map<Long, Mueble> muebles, Map<Long, Variante> variantes) {
+        Map<Long, Cotizacion> cotizaciones = new LinkedHashMap<>();
+        for (long id = 1; id <= cantidad; id++) {
+            Cotizacion cotizacion = new Cotizacion();
+            cotizacion.setIdCotizacion(id);
+            cotizacion.setFecha(LocalDate.of(2025, 1, 1).plusDays(id % 365));
+            cotizacion.setEstado(id % 2 == 0 ? EstadoCotizacion.CONFIRMADA : EstadoCotizacion.PENDIENTE);
+            List<DetalleCotizacion> detalles = new ArrayList<>();
+            double total = 0.0;
+            for (int i = 0; i < detallesPorCotizacion; i++) {
+                Mueble mueble = muebles.get((long) ((id + i) % muebles.size()) + 1);
+                Variante variante = variantes.get((long) (i % variantes.size()) + 1);
+                DetalleCotizacion detalle = new DetalleCotizacion();
+                detalle.setCotizacion(cotizacion);
+                detalle.setMueble(mueble);
+                detalle.setVariante(variante);
+                detalle.setCantidad(1 + i % 3);
+                detalle.setPrecioUnitarioSnapshot(mueble.getPrecioBase() + variante.getAumentoPrecio());
+                total += detalle.getPrecioUnitarioSnapshot() * detalle.getCantidad();
+                detalles.add(detalle);
+            }
+            cotizacion.setDetalles(detalles);
+            cotizacion.setTotal(total);
+            cotizaciones.put(id, cotizacion);
+        }
+        return cotizaciones;
+    }
+
+    // Misma configuración de fechas que usa Spring Boot por defecto
+    static ObjectMapper objectMapper() {
+        return new ObjectMapper()
+                .findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+}
@@ -0,0 +1,60 @@
+package com.tarea2Ingenieria.benchmark;
+
+import com.tarea2Ingenieria.dto.CotizacionResponseDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.Variante;
+import com.tarea2Ingenieria.service.CotizacionServiceImpl;
+import com.tarea2Ingenieria.service.MuebleServiceImpl;
+import com.tarea2Ingenieria.service.VarianteServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Mappers entidad -> DTO: toResponseDTO/toDetalleResponseDTO (vía getAllCotizaciones)
+// y MuebleServiceImpl.toDTO (vía getMueblesActivos, sin la caché de Spring)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoBenchmark {
+
+    @Param({"100", "1000"})
+    private int registros;
+
+    private CotizacionServiceImpl cotizacionService;
+    private MuebleServiceImpl muebleService;
+
+    @Setup
+    public void setUp() {
+        Map<Long, Mueble> muebles = DatosBenchmark.muebles(registros);
+        Map<Long, Variante> variantes = DatosBenchmark.variantes();
+        cotizacionService = new CotizacionServiceImpl(
+                RepositoriosEnMemoria.cotizaciones(DatosBenchmark.cotizaciones(registros, 5, muebles, variantes)),
+                RepositoriosEnMemoria.muebles(muebles),
+                RepositoriosEnMemoria.variantes(variantes),
+                DatosBenchmark.objectMapper(),
+                evento -> { },
+                new MuebleServiceImpl(RepositoriosEnMemoria.muebles(muebles), evento -> { }, RepositoriosEnMemoria.eventosSinEfecto(),
+                        RepositoriosEnMemoria.cargadorMuebles(muebles), RepositoriosEnMemoria.cacheMuebles()),
+                new VarianteServiceImpl(RepositoriosEnMemoria.variantes(variantes), RepositoriosEnMemoria.cargadorVariantes(variantes)),
+                RepositoriosEnMemoria.reservaStock(muebles),
+                RepositoriosEnMemoria.eventosSinEfecto());
+        muebleService = new MuebleServiceImpl(RepositoriosEnMemoria.muebles(muebles), evento -> { },
+                RepositoriosEnMemoria.eventosSinEfecto(), RepositoriosEnMemoria.cargadorMuebles(muebles), RepositoriosEnMemoria.cacheMuebles());
+    }
+
+    @Benchmark
+    public List<CotizacionResponseDTO> mapearCotizaciones() {
+        return cotizacionService.getAllCotizaciones();
+    }
+
+    @Benchmark
+    public List<MuebleDTO> mapearMuebles() {
+        return muebleService.getMueblesActivos();
+    }
+}
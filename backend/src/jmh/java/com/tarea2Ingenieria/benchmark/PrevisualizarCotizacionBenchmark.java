@@ -0,0 +1,54 @@
+package com.tarea2Ingenieria.benchmark;
+
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.PrevisualizacionCotizacionDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.Variante;
+import com.tarea2Ingenieria.service.CotizacionServiceImpl;
+import com.tarea2Ingenieria.service.MuebleServiceImpl;
+import com.tarea2Ingenieria.service.VarianteServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// previsualizarCotizacion con muebles y variantes ya en memoria (equivale a la caché caliente; sin proxy de caché
+// cada lectura además mapea la entidad a DTO, así que es una cota superior). Se mide tiempo por llamada.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrevisualizarCotizacionBenchmark {
+
+    @Param({"1", "10", "40"})
+    private int lineas;
+
+    private CotizacionServiceImpl cotizacionService;
+    private CotizacionRequestDTO request;
+
+    @Setup
+    public void setUp() {
+        Map<Long, Mueble> muebles = DatosBenchmark.muebles(200);
+        Map<Long, Variante> variantes = DatosBenchmark.variantes();
+        cotizacionService = new CotizacionServiceImpl(
+                RepositoriosEnMemoria.cotizaciones(new HashMap<>()),
+                RepositoriosEnMemoria.muebles(muebles),
+                RepositoriosEnMemoria.variantes(variantes),
+                DatosBenchmark.objectMapper(),
+                evento -> { },
+                new MuebleServiceImpl(RepositoriosEnMemoria.muebles(muebles), evento -> { }, RepositoriosEnMemoria.eventosSinEfecto(),
+                        RepositoriosEnMemoria.cargadorMuebles(muebles), RepositoriosEnMemoria.cacheMuebles()),
+                new VarianteServiceImpl(RepositoriosEnMemoria.variantes(variantes), RepositoriosEnMemoria.cargadorVariantes(variantes)),
+                RepositoriosEnMemoria.reservaStock(muebles),
+                RepositoriosEnMemoria.eventosSinEfecto());
+        request = DatosBenchmark.request(lineas, muebles.size());
+    }
+
+    @Benchmark
+    public PrevisualizacionCotizacionDTO previsualizarCotizacion() {
+        return cotizacionService.previsualizarCotizacion(request);
+    }
+}
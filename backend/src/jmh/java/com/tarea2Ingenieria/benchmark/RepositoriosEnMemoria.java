@@ -0,0 +1,112 @@
+package com.tarea2Ingenieria.benchmark;
+
+import com.tarea2Ingenieria.CacheConfig;
+import com.tarea2Ingenieria.dto.DisponibilidadStockDTO;
+import com.tarea2Ingenieria.model.Cotizacion;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.Variante;
+import com.tarea2Ingenieria.repository.CotizacionRepository;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.repository.ReservaStockRepository;
+import com.tarea2Ingenieria.repository.VarianteRepository;
+import com.tarea2Ingenieria.service.CargadorAgrupado;
+import com.tarea2Ingenieria.service.EventoOutboxService;
+import com.tarea2Ingenieria.service.ReservaStockService;
+import com.tarea2Ingenieria.service.ReservaStockServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Repositorios respaldados por un Map para medir la lógica de servicio sin base de datos.
+// Solo implementan los métodos que usan los caminos medidos; el resto lanza UnsupportedOperationException.
+final class RepositoriosEnMemoria {
+
+    private RepositoriosEnMemoria() {
+    }
+
+    static MuebleRepository muebles(Map<Long, Mueble> datos) {
+        return crear(MuebleRepository.class, datos);
+    }
+
+    static VarianteRepository variantes(Map<Long, Variante> datos) {
+        return crear(VarianteRepository.class, datos);
+    }
+
+    static CotizacionRepository cotizaciones(Map<Long, Cotizacion> datos) {
+        return crear(CotizacionRepository.class, datos);
+    }
+
+    // Reservas sin efecto (las reservas guardadas no se conservan); el barrido no se mide y queda sin transacciones
+    static ReservaStockService reservaStock(Map<Long, Mueble> muebles) {
+        return new ReservaStockServiceImpl(muebles(muebles), crear(ReservaStockRepository.class, new HashMap<>()),
+                null, Duration.ofMinutes(15), 500);
+    }
+
+    // Sin ventana: en un benchmark de un solo hilo cada lectura por id es su propio lote
+    static CargadorAgrupado<Long, Mueble> cargadorMuebles(Map<Long, Mueble> datos) {
+        return new CargadorAgrupado<>("muebles", ids -> ids.stream().filter(datos::containsKey)
+                .collect(Collectors.toMap(Function.identity(), datos::get)), Duration.ZERO, 100, new SimpleMeterRegistry());
+    }
+
+    static CargadorAgrupado<Long, Variante> cargadorVariantes(Map<Long, Variante> datos) {
+        return new CargadorAgrupado<>("variantes", ids -> ids.stream().filter(datos::containsKey)
+                .collect(Collectors.toMap(Function.identity(), datos::get)), Duration.ZERO, 100, new SimpleMeterRegistry());
+    }
+
+    // Caché de muebles en un Map: getMueblesByIds la llena en la primera llamada, como la caché caliente del servicio
+    static CacheManager cacheMuebles() {
+        return new ConcurrentMapCacheManager(CacheConfig.MUEBLES);
+    }
+
+    // Outbox que descarta los eventos: registrar() no tiene transacción a la que ligarse fuera de Spring
+    static EventoOutboxService eventosSinEfecto() {
+        return (EventoOutboxService) Proxy.newProxyInstance(EventoOutboxService.class.getClassLoader(),
+                new Class<?>[]{EventoOutboxService.class}, (proxy, metodo, args) ->
+                        metodo.getReturnType() == int.class ? 0 : null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R crear(Class<R> tipo, Map<Long, ?> datos) {
+        return (R) Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[]{tipo}, (proxy, metodo, args) ->
+                switch (metodo.getName()) {
+                    case "findById", "findByIdConDetalles" -> Optional.ofNullable(datos.get((Long) args[0]));
+                    case "findAllById", "findAllConDetallesByIds" -> {
+                        List<Object> encontrados = new ArrayList<>();
+                        for (Long id : (Iterable<Long>) args[0]) {
+                            encontrados.add(datos.get(id));
+                        }
+                        encontrados.removeIf(Objects::isNull);
+                        yield encontrados;
+                    }
+                    case "findAll", "findAllConDetalles" -> new ArrayList<>(datos.values());
+                    case "findByEstado" -> datos.values().stream()
+                            .filter(valor -> ((Mueble) valor).getEstado() == args[0])
+                            .toList();
+                    case "save", "saveAll" -> args[0];
+                    case "reservarStock", "liberarReservas" -> ((Map<?, ?>) args[0]).size();
+                    case "findDisponibilidad" -> ((Collection<Long>) args[0]).stream()
+                            .map(id -> (Mueble) datos.get(id))
+                            .filter(Objects::nonNull)
+                            .map(mueble -> new DisponibilidadStockDTO(mueble.getIdMueble(), mueble.getStock(), mueble.getReservado()))
+                            .toList();
+                    case "count" -> (long) datos.size();
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> tipo.getSimpleName() + "EnMemoria";
+                    default -> throw new UnsupportedOperationException(metodo.getName());
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package com.tarea2Ingenieria.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.dto.CotizacionResponseDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.Variante;
+import com.tarea2Ingenieria.service.CotizacionServiceImpl;
+import com.tarea2Ingenieria.service.MuebleServiceImpl;
+import com.tarea2Ingenieria.service.VarianteServiceImpl;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// Serialización Jackson de respuestas de cotización grandes, como las escribe Spring MVC
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    @Param({"10", "1000"})
+    private int detalles;
+
+    private ObjectMapper objectMapper;
+    private CotizacionResponseDTO cotizacion;
+
+    @Setup
+    public void setUp() {
+        Map<Long, Mueble> muebles = DatosBenchmark.muebles(200);
+        Map<Long, Variante> variantes = DatosBenchmark.variantes();
+        objectMapper = DatosBenchmark.objectMapper();
+        CotizacionServiceImpl cotizacionService = new CotizacionServiceImpl(
+                RepositoriosEnMemoria.cotizaciones(new HashMap<>()),
+                RepositoriosEnMemoria.muebles(muebles),
+                RepositoriosEnMemoria.variantes(variantes),
+                objectMapper,
+                evento -> { },
+                new MuebleServiceImpl(RepositoriosEnMemoria.muebles(muebles), evento -> { }, RepositoriosEnMemoria.eventosSinEfecto(),
+                        RepositoriosEnMemoria.cargadorMuebles(muebles), RepositoriosEnMemoria.cacheMuebles()),
+                new VarianteServiceImpl(RepositoriosEnMemoria.variantes(variantes), RepositoriosEnMemoria.cargadorVariantes(variantes)),
+                RepositoriosEnMemoria.reservaStock(muebles),
+                RepositoriosEnMemoria.eventosSinEfecto());
+        cotizacion = cotizacionService.crearCotizacion(DatosBenchmark.request(detalles, muebles.size()));
+    }
+
+    @Benchmark
+    public byte[] serializarCotizacion() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(cotizacion);
+    }
+}
@@ -0,0 +1,40 @@
+package com.tarea2Ingenieria;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.boot.autoconfigure.cache.CacheProperties;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+
+// Cachés en memoria (Caffeine). Nombres, tamaño y TTL en application.properties (spring.cache.*)
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String MUEBLES_ACTIVOS = "mueblesActivos";
+    public static final String MUEBLES = "muebles";
+    public static final String VARIANTES = "variantes";
+
+    // Con hilos virtuales, @Cacheable(sync = true) cargaría dentro del ConcurrentHashMap.compute de Caffeine,
+    // que sincroniza sobre el bucket: la consulta a la BD fijaría (pinning) el hilo portador en Java 21.
+    // En modo asíncrono Caffeine solo publica un futuro dentro del compute, la carga corre en otro hilo
+    // virtual y quien espera se bloquea en join(), que sí libera el portador. Se mantiene una carga por clave.
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> cargaSinPinningCustomizer(
+            CacheProperties cacheProperties,
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtuales) {
+        return cacheManager -> {
+            if (!hilosVirtuales) {
+                return;
+            }
+            cacheManager.setCaffeine(Caffeine.from(cacheProperties.getCaffeine().getSpec())
+                    .executor(Executors.newVirtualThreadPerTaskExecutor()));
+            cacheManager.setAsyncCacheMode(true);
+        };
+    }
+}
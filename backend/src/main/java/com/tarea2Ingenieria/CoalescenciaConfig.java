@@ -0,0 +1,45 @@
+package com.tarea2Ingenieria;
+
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.Variante;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.repository.VarianteRepository;
+import com.tarea2Ingenieria.service.CargadorAgrupado;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Lecturas por id agrupadas (GET /api/muebles/{id} y /api/variantes/{id}): ventana y tope de ids por consulta
+// en app.coalescencia.*
+@Configuration
+public class CoalescenciaConfig {
+
+    @Bean
+    public CargadorAgrupado<Long, Mueble> cargadorMuebles(
+            MuebleRepository muebleRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.coalescencia.ventana:2ms}") Duration ventana,
+            @Value("${app.coalescencia.maximo-lote:100}") int maximoLote) {
+        return new CargadorAgrupado<>("muebles",
+                ids -> muebleRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Mueble::getIdMueble, Function.identity())),
+                ventana, maximoLote, meterRegistry);
+    }
+
+    @Bean
+    public CargadorAgrupado<Long, Variante> cargadorVariantes(
+            VarianteRepository varianteRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.coalescencia.ventana:2ms}") Duration ventana,
+            @Value("${app.coalescencia.maximo-lote:100}") int maximoLote) {
+        return new CargadorAgrupado<>("variantes",
+                ids -> varianteRepository.findAllById(ids).stream()
+                        .collect(Collectors.toMap(Variante::getIdVariante, Function.identity())),
+                ventana, maximoLote, meterRegistry);
+    }
+}
@@ -17,6 +17,7 @@ public class CorsConfig {
                         .allowedOrigins("http://localhost:8081")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH", "OPTIONS")
                         .allowedHeaders("*")
+                        .exposedHeaders("ETag", "Idempotent-Replayed")
                         .allowCredentials(true);
             }
         };
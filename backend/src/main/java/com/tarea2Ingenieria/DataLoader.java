@@ -10,6 +10,8 @@ import com.tarea2Ingenieria.repository.MuebleRepository;
 import com.tarea2Ingenieria.repository.VarianteRepository;
 
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
 import java.util.Arrays;
@@ -19,18 +21,35 @@ public class DataLoader implements CommandLineRunner {
 
     private final MuebleRepository muebleRepository;
     private final VarianteRepository varianteRepository;
+    private final JdbcTemplate jdbcTemplate;
 
-    public DataLoader(MuebleRepository muebleRepository, VarianteRepository varianteRepository) {
+    public DataLoader(MuebleRepository muebleRepository, VarianteRepository varianteRepository, JdbcTemplate jdbcTemplate) {
         this.muebleRepository = muebleRepository;
         this.varianteRepository = varianteRepository;
+        this.jdbcTemplate = jdbcTemplate;
     }
 
     @Override
     public void run(String... args) throws Exception {
+        sincronizarSecuencias();
         cargarVariantes();
         cargarMuebles();
     }
 
+    // En MySQL Hibernate emula las secuencias con tablas que parten en 1. Si la BD ya tenía
+    // cotizaciones creadas con IDENTITY, adelantamos la secuencia para no chocar con esos ids
+    // (el margen cubre el bloque de allocationSize = 50).
+    private void sincronizarSecuencias() {
+        String motor = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        if (!"MySQL".equalsIgnoreCase(motor)) {
+            return;
+        }
+        jdbcTemplate.update("UPDATE cotizaciones_seq SET next_val = GREATEST(next_val, "
+                + "(SELECT COALESCE(MAX(id_cotizacion), 0) + 51 FROM cotizaciones))");
+        jdbcTemplate.update("UPDATE detalles_cotizacion_seq SET next_val = GREATEST(next_val, "
+                + "(SELECT COALESCE(MAX(id_detalle), 0) + 51 FROM detalles_cotizacion))");
+    }
+
     private void cargarVariantes() {
         if (varianteRepository.count() == 0) {
             Variante v1 = new Variante();
@@ -0,0 +1,37 @@
+package com.tarea2Ingenieria;
+
+import com.tarea2Ingenieria.sql.ContadorSentencias;
+import com.tarea2Ingenieria.sql.PresupuestoSqlInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Conteo de sentencias SQL por request y presupuestos @PresupuestoSql.
+// app.sql.presupuesto.modo: "log" (avisa en el log) o "fallar" (corta el request; se usa en los tests)
+@Configuration
+public class PresupuestoSqlConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+    private final boolean fallar;
+
+    public PresupuestoSqlConfig(MeterRegistry meterRegistry,
+                                @Value("${app.sql.presupuesto.modo:log}") String modo) {
+        this.meterRegistry = meterRegistry;
+        this.fallar = "fallar".equalsIgnoreCase(modo);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer contadorSentenciasCustomizer() {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new ContadorSentencias());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new PresupuestoSqlInterceptor(meterRegistry, fallar)).addPathPatterns("/api/**");
+    }
+}
@@ -0,0 +1,11 @@
+package com.tarea2Ingenieria;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.annotation.EnableRetry;
+
+// @Retryable queda por fuera de @Transactional (orden por defecto de @EnableRetry),
+// así cada intento corre en una transacción nueva
+@Configuration
+@EnableRetry
+public class RetryConfig {
+}
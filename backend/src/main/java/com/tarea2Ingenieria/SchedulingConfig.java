@@ -0,0 +1,10 @@
+package com.tarea2Ingenieria;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Tareas de fondo con @Scheduled (barrido de reservas de stock vencidas)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
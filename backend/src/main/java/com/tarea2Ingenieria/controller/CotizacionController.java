@@ -1,14 +1,28 @@
 package com.tarea2Ingenieria.controller;
 
+import com.tarea2Ingenieria.dto.ConfirmacionEnColaDTO;
+import com.tarea2Ingenieria.dto.CotizacionPaginaDTO;
 import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
 import com.tarea2Ingenieria.dto.CotizacionResponseDTO;
+import com.tarea2Ingenieria.dto.PrevisualizacionCotizacionDTO;
+import com.tarea2Ingenieria.service.ColaConfirmacionService;
 import com.tarea2Ingenieria.service.CotizacionService;
+import com.tarea2Ingenieria.service.IdempotenciaService;
+import com.tarea2Ingenieria.sql.PresupuestoSql;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/cotizaciones")
@@ -16,16 +30,36 @@ import java.util.List;
 public class CotizacionController {
 
     private final CotizacionService cotizacionService;
+    private final ColaConfirmacionService colaConfirmacionService;
+    private final IdempotenciaService idempotenciaService;
 
     // 1. Crear Cotización POST /api/cotizaciones
+    // Con Idempotency-Key, un reintento con la misma clave recibe la cotización ya creada en vez de otra
     @PostMapping
-    public ResponseEntity<CotizacionResponseDTO> crearCotizacion(@RequestBody CotizacionRequestDTO requestDTO) {
-        CotizacionResponseDTO cotizacion = cotizacionService.crearCotizacion(requestDTO);
-        return new ResponseEntity<>(cotizacion, HttpStatus.CREATED);
+    // Carga en lote de muebles y variantes, un UPDATE de reserva para todo el carrito,
+    // secuencias e inserts en batch, y el evento del outbox: no crece con las líneas.
+    // +2 con app.idempotencia.almacen=bd (reserva de la clave y respuesta guardada)
+    @PresupuestoSql(14)
+    public ResponseEntity<CotizacionResponseDTO> crearCotizacion(
+            @RequestBody CotizacionRequestDTO requestDTO,
+            @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia) {
+        return idempotenciaService.ejecutar("crear-cotizacion", claveIdempotencia, requestDTO, CotizacionResponseDTO.class,
+                () -> new ResponseEntity<>(cotizacionService.crearCotizacion(requestDTO), HttpStatus.CREATED));
+    }
+
+    // 1b. Previsualizar Cotización POST /api/cotizaciones/previsualizar
+    // Totales del carrito sin guardar nada; con la caché caliente solo lee la disponibilidad
+    @PostMapping("/previsualizar")
+    // Caché fría: variantes + un findAllById con los muebles que falten + disponibilidad, sin importar cuántos
+    // muebles tenga el carrito (hasta ReservaStockService.MAXIMO_IDS_DISPONIBILIDAD distintos; más es un 400)
+    @PresupuestoSql(3)
+    public ResponseEntity<PrevisualizacionCotizacionDTO> previsualizarCotizacion(@RequestBody CotizacionRequestDTO requestDTO) {
+        return ResponseEntity.ok(cotizacionService.previsualizarCotizacion(requestDTO));
     }
 
     // 2. Obtener Cotización por ID GET /api/cotizaciones/{id}
     @GetMapping("/{id}")
+    @PresupuestoSql(1)
     public ResponseEntity<CotizacionResponseDTO> getCotizacionById(@PathVariable Long id) {
         CotizacionResponseDTO cotizacion = cotizacionService.getCotizacionById(id);
         return ResponseEntity.ok(cotizacion);
@@ -33,15 +67,83 @@ public class CotizacionController {
 
     // 3. listar todos las cotizaciones /api/cotizaciones
     @GetMapping
+    @PresupuestoSql(1)
     public ResponseEntity<List<CotizacionResponseDTO>> getAllCotizaciones() {
         List<CotizacionResponseDTO> cotizaciones = cotizacionService.getAllCotizaciones();
         return ResponseEntity.ok(cotizaciones);
     }
 
     // 3. Confirmar Venta POST /api/cotizaciones/{id}/confirmar
+    // Con Idempotency-Key, un reintento de una confirmación que ya se hizo recibe la misma respuesta 200
     @PostMapping("/{id}/confirmar")
-    public ResponseEntity<CotizacionResponseDTO> confirmarVenta(@PathVariable Long id) {
-        CotizacionResponseDTO ventaConfirmada = cotizacionService.confirmarVenta(id);
-        return ResponseEntity.ok(ventaConfirmada);
+    // Lectura + reclamo + consumo de la reserva (ids, lock y borrado) + un UPDATE condicional
+    // de stock por mueble distinto (hasta 10 muebles) + los dos resúmenes de ventas (diario y mensual)
+    // + un INSERT con todos los eventos del outbox. +2 con app.idempotencia.almacen=bd
+    @PresupuestoSql(20)
+    public ResponseEntity<CotizacionResponseDTO> confirmarVenta(
+            @PathVariable Long id,
+            @RequestHeader(value = IdempotenciaService.CABECERA, required = false) String claveIdempotencia) {
+        return idempotenciaService.ejecutar("confirmar-venta", claveIdempotencia, id, CotizacionResponseDTO.class,
+                () -> ResponseEntity.ok(cotizacionService.confirmarVenta(id)));
+    }
+
+    // 3b. Confirmar Venta en cola POST /api/cotizaciones/{id}/confirmar/cola
+    // Para picos de confirmaciones sobre los mismos muebles: responde 202 de inmediato con Location al estado;
+    // la venta se confirma en el próximo lote de la cola. 503 si la cola está llena.
+    @PostMapping("/{id}/confirmar/cola")
+    @PresupuestoSql(0)
+    public ResponseEntity<ConfirmacionEnColaDTO> confirmarVentaEnCola(@PathVariable Long id) {
+        colaConfirmacionService.encolar(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/cotizaciones/" + id + "/confirmacion"))
+                .body(ConfirmacionEnColaDTO.enCola(id));
+    }
+
+    // 3c. Igual, pero la respuesta queda abierta hasta que el lote hace commit: 200 si se confirmó, 409 si no
+    @PostMapping(value = "/{id}/confirmar/cola", params = "esperar=true")
+    @PresupuestoSql(0)
+    public CompletableFuture<ResponseEntity<ConfirmacionEnColaDTO>> confirmarVentaEnColaYEsperar(@PathVariable Long id) {
+        return colaConfirmacionService.encolar(id).thenApply(CotizacionController::respuestaConfirmacion);
+    }
+
+    // 3d. Estado de una confirmación en cola GET /api/cotizaciones/{id}/confirmacion
+    // Se conserva un tiempo después de resolverse (app.confirmacion.cola.retencion)
+    @GetMapping("/{id}/confirmacion")
+    @PresupuestoSql(0)
+    public ResponseEntity<ConfirmacionEnColaDTO> getEstadoConfirmacion(@PathVariable Long id) {
+        return colaConfirmacionService.getEstado(id)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // 4. Listado paginado por cursor GET /api/cotizaciones/pagina?estado=&desde=&hasta=&cursor=&limite=&orden=
+    @GetMapping("/pagina")
+    @PresupuestoSql(2)
+    public ResponseEntity<CotizacionPaginaDTO> getCotizacionesPaginadas(
+            @RequestParam(required = false) String estado,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limite,
+            @RequestParam(defaultValue = "desc") String orden) {
+
+        CotizacionPaginaDTO pagina = cotizacionService.getCotizacionesPaginadas(estado, desde, hasta, cursor, limite, orden);
+        return ResponseEntity.ok(pagina);
+    }
+
+    // 5. Exportar historial GET /api/cotizaciones/exportar?formato=ndjson|csv
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarCotizaciones(@RequestParam(defaultValue = "ndjson") String formato) {
+        boolean csv = "csv".equalsIgnoreCase(formato);
+        StreamingResponseBody cuerpo = salida -> cotizacionService.exportarCotizaciones(salida, formato);
+        return ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8) : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=cotizaciones." + (csv ? "csv" : "ndjson"))
+                .body(cuerpo);
+    }
+
+    private static ResponseEntity<ConfirmacionEnColaDTO> respuestaConfirmacion(ConfirmacionEnColaDTO resultado) {
+        HttpStatus status = ConfirmacionEnColaDTO.CONFIRMADA.equals(resultado.getEstado()) ? HttpStatus.OK : HttpStatus.CONFLICT;
+        return ResponseEntity.status(status).body(resultado);
     }
 }
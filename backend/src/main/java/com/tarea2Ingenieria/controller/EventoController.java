@@ -0,0 +1,28 @@
+package com.tarea2Ingenieria.controller;
+
+import com.tarea2Ingenieria.dto.EventoDominioDTO;
+import com.tarea2Ingenieria.service.EventoOutboxService;
+import com.tarea2Ingenieria.sql.PresupuestoSql;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/eventos")
+@RequiredArgsConstructor
+public class EventoController {
+
+    private final EventoOutboxService eventoOutboxService;
+
+    // 1. Feed de eventos de dominio GET /api/eventos?desde=0&limite=100
+    // Eventos ya publicados con posición mayor que 'desde', en orden. El consumidor guarda la posición del
+    // último que procesó y pide desde ahí: solo recibe cambios nuevos, nunca vuelve a recorrer el historial.
+    @GetMapping
+    @PresupuestoSql(1)
+    public ResponseEntity<List<EventoDominioDTO>> getEventos(@RequestParam(defaultValue = "0") long desde,
+                                                             @RequestParam(defaultValue = "100") int limite) {
+        return ResponseEntity.ok(eventoOutboxService.getEventos(desde, limite));
+    }
+}
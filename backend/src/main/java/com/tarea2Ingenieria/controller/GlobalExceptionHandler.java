@@ -0,0 +1,66 @@
+package com.tarea2Ingenieria.controller;
+
+import com.tarea2Ingenieria.service.ClaveIdempotenciaEnCursoException;
+import com.tarea2Ingenieria.service.ClaveIdempotenciaReutilizadaException;
+import com.tarea2Ingenieria.service.ColaConfirmacionLlenaException;
+import com.tarea2Ingenieria.service.ParametroInvalidoException;
+import com.tarea2Ingenieria.service.StockMenorQueReservadoException;
+import com.tarea2Ingenieria.sql.PresupuestoSqlExcedidoException;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    // Versión desactualizada (If-Match) o conflicto concurrente que agotó los reintentos: HTTP 409
+    @ExceptionHandler(ConcurrencyFailureException.class)
+    public ProblemDetail handleConflicto(ConcurrencyFailureException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT,
+                "El recurso fue modificado por otra operación. Vuelva a leerlo e intente de nuevo.");
+    }
+
+    // Filtro o cursor con un valor que no se puede interpretar: HTTP 400
+    @ExceptionHandler(ParametroInvalidoException.class)
+    public ProblemDetail handleParametroInvalido(ParametroInvalidoException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    // PUT/PATCH con un stock menor que lo reservado por cotizaciones pendientes: HTTP 409
+    @ExceptionHandler(StockMenorQueReservadoException.class)
+    public ProblemDetail handleStockMenorQueReservado(StockMenorQueReservadoException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    // Endpoint que superó su @PresupuestoSql en modo "fallar": HTTP 500 con la sentencia que lo excedió
+    @ExceptionHandler(PresupuestoSqlExcedidoException.class)
+    public ProblemDetail handlePresupuestoSql(PresupuestoSqlExcedidoException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.INTERNAL_SERVER_ERROR, ex.getMessage());
+    }
+
+    // Cola de confirmación llena: HTTP 503 con Retry-After; la confirmación directa sigue disponible
+    @ExceptionHandler(ColaConfirmacionLlenaException.class)
+    public ResponseEntity<ProblemDetail> handleColaLlena(ColaConfirmacionLlenaException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage()));
+    }
+
+    // Idempotency-Key cuya solicitud original sigue ejecutándose: HTTP 409 con Retry-After
+    @ExceptionHandler(ClaveIdempotenciaEnCursoException.class)
+    public ResponseEntity<ProblemDetail> handleClaveEnCurso(ClaveIdempotenciaEnCursoException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, ex.getMessage()));
+    }
+
+    // Idempotency-Key reutilizada con otra solicitud: HTTP 422
+    @ExceptionHandler(ClaveIdempotenciaReutilizadaException.class)
+    public ProblemDetail handleClaveReutilizada(ClaveIdempotenciaReutilizadaException ex) {
+        return ProblemDetail.forStatusAndDetail(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+}
@@ -1,13 +1,32 @@
 package com.tarea2Ingenieria.controller;
 
+import com.tarea2Ingenieria.dto.AjusteMasivoDTO;
+import com.tarea2Ingenieria.dto.AjusteMasivoResultadoDTO;
+import com.tarea2Ingenieria.dto.DisponibilidadStockDTO;
+import com.tarea2Ingenieria.dto.ImportacionResultadoDTO;
 import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.service.BusquedaTextoMuebleService;
+import com.tarea2Ingenieria.service.CatalogoSnapshot;
+import com.tarea2Ingenieria.service.CatalogoSnapshotService;
+import com.tarea2Ingenieria.service.ImportacionMuebleService;
 import com.tarea2Ingenieria.service.MuebleService;
+import com.tarea2Ingenieria.service.ReservaStockService;
+import com.tarea2Ingenieria.service.TransmisionMueblesService;
+import com.tarea2Ingenieria.sql.PresupuestoSql;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.InputStream;
 import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/muebles")
@@ -15,37 +34,128 @@ import java.util.List;
 public class MuebleController {
 
     private final MuebleService muebleService;
+    private final CatalogoSnapshotService catalogoSnapshotService;
+    private final ImportacionMuebleService importacionMuebleService;
+    private final BusquedaTextoMuebleService busquedaTextoMuebleService;
+    private final ReservaStockService reservaStockService;
+    private final TransmisionMueblesService transmisionMueblesService;
 
     // 1. Crear Mueble POST /api/muebles
     @PostMapping
+    @PresupuestoSql(2) // INSERT del mueble + evento del outbox
     public ResponseEntity<MuebleDTO> crearMueble(@RequestBody MuebleDTO muebleDTO) {
         MuebleDTO nuevoMueble = muebleService.crearMueble(muebleDTO);
         return new ResponseEntity<>(nuevoMueble, HttpStatus.CREATED);
     }
 
+    // 1b. Importación masiva POST /api/muebles/importar (arreglo JSON o CSV con cabecera)
+    // El cuerpo se lee en streaming: curl --data-binary @catalogo.csv -H 'Content-Type: text/csv' ...
+    @PostMapping(value = "/importar", consumes = {MediaType.APPLICATION_JSON_VALUE, "text/csv"})
+    public ResponseEntity<ImportacionResultadoDTO> importarMuebles(
+            InputStream cuerpo,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType) {
+
+        String formato = contentType.startsWith("text/csv") ? "csv" : "json";
+        return ResponseEntity.ok(importacionMuebleService.importarMuebles(cuerpo, formato));
+    }
+
     // 2. Listar MueblesGET /api/muebles
+    // Sirve el snapshot ya serializado; con If-None-Match vigente responde 304 sin cuerpo
     @GetMapping
-    public ResponseEntity<List<MuebleDTO>> getMueblesActivos() {
-        List<MuebleDTO> muebles = muebleService.getMueblesActivos();
-        return ResponseEntity.ok(muebles);
+    @PresupuestoSql(1)
+    public ResponseEntity<byte[]> getMueblesActivos(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+
+        CatalogoSnapshot snapshot = catalogoSnapshotService.getSnapshot();
+        boolean gzip = aceptaGzip(acceptEncoding);
+        String etag = gzip ? snapshot.etagGzip() : snapshot.etag();
+
+        if (snapshot.coincideCon(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING)
+                    .build();
+        }
+
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return respuesta.body(snapshot.jsonGzip());
+        }
+        return respuesta.body(snapshot.json());
+    }
+
+    // 2b. Buscar en el catálogo activo GET /api/muebles/buscar?tipo=&material=&tamanio=&precioMin=&precioMax=&page=&size=&sort=precioBase,asc
+    @GetMapping("/buscar")
+    @PresupuestoSql(2) // página + conteo
+    public ResponseEntity<PagedModel<MuebleDTO>> buscarMuebles(
+            @RequestParam(required = false) String tipo,
+            @RequestParam(required = false) String material,
+            @RequestParam(required = false) String tamanio,
+            @RequestParam(required = false) Double precioMin,
+            @RequestParam(required = false) Double precioMax,
+            @PageableDefault(size = 20, sort = "precioBase") Pageable pageable) {
+
+        return ResponseEntity.ok(new PagedModel<>(
+                muebleService.buscarMuebles(tipo, material, tamanio, precioMin, precioMax, pageable)));
+    }
+
+    // 2c. Buscar por nombre, tipo o material GET /api/muebles/texto?q=sofa roble&limite=20
+    // Sin tildes ni mayúsculas y tolerante a errores de tipeo; ordena por relevancia
+    @GetMapping("/texto")
+    @PresupuestoSql(0) // responde desde el índice de texto
+    public ResponseEntity<List<MuebleDTO>> buscarPorTexto(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "20") int limite) {
+        return ResponseEntity.ok(busquedaTextoMuebleService.buscar(q, limite));
+    }
+
+    // 2d. Stock disponible GET /api/muebles/disponibilidad?ids=1,2,3 (hasta 100 ids)
+    // Descuenta lo reservado por cotizaciones pendientes; se lee de la BD sin caché y sin bloquear filas
+    @GetMapping("/disponibilidad")
+    @PresupuestoSql(1)
+    public ResponseEntity<List<DisponibilidadStockDTO>> getDisponibilidad(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(reservaStockService.getDisponibilidad(Set.copyOf(ids)));
+    }
+
+    // 2e. Cambios en vivo GET /api/muebles/stream (text/event-stream)
+    // Eventos "muebles" con [{idMueble, stock, precioBase, estado}] de los muebles que cambiaron. El cliente se
+    // suscribe antes de pedir /api/muebles; al reconectar, EventSource manda Last-Event-ID y recibe lo que se
+    // perdió, o "resincronizar" si ya no está en el historial y debe volver a pedir el catálogo.
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PresupuestoSql(1) // solo la primera suscripción de la instancia lee la posición del outbox
+    public SseEmitter streamCambios(@RequestHeader(value = "Last-Event-ID", required = false) String ultimoIdEvento) {
+        return transmisionMueblesService.suscribir(ultimoIdEvento);
     }
 
     // 3. Obtener Mueble por ID GET /api/muebles/{id}
     @GetMapping("/{id}")
+    @PresupuestoSql(1)
     public ResponseEntity<MuebleDTO> getMuebleById(@PathVariable Long id) {
         MuebleDTO mueble = muebleService.getMuebleById(id);
-        return ResponseEntity.ok(mueble);
+        return ResponseEntity.ok().eTag(String.valueOf(mueble.getVersion())).body(mueble);
     }
 
     // 4. Actualizar MueblePUT /api/muebles/{id}
     @PutMapping("/{id}")
-    public ResponseEntity<MuebleDTO> actualizarMueble(@PathVariable Long id, @RequestBody MuebleDTO muebleDTO) {
+    @PresupuestoSql(3) // lectura + UPDATE + evento del outbox (si corresponde)
+    public ResponseEntity<MuebleDTO> actualizarMueble(
+            @PathVariable Long id,
+            @RequestBody MuebleDTO muebleDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+
+        aplicarIfMatch(muebleDTO, ifMatch);
         MuebleDTO muebleActualizado = muebleService.actualizarMueble(id, muebleDTO);
-        return ResponseEntity.ok(muebleActualizado);
+        return ResponseEntity.ok().eTag(String.valueOf(muebleActualizado.getVersion())).body(muebleActualizado);
     }
 
     // 5. Desactivar Mueble DELETE /api/muebles/{id}
     @DeleteMapping("/{id}")
+    @PresupuestoSql(3) // lectura + UPDATE + evento del outbox (si corresponde)
     public ResponseEntity<Void> desactivarMueble(@PathVariable Long id) {
         muebleService.desactivarMueble(id);
         return ResponseEntity.noContent().build(); // HTTP 204 No Content
@@ -53,6 +163,7 @@ public class MuebleController {
 
     // 5. Activar Mueble Post /api/{id}/activar
     @PostMapping("/{id}/activar")
+    @PresupuestoSql(3) // lectura + UPDATE + evento del outbox (si corresponde)
     public ResponseEntity<Void> activarMueble(@PathVariable Long id) {
         muebleService.activarMueble(id);
         return ResponseEntity.ok().build(); // Devuelve HTTP 200 OK
@@ -60,11 +171,76 @@ public class MuebleController {
 
     // 5. Activar Mueble Patch /api/muebles/{id}
     @PatchMapping("/{id}")
+    @PresupuestoSql(3) // lectura + UPDATE + evento del outbox (si corresponde)
     public ResponseEntity<MuebleDTO> actualizarParcialMueble(
             @PathVariable Long id,
-            @RequestBody MuebleDTO muebleDTO) {
+            @RequestBody MuebleDTO muebleDTO,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
+        aplicarIfMatch(muebleDTO, ifMatch);
         MuebleDTO muebleActualizado = muebleService.actualizarParcialMueble(id, muebleDTO);
-        return ResponseEntity.ok(muebleActualizado);
+        return ResponseEntity.ok().eTag(String.valueOf(muebleActualizado.getVersion())).body(muebleActualizado);
+    }
+
+    // 6. Ajuste masivo de precio/stock POST /api/muebles/ajustes?simular=true
+    // Con simular=true solo cuenta los muebles que se verían afectados
+    @PostMapping("/ajustes")
+    // Costo O(n/1000): la consulta de ids es fija y el servicio suma al presupuesto 2 sentencias (UPDATE +
+    // INSERT de eventos) por cada bloque de 1000 muebles que va a ajustar
+    @PresupuestoSql(1)
+    public ResponseEntity<AjusteMasivoResultadoDTO> ajustarMasivo(
+            @RequestBody AjusteMasivoDTO ajuste,
+            @RequestParam(defaultValue = "false") boolean simular) {
+        return ResponseEntity.ok(muebleService.ajustarMasivo(ajuste, simular));
+    }
+
+    // Accept-Encoding con q-values (RFC 9110): gzip (o x-gzip) con q > 0, o "*" con q > 0 si gzip no aparece.
+    // "gzip;q=0" lo rechaza explícitamente aunque haya un "*".
+    private static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return false;
+        }
+        Double gzip = null;
+        Double comodin = null;
+        for (String elemento : acceptEncoding.split(",")) {
+            String[] partes = elemento.split(";");
+            String codificacion = partes[0].trim().toLowerCase();
+            double q = 1.0;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim().toLowerCase();
+                if (parametro.startsWith("q=")) {
+                    try {
+                        q = Double.parseDouble(parametro.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        // q mal formado: se ignora la codificación
+                        q = 0.0;
+                    }
+                }
+            }
+            if (codificacion.equals("gzip") || codificacion.equals("x-gzip")) {
+                gzip = q;
+            } else if (codificacion.equals("*")) {
+                comodin = q;
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return comodin != null && comodin > 0;
+    }
+
+    // El ETag de un mueble es su versión; If-Match tiene prioridad sobre la versión del cuerpo.
+    // "*" o sin cabecera: no se exige versión.
+    private void aplicarIfMatch(MuebleDTO muebleDTO, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return;
+        }
+        String valor = ifMatch.trim().replaceFirst("^W/", "").replace("\"", "");
+        try {
+            muebleDTO.setVersion(Long.valueOf(valor));
+        } catch (NumberFormatException e) {
+            // Un ETag que no es nuestro nunca coincide
+            muebleDTO.setVersion(-1L);
+        }
     }
 }
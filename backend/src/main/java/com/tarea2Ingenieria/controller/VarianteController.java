@@ -2,6 +2,7 @@ package com.tarea2Ingenieria.controller;
 
 import com.tarea2Ingenieria.dto.VarianteDTO;
 import com.tarea2Ingenieria.service.VarianteService;
+import com.tarea2Ingenieria.sql.PresupuestoSql;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -11,6 +12,7 @@ import java.util.List;
 
 @RestController
 @RequestMapping("/api/variantes")
+@PresupuestoSql(1)
 @RequiredArgsConstructor
 public class VarianteController {
 
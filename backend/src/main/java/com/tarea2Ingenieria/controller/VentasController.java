@@ -0,0 +1,52 @@
+package com.tarea2Ingenieria.controller;
+
+import com.tarea2Ingenieria.dto.IngresoPeriodoDTO;
+import com.tarea2Ingenieria.dto.ReconstruccionVentasDTO;
+import com.tarea2Ingenieria.dto.VentaRankingDTO;
+import com.tarea2Ingenieria.service.VentasService;
+import com.tarea2Ingenieria.sql.PresupuestoSql;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ventas")
+@RequiredArgsConstructor
+public class VentasController {
+
+    private final VentasService ventasService;
+
+    // 1. Ingresos por período GET /api/ventas/ingresos?desde=2026-01-01&hasta=2026-10-31&granularidad=dia|mes
+    // Sin fechas: últimos 30 días (dia) o últimos 12 meses (mes)
+    @GetMapping("/ingresos")
+    @PresupuestoSql(1)
+    public ResponseEntity<List<IngresoPeriodoDTO>> getIngresos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "dia") String granularidad) {
+        return ResponseEntity.ok(ventasService.getIngresos(desde, hasta, granularidad));
+    }
+
+    // 2. Más vendidos GET /api/ventas/mas-vendidos?desde=&hasta=&por=mueble|variante&limite=10
+    // Ordenados por ingresos; sin fechas: últimos 30 días
+    @GetMapping("/mas-vendidos")
+    @PresupuestoSql(1)
+    public ResponseEntity<List<VentaRankingDTO>> getMasVendidos(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+            @RequestParam(defaultValue = "mueble") String por,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(ventasService.getMasVendidos(desde, hasta, por, limite));
+    }
+
+    // 3. Reconstruir resúmenes desde el historial POST /api/ventas/reconstruir
+    // Un mes por transacción, en paralelo (app.ventas.reconstruccion.hilos)
+    @PostMapping("/reconstruir")
+    public ResponseEntity<ReconstruccionVentasDTO> reconstruirResumenes() {
+        return ResponseEntity.ok(ventasService.reconstruirResumenes());
+    }
+}
@@ -0,0 +1,18 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class AjusteMasivoDTO {
+    // Filtros (se combinan con AND; al menos uno es obligatorio)
+    private List<Long> ids;
+    private String tipo;
+    private String material;
+    private String tamanio;
+
+    // Ajustes (al menos uno): precioBase * (1 + porcentajePrecio/100) y stock + deltaStock (sin bajar de lo reservado)
+    private Double porcentajePrecio;
+    private Integer deltaStock;
+}
@@ -0,0 +1,11 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class AjusteMasivoResultadoDTO {
+    private int afectados;
+    private boolean simulado;
+}
@@ -0,0 +1,17 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Lo que envía el stream de muebles por cada mueble que cambió: el estado actual de los campos que muestra
+// el catálogo, no la diferencia. Aplicarlo dos veces o fuera de orden deja al cliente igual.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CambioMuebleDTO {
+    private Long idMueble;
+    private Integer stock;
+    private Double precioBase;
+    private String estado;
+}
@@ -0,0 +1,21 @@
+package com.tarea2Ingenieria.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Datos de STOCK_MUEBLE_CAMBIADO. Los campos que no se conocen sin releer la fila van en null y no se envían:
+// una venta conoce la diferencia pero no el stock resultante (el UPDATE es condicional) y un ajuste masivo
+// conoce el stock resultante pero no la diferencia exacta (el stock no baja de 0).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CambioStockDTO {
+    private Long idMueble;
+    private Integer stock;
+    private Integer diferencia;
+    // Venta que lo descontó, si corresponde
+    private Long idCotizacion;
+}
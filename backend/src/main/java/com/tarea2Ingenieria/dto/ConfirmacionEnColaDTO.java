@@ -0,0 +1,35 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ConfirmacionEnColaDTO {
+
+    public static final String EN_COLA = "EN_COLA";
+    public static final String CONFIRMADA = "CONFIRMADA";
+    public static final String RECHAZADA = "RECHAZADA";
+
+    private Long idCotizacion;
+    // EN_COLA, CONFIRMADA o RECHAZADA
+    private String estado;
+    // Por qué se rechazó (los mismos mensajes que la confirmación directa)
+    private String motivo;
+    // La venta confirmada; null mientras está en cola o si se rechazó
+    private CotizacionResponseDTO cotizacion;
+
+    public static ConfirmacionEnColaDTO enCola(Long idCotizacion) {
+        return new ConfirmacionEnColaDTO(idCotizacion, EN_COLA, null, null);
+    }
+
+    public static ConfirmacionEnColaDTO confirmada(CotizacionResponseDTO cotizacion) {
+        return new ConfirmacionEnColaDTO(cotizacion.getIdCotizacion(), CONFIRMADA, null, cotizacion);
+    }
+
+    public static ConfirmacionEnColaDTO rechazada(Long idCotizacion, String motivo) {
+        return new ConfirmacionEnColaDTO(idCotizacion, RECHAZADA, motivo, null);
+    }
+}
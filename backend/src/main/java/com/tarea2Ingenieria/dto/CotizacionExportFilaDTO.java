@@ -0,0 +1,24 @@
+package com.tarea2Ingenieria.dto;
+
+import com.tarea2Ingenieria.model.enums.EstadoCotizacion;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDate;
+
+// Fila plana (cotización + detalle) que usa la exportación. Se arma con un constructor JPQL,
+// así Hibernate no crea entidades administradas mientras se recorre el cursor.
+@Data
+@AllArgsConstructor
+public class CotizacionExportFilaDTO {
+    private Long idCotizacion;
+    private LocalDate fecha;
+    private EstadoCotizacion estado;
+    private Double total;
+    private Long idDetalle;
+    private Long idMueble;
+    private String nombreMueble;
+    private String nombreVariante;
+    private Integer cantidad;
+    private Double precioUnitario;
+}
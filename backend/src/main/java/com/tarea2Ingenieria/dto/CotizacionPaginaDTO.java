@@ -0,0 +1,12 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.Data;
+import java.util.List;
+
+// Página del listado por cursor: siguienteCursor se envía tal cual en la próxima petición
+@Data
+public class CotizacionPaginaDTO {
+    private List<CotizacionResponseDTO> contenido;
+    private String siguienteCursor;
+    private boolean hayMas;
+}
@@ -0,0 +1,22 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+public class DisponibilidadStockDTO {
+    private Long idMueble;
+    private int stock;
+    // Unidades retenidas por cotizaciones pendientes con la reserva vigente
+    private int reservado;
+    private int disponible;
+
+    public DisponibilidadStockDTO(Long idMueble, int stock, int reservado) {
+        this.idMueble = idMueble;
+        this.stock = stock;
+        this.reservado = reservado;
+        // Un ajuste de stock puede dejarlo por debajo de lo reservado
+        this.disponible = Math.max(0, stock - reservado);
+    }
+}
@@ -0,0 +1,11 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ErrorFilaDTO {
+    private long fila;
+    private String mensaje;
+}
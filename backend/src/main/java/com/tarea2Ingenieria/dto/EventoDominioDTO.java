@@ -0,0 +1,23 @@
+package com.tarea2Ingenieria.dto;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventoDominioDTO {
+    // Orden de publicación: el consumidor guarda la última que procesó y pide desde ahí
+    private Long posicion;
+    // Identidad del evento (para descartar repetidos: la entrega es al menos una vez)
+    private Long idEvento;
+    private String tipo;
+    private Long idAgregado;
+    @JsonRawValue
+    private String datos;
+    private Instant creadoEn;
+}
@@ -0,0 +1,16 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ImportacionResultadoDTO {
+    private long filasLeidas;
+    private long insertados;
+    private long conError;
+    // Solo los primeros errores (app.importacion.max-errores); el resto se cuenta en erroresOmitidos
+    private List<ErrorFilaDTO> errores = new ArrayList<>();
+    private long erroresOmitidos;
+}
@@ -0,0 +1,13 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class IngresoPeriodoDTO {
+    // "2026-10-18" por día o "2026-10" por mes
+    private String periodo;
+    private long unidades;
+    private double ingresos;
+}
@@ -0,0 +1,17 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.Data;
+
+@Data
+public class LineaPrevisualizacionDTO {
+    private Long idMueble;
+    private Long idVariante;
+    private String nombreMueble;
+    private String nombreVariante;
+    private Integer cantidad;
+    private Double precioUnitario;
+    private Double subtotal;
+    // false si el mueble está inactivo o no alcanza el stock; el motivo explica cuál
+    private boolean disponible;
+    private String motivo;
+}
@@ -12,4 +12,5 @@ public class MuebleDTO {
     private String estado;
     private String tamanio;
     private String material;
+    private Long version;
 }
@@ -0,0 +1,13 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PrevisualizacionCotizacionDTO {
+    private List<LineaPrevisualizacionDTO> lineas;
+    private Double total;
+    // Todas las líneas disponibles: crear y confirmar la cotización no debería fallar por stock o estado
+    private boolean confirmable;
+}
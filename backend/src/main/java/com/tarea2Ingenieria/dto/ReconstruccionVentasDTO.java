@@ -0,0 +1,13 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ReconstruccionVentasDTO {
+    private int meses;
+    private long filasDiarias;
+    private long filasMensuales;
+    private long milisegundos;
+}
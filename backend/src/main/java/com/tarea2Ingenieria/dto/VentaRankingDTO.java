@@ -0,0 +1,14 @@
+package com.tarea2Ingenieria.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class VentaRankingDTO {
+    // idMueble o idVariante según el ranking pedido
+    private Long id;
+    private String nombre;
+    private long unidades;
+    private double ingresos;
+}
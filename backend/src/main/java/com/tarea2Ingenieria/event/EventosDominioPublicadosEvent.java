@@ -0,0 +1,11 @@
+package com.tarea2Ingenieria.event;
+
+import com.tarea2Ingenieria.dto.EventoDominioDTO;
+
+import java.util.List;
+
+// Lote de eventos del outbox que el relay acaba de publicar, en orden de posición, para consumidores dentro
+// de la aplicación. Se publica dentro de la transacción del relay: un @EventListener que falla la revierte y
+// el lote se vuelve a entregar; un @TransactionalEventListener lo recibe recién con el lote ya confirmado.
+public record EventosDominioPublicadosEvent(List<EventoDominioDTO> eventos) {
+}
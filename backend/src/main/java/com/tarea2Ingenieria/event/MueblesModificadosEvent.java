@@ -0,0 +1,8 @@
+package com.tarea2Ingenieria.event;
+
+import java.util.Set;
+
+// Se publica cuando cambian datos de uno o más muebles (alta, edición, estado o stock).
+// Los listeners transaccionales lo reciben recién después del commit.
+public record MueblesModificadosEvent(Set<Long> idsMuebles) {
+}
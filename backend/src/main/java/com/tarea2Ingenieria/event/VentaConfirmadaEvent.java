@@ -0,0 +1,14 @@
+package com.tarea2Ingenieria.event;
+
+import java.util.Collection;
+import java.util.List;
+
+// Se publica dentro de la transacción de confirmarVenta, después de reclamar la cotización y descontar stock.
+// Los listeners síncronos escriben en la misma transacción: si la confirmación se revierte, ellos también.
+// Un lote de la cola de confirmación publica un solo evento con todas las cotizaciones que aceptó.
+public record VentaConfirmadaEvent(Collection<Long> idsCotizacion) {
+
+    public VentaConfirmadaEvent(Long idCotizacion) {
+        this(List.of(idCotizacion));
+    }
+}
@@ -0,0 +1,39 @@
+package com.tarea2Ingenieria.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Respuesta guardada para una Idempotency-Key (solo con app.idempotencia.almacen=bd): permite reproducirla
+// desde otra instancia o después de un reinicio. Mientras codigo es null la solicitud original está en curso.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "claves_idempotencia", indexes = {
+        @Index(name = "idx_claves_idempotencia_creada_en", columnList = "creada_en")
+})
+public class ClaveIdempotencia {
+
+    // SHA-256 de operación + clave: largo fijo sin importar lo que mande el cliente
+    @Id
+    @Column(length = 64)
+    private String clave;
+
+    // SHA-256 de la solicitud: la misma clave con otra solicitud se rechaza
+    @Column(nullable = false, length = 64)
+    private String huella;
+
+    // Código HTTP de la respuesta original
+    private Integer codigo;
+
+    // Cuerpo JSON de la respuesta original
+    @Lob
+    private String cuerpo;
+
+    @Column(name = "creada_en", nullable = false)
+    private Instant creadaEn;
+}
@@ -12,16 +12,27 @@ import java.util.List;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "cotizaciones")
+@Table(name = "cotizaciones", indexes = {
+        // Soportan el listado por cursor (fecha, id) con y sin filtro de estado
+        @Index(name = "idx_cotizaciones_fecha_id", columnList = "fecha, id_cotizacion"),
+        @Index(name = "idx_cotizaciones_estado_fecha_id", columnList = "estado, fecha, id_cotizacion"),
+        // Reconstrucción de los resúmenes de ventas por rango de fecha de confirmación
+        @Index(name = "idx_cotizaciones_estado_fecha_confirmacion", columnList = "estado, fecha_confirmacion")
+})
 public class Cotizacion {
 
+    // Secuencia con asignación en bloques: a diferencia de IDENTITY permite que Hibernate agrupe los INSERT en lotes JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cotizaciones_seq")
+    @SequenceGenerator(name = "cotizaciones_seq", sequenceName = "cotizaciones_seq", allocationSize = 50)
     private Long idCotizacion;
 
     @Column(nullable = false)
     private LocalDate fecha;
 
+    // Día en que se confirmó la venta; null mientras está PENDIENTE
+    private LocalDate fechaConfirmacion;
+
     @Column(nullable = false)
     private Double total;
 
@@ -31,4 +42,8 @@ public class Cotizacion {
 
     @OneToMany(mappedBy = "cotizacion", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<DetalleCotizacion> detalles;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -13,7 +13,8 @@ import lombok.Setter;
 public class DetalleCotizacion {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "detalles_cotizacion_seq")
+    @SequenceGenerator(name = "detalles_cotizacion_seq", sequenceName = "detalles_cotizacion_seq", allocationSize = 50)
     private Long idDetalle;
 
     @Column(nullable = false)
@@ -0,0 +1,57 @@
+package com.tarea2Ingenieria.model;
+
+import com.tarea2Ingenieria.model.enums.TipoEventoDominio;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Evento de dominio escrito en la misma transacción que el cambio que lo origina (patrón outbox).
+// El relay de EventoOutboxServiceImpl le asigna 'posicion' al publicarlo: es el orden en que lo ven los
+// consumidores y el cursor para retomar el feed. El id no sirve de cursor porque las transacciones no
+// hacen commit en el orden de sus ids. Mientras posicion es null el evento está pendiente.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "eventos_outbox", indexes = {
+        // Único: dos relays no pueden publicar en la misma posición; también sirve a los pendientes (IS NULL)
+        @Index(name = "uk_eventos_outbox_posicion", columnList = "posicion", unique = true)
+})
+public class EventoOutbox {
+
+    // IDENTITY: los eventos de una transacción se insertan con un solo INSERT de varias filas
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long idEvento;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 40)
+    private TipoEventoDominio tipo;
+
+    // Id de la cotización o del mueble, según el tipo
+    @Column(name = "id_agregado", nullable = false)
+    private Long idAgregado;
+
+    // JSON con los datos del evento
+    @Lob
+    @Column(nullable = false)
+    private String datos;
+
+    @Column(name = "creado_en", nullable = false)
+    private Instant creadoEn;
+
+    private Long posicion;
+
+    @Column(name = "publicado_en")
+    private Instant publicadoEn;
+
+    public EventoOutbox(TipoEventoDominio tipo, Long idAgregado, String datos, Instant creadoEn) {
+        this.tipo = tipo;
+        this.idAgregado = idAgregado;
+        this.datos = datos;
+        this.creadoEn = creadoEn;
+    }
+}
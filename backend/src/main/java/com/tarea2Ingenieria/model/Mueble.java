@@ -3,6 +3,7 @@ package com.tarea2Ingenieria.model;
 import com.tarea2Ingenieria.model.enums.EstadoMueble;
 import com.tarea2Ingenieria.model.enums.TamanioMueble;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -12,8 +13,14 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @Entity
-@Table(name = "muebles")
-
+@Table(name = "muebles", indexes = {
+        // Búsqueda del catálogo: igualdades primero y precio al final para rangos y orden por precio.
+        // tipo y material se filtran con lower(), así que de estos índices se aprovecha el prefijo estado (y tamanio)
+        @Index(name = "idx_muebles_estado_tipo_material_precio", columnList = "estado, tipo, material, precio_base"),
+        @Index(name = "idx_muebles_estado_material_precio", columnList = "estado, material, precio_base"),
+        @Index(name = "idx_muebles_estado_tamanio_precio", columnList = "estado, tamanio, precio_base"),
+        @Index(name = "idx_muebles_estado_precio", columnList = "estado, precio_base")
+})
 public class Mueble {
 
     @Id
@@ -32,6 +39,12 @@ public class Mueble {
     @Column(nullable = false)
     private Integer stock;
 
+    // Unidades retenidas por cotizaciones pendientes (ver ReservaStock); disponible = stock - reservado.
+    // Solo lo cambian los UPDATE atómicos de MuebleRepository: guardar la entidad nunca pisa el valor
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private Integer reservado = 0;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private EstadoMueble estado;
@@ -42,4 +55,9 @@ public class Mueble {
 
     @Column(nullable = false)
     private String material;
+
+    // Control optimista de concurrencia: un UPDATE con versión vieja falla en vez de pisar cambios ajenos
+    @Version
+    @Column(nullable = false)
+    private Long version;
 }
@@ -0,0 +1,44 @@
+package com.tarea2Ingenieria.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Stock retenido por una línea de una cotización pendiente hasta expiraEn. La fila existe solo mientras
+// la reserva está vigente: confirmarVenta la consume y el barrido de ReservaStockServiceImpl borra las vencidas.
+// El total por mueble vive en Mueble.reservado, así leer la disponibilidad no suma esta tabla.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "reservas_stock", indexes = {
+        @Index(name = "idx_reservas_stock_expira_en", columnList = "expira_en"),
+        @Index(name = "idx_reservas_stock_cotizacion", columnList = "id_cotizacion")
+})
+public class ReservaStock {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservas_stock_seq")
+    @SequenceGenerator(name = "reservas_stock_seq", sequenceName = "reservas_stock_seq", allocationSize = 50)
+    private Long idReserva;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "id_detalle", nullable = false, unique = true)
+    private DetalleCotizacion detalle;
+
+    // Copias de la cotización y el mueble del detalle: consumir y liberar no necesitan joins
+    @Column(name = "id_cotizacion", nullable = false)
+    private Long idCotizacion;
+
+    @Column(name = "id_mueble", nullable = false)
+    private Long idMueble;
+
+    @Column(nullable = false)
+    private Integer cantidad;
+
+    @Column(name = "expira_en", nullable = false)
+    private Instant expiraEn;
+}
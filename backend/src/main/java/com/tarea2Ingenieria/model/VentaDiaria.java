@@ -0,0 +1,47 @@
+package com.tarea2Ingenieria.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Resumen de ventas confirmadas por día, mueble y variante. Lo mantiene VentasServiceImpl:
+// se suma en la misma transacción de cada confirmarVenta y se puede reconstruir desde el historial.
+// La clave primaria empieza por fecha, así las consultas por rango de días no necesitan otro índice.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "ventas_diarias")
+@IdClass(VentaDiaria.Clave.class)
+public class VentaDiaria {
+
+    @Id
+    private LocalDate fecha;
+
+    @Id
+    private Long idMueble;
+
+    @Id
+    private Long idVariante;
+
+    @Column(nullable = false)
+    private Long unidades;
+
+    @Column(nullable = false)
+    private Double ingresos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private LocalDate fecha;
+        private Long idMueble;
+        private Long idVariante;
+    }
+}
@@ -0,0 +1,44 @@
+package com.tarea2Ingenieria.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+// Igual que VentaDiaria pero por mes; periodo es año * 100 + mes (202610 = octubre de 2026)
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "ventas_mensuales")
+@IdClass(VentaMensual.Clave.class)
+public class VentaMensual {
+
+    @Id
+    private Integer periodo;
+
+    @Id
+    private Long idMueble;
+
+    @Id
+    private Long idVariante;
+
+    @Column(nullable = false)
+    private Long unidades;
+
+    @Column(nullable = false)
+    private Double ingresos;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Clave implements Serializable {
+        private Integer periodo;
+        private Long idMueble;
+        private Long idVariante;
+    }
+}
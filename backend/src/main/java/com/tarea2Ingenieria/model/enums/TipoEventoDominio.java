@@ -0,0 +1,12 @@
+package com.tarea2Ingenieria.model.enums;
+
+// Tipos de evento que se publican por el outbox (eventos_outbox) para sistemas externos
+public enum TipoEventoDominio {
+    COTIZACION_CREADA,
+    VENTA_CONFIRMADA,
+    MUEBLE_CREADO,
+    MUEBLE_ACTUALIZADO,
+    STOCK_MUEBLE_CAMBIADO,
+    MUEBLE_ACTIVADO,
+    MUEBLE_DESACTIVADO
+}
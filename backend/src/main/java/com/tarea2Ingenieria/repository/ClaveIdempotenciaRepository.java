@@ -0,0 +1,48 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.ClaveIdempotencia;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+// Cada método es su propia transacción corta: la clave se reserva y se completa por fuera de la transacción
+// de negocio, para que otra instancia vea enseguida que está en curso.
+@Repository
+public interface ClaveIdempotenciaRepository extends JpaRepository<ClaveIdempotencia, String> {
+
+    // INSERT directo (save() haría merge): si la clave ya existe falla con DataIntegrityViolationException
+    @Transactional
+    @Modifying
+    @Query("insert into ClaveIdempotencia (clave, huella, creadaEn) values (:clave, :huella, :creadaEn)")
+    int reservar(@Param("clave") String clave, @Param("huella") String huella, @Param("creadaEn") Instant creadaEn);
+
+    // Toma una reserva que quedó en curso desde antes de 'antes' (la instancia que la tenía se cayó)
+    @Transactional
+    @Modifying
+    @Query("update ClaveIdempotencia c set c.creadaEn = :ahora " +
+            "where c.clave = :clave and c.codigo is null and c.creadaEn < :antes")
+    int tomarAbandonada(@Param("clave") String clave, @Param("antes") Instant antes, @Param("ahora") Instant ahora);
+
+    // completar y liberar sólo tocan la reserva propia (creadaEn): si otra instancia la retomó por abandonada, es suya
+    @Transactional
+    @Modifying
+    @Query("update ClaveIdempotencia c set c.codigo = :codigo, c.cuerpo = :cuerpo " +
+            "where c.clave = :clave and c.codigo is null and c.creadaEn = :creadaEn")
+    int completar(@Param("clave") String clave, @Param("creadaEn") Instant creadaEn,
+                  @Param("codigo") int codigo, @Param("cuerpo") String cuerpo);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ClaveIdempotencia c where c.clave = :clave and c.codigo is null and c.creadaEn = :creadaEn")
+    int liberar(@Param("clave") String clave, @Param("creadaEn") Instant creadaEn);
+
+    @Transactional
+    @Modifying
+    @Query("delete from ClaveIdempotencia c where c.creadaEn < :antes")
+    int borrarAnterioresA(@Param("antes") Instant antes);
+}
@@ -1,9 +1,88 @@
 package com.tarea2Ingenieria.repository;
 
+import com.tarea2Ingenieria.dto.CotizacionExportFilaDTO;
 import com.tarea2Ingenieria.model.Cotizacion;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
-public interface CotizacionRepository extends JpaRepository<Cotizacion, Long> {
+public interface CotizacionRepository extends JpaRepository<Cotizacion, Long>, JpaSpecificationExecutor<Cotizacion> {
+
+    // Trae cotización, detalles, mueble y variante en una sola consulta (evita el N+1 del mapper)
+    @Query("select distinct c from Cotizacion c " +
+            "left join fetch c.detalles d " +
+            "left join fetch d.mueble " +
+            "left join fetch d.variante " +
+            "order by c.idCotizacion")
+    List<Cotizacion> findAllConDetalles();
+
+    @Query("select c from Cotizacion c " +
+            "left join fetch c.detalles d " +
+            "left join fetch d.mueble " +
+            "left join fetch d.variante " +
+            "where c.idCotizacion = :id")
+    Optional<Cotizacion> findByIdConDetalles(@Param("id") Long id);
+
+    @Query("select distinct c from Cotizacion c " +
+            "left join fetch c.detalles d " +
+            "left join fetch d.mueble " +
+            "left join fetch d.variante " +
+            "where c.idCotizacion in :ids")
+    List<Cotizacion> findAllConDetallesByIds(@Param("ids") Collection<Long> ids);
+
+    // Pasa la cotización a CONFIRMADA solo si sigue PENDIENTE. Devuelve 0 si otra confirmación ganó.
+    // La fecha la pasa el servicio con el reloj de la aplicación, el mismo que usan las consultas de ventas
+    // para el rango por defecto: con la BD en otra zona horaria una venta de hoy podría quedar fuera.
+    // Limpia el contexto para que la entidad ya cargada no vuelva a escribirse en el flush.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Cotizacion c set c.estado = com.tarea2Ingenieria.model.enums.EstadoCotizacion.CONFIRMADA, " +
+            "c.fechaConfirmacion = :fecha, c.version = c.version + 1 " +
+            "where c.idCotizacion = :id " +
+            "and c.estado = com.tarea2Ingenieria.model.enums.EstadoCotizacion.PENDIENTE")
+    int marcarConfirmada(@Param("id") Long id, @Param("fecha") LocalDate fecha);
+
+    // Lote de la cola de confirmación: bloquea las cotizaciones en orden de id para que ninguna confirmación
+    // suelta las reclame mientras el lote decide cuáles acepta. Sin fetch join: así no bloquea muebles.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Cotizacion c where c.idCotizacion in :ids order by c.idCotizacion")
+    List<Cotizacion> bloquear(@Param("ids") Collection<Long> ids);
+
+    // Igual que marcarConfirmada, para todas las cotizaciones aceptadas de un lote
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Cotizacion c set c.estado = com.tarea2Ingenieria.model.enums.EstadoCotizacion.CONFIRMADA, " +
+            "c.fechaConfirmacion = :fecha, c.version = c.version + 1 " +
+            "where c.idCotizacion in :ids " +
+            "and c.estado = com.tarea2Ingenieria.model.enums.EstadoCotizacion.PENDIENTE")
+    int marcarConfirmadas(@Param("ids") Collection<Long> ids, @Param("fecha") LocalDate fecha);
+
+    // Recorre todo el historial con un cursor del servidor (fetch size + useCursorFetch en MySQL).
+    // Debe consumirse dentro de una transacción y cerrarse al terminar.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.tarea2Ingenieria.dto.CotizacionExportFilaDTO(" +
+            "c.idCotizacion, c.fecha, c.estado, c.total, d.idDetalle, m.idMueble, m.nombreMueble, v.nombre, " +
+            "d.cantidad, d.precioUnitarioSnapshot) " +
+            "from Cotizacion c " +
+            "left join c.detalles d " +
+            "left join d.mueble m " +
+            "left join d.variante v " +
+            "order by c.idCotizacion, d.idDetalle")
+    Stream<CotizacionExportFilaDTO> streamExportacion();
 }
@@ -0,0 +1,39 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.Cotizacion;
+import com.tarea2Ingenieria.model.enums.EstadoCotizacion;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+
+// Filtros del listado paginado de cotizaciones. Cada uno devuelve null si no aplica,
+// así Specification.allOf los ignora.
+public final class CotizacionSpecifications {
+
+    private CotizacionSpecifications() {
+    }
+
+    public static Specification<Cotizacion> conEstado(EstadoCotizacion estado) {
+        return estado == null ? null : (root, query, cb) -> cb.equal(root.get("estado"), estado);
+    }
+
+    public static Specification<Cotizacion> desde(LocalDate desde) {
+        return desde == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("fecha"), desde);
+    }
+
+    public static Specification<Cotizacion> hasta(LocalDate hasta) {
+        return hasta == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("fecha"), hasta);
+    }
+
+    // Keyset: filas estrictamente posteriores a (fecha, id) según el sentido del orden
+    public static Specification<Cotizacion> despuesDe(LocalDate fecha, Long id, boolean ascendente) {
+        if (fecha == null || id == null) {
+            return null;
+        }
+        return (root, query, cb) -> ascendente
+                ? cb.or(cb.greaterThan(root.get("fecha"), fecha),
+                        cb.and(cb.equal(root.get("fecha"), fecha), cb.greaterThan(root.get("idCotizacion"), id)))
+                : cb.or(cb.lessThan(root.get("fecha"), fecha),
+                        cb.and(cb.equal(root.get("fecha"), fecha), cb.lessThan(root.get("idCotizacion"), id)));
+    }
+}
@@ -0,0 +1,37 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.EventoOutbox;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// Como en reservas_stock, los pendientes se leen sin lock y se bloquean por clave primaria: un lock de rango
+// sobre posicion IS NULL frenaría los INSERT de eventos nuevos de las transacciones de negocio.
+@Repository
+public interface EventoOutboxRepository extends JpaRepository<EventoOutbox, Long>, EventoOutboxRepositoryInsercion {
+
+    @Query("select e.idEvento from EventoOutbox e where e.posicion is null order by e.idEvento")
+    List<Long> findIdsPendientes(Limit limite);
+
+    // Los que ya tienen posición los publicó otro relay mientras tanto
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from EventoOutbox e where e.idEvento in :ids and e.posicion is null order by e.idEvento")
+    List<EventoOutbox> bloquearPendientes(@Param("ids") Collection<Long> ids);
+
+    @Query("select coalesce(max(e.posicion), 0) from EventoOutbox e")
+    long ultimaPosicion();
+
+    @Query("select e from EventoOutbox e where e.posicion > :desde order by e.posicion")
+    List<EventoOutbox> findPublicadosDesde(@Param("desde") long posicion, Limit limite);
+
+    @Query("select e.idEvento from EventoOutbox e where e.posicion is not null and e.publicadoEn < :antes order by e.posicion")
+    List<Long> findIdsPublicadosAntesDe(@Param("antes") Instant antes, Limit limite);
+}
@@ -0,0 +1,20 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.EventoOutbox;
+import com.tarea2Ingenieria.model.enums.TipoEventoDominio;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// Fragmento de EventoOutboxRepository: inserciones de varias filas por sentencia (los ids son IDENTITY y
+// Hibernate no agrupa esos INSERT en batch)
+public interface EventoOutboxRepositoryInsercion {
+
+    // Un INSERT ... VALUES (...), (...) por cada 500 eventos
+    int insertar(List<EventoOutbox> eventos);
+
+    // Un evento por mueble con su stock y precio actuales, armado en la propia BD con INSERT ... SELECT:
+    // para ajustes masivos, después del UPDATE y sin traer las filas. Un INSERT por llamada.
+    int insertarEstadoActual(TipoEventoDominio tipo, Collection<Long> idsMuebles, Instant creadoEn);
+}
@@ -0,0 +1,57 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.EventoOutbox;
+import com.tarea2Ingenieria.model.enums.TipoEventoDominio;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+class EventoOutboxRepositoryInsercionImpl implements EventoOutboxRepositoryInsercion {
+
+    private static final int FILAS_POR_INSERT = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int insertar(List<EventoOutbox> eventos) {
+        int insertados = 0;
+        for (int desde = 0; desde < eventos.size(); desde += FILAS_POR_INSERT) {
+            List<EventoOutbox> bloque = eventos.subList(desde, Math.min(desde + FILAS_POR_INSERT, eventos.size()));
+            StringBuilder sql = new StringBuilder("INSERT INTO eventos_outbox (tipo, id_agregado, datos, creado_en) VALUES ");
+            for (int i = 0; i < bloque.size(); i++) {
+                sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?)");
+            }
+            Query insert = entityManager.createNativeQuery(sql.toString());
+            int parametro = 1;
+            for (EventoOutbox evento : bloque) {
+                insert.setParameter(parametro++, evento.getTipo().name());
+                insert.setParameter(parametro++, evento.getIdAgregado());
+                insert.setParameter(parametro++, evento.getDatos());
+                insert.setParameter(parametro++, evento.getCreadoEn());
+            }
+            insertados += insert.executeUpdate();
+        }
+        return insertados;
+    }
+
+    // {"idMueble":1,"stock":5,"precioBase":19990.0}: los campos de CambioStockDTO que se conocen, más el precio
+    @Override
+    public int insertarEstadoActual(TipoEventoDominio tipo, Collection<Long> idsMuebles, Instant creadoEn) {
+        if (idsMuebles.isEmpty()) {
+            return 0;
+        }
+        return entityManager.createNativeQuery("INSERT INTO eventos_outbox (tipo, id_agregado, datos, creado_en) " +
+                        "SELECT :tipo, id_mueble, CONCAT('{\"idMueble\":', id_mueble, ',\"stock\":', stock, " +
+                        "',\"precioBase\":', precio_base, '}'), :creadoEn " +
+                        "FROM muebles WHERE id_mueble IN (:ids) ORDER BY id_mueble")
+                .setParameter("tipo", tipo.name())
+                .setParameter("creadoEn", creadoEn)
+                .setParameter("ids", idsMuebles)
+                .executeUpdate();
+    }
+}
@@ -1,15 +1,47 @@
 package com.tarea2Ingenieria.repository;
 
+import com.tarea2Ingenieria.dto.DisponibilidadStockDTO;
 import com.tarea2Ingenieria.model.Mueble;
 import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface MuebleRepository extends JpaRepository<Mueble, Long> {
+public interface MuebleRepository extends JpaRepository<Mueble, Long>, JpaSpecificationExecutor<Mueble>,
+        MuebleRepositoryAjuste {
 
 
     List<Mueble> findByEstado(EstadoMueble estado);
-}
\ No newline at end of file
+
+    // Lectura con lock para PUT/PATCH: reservarStock no sube la versión, así que sin el lock una reserva
+    // concurrente podría dejar lo reservado por encima del stock que se está escribiendo
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select m from Mueble m where m.idMueble = :id")
+    Optional<Mueble> findByIdParaActualizar(@Param("id") Long id);
+
+    // Descuento atómico: la condición y la resta ocurren en el mismo UPDATE, así dos ventas
+    // concurrentes no pueden dejar el stock negativo. 'reservada' es la parte de la cantidad que la
+    // cotización tenía reservada: sale de stock y de reservado; el resto tiene que entrar en el stock libre.
+    // Devuelve 0 si no alcanza o está inactivo.
+    @Modifying
+    @Query("update Mueble m set m.stock = m.stock - :cantidad, m.reservado = m.reservado - :reservada, " +
+            "m.version = m.version + 1 " +
+            "where m.idMueble = :id and m.stock - m.reservado + :reservada >= :cantidad " +
+            "and m.estado = com.tarea2Ingenieria.model.enums.EstadoMueble.ACTIVO")
+    int descontarStock(@Param("id") Long id, @Param("cantidad") int cantidad, @Param("reservada") int reservada);
+
+    // Lectura simple sin lock: la fila solo se bloquea en los UPDATE que reservan o descuentan
+    @Query("select new com.tarea2Ingenieria.dto.DisponibilidadStockDTO(m.idMueble, m.stock, m.reservado) " +
+            "from Mueble m where m.idMueble in :ids order by m.idMueble")
+    List<DisponibilidadStockDTO> findDisponibilidad(@Param("ids") Collection<Long> ids);
+}
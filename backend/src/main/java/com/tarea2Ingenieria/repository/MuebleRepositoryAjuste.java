@@ -0,0 +1,28 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.Mueble;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Fragmento de MuebleRepository para ajustes masivos sin cargar entidades
+public interface MuebleRepositoryAjuste {
+
+    // Solo los ids: una consulta liviana aunque el filtro abarque miles de muebles
+    List<Long> buscarIds(Specification<Mueble> filtro);
+
+    // Un UPDATE por llamada: precio * (1 + porcentaje/100) redondeado a unidades y stock + delta (nunca por
+    // debajo de lo reservado ni de 0).
+    // Ambos ajustes son opcionales (null = no se toca). Sube la versión de cada fila afectada.
+    int ajustarPrecioYStock(Collection<Long> ids, Double porcentajePrecio, Integer deltaStock);
+
+    // Un UPDATE para todo el carrito (id de mueble -> cantidad): suma a reservado solo en los muebles
+    // ACTIVOS cuyo stock libre alcanza. Devuelve las filas reservadas; si es menor que cantidades.size()
+    // la transacción tiene que revertirse. No sube la versión: reservar no cambia el catálogo.
+    int reservarStock(Map<Long, Integer> cantidades);
+
+    // Devuelve a stock libre las cantidades reservadas (id de mueble -> cantidad), en un UPDATE
+    int liberarReservas(Map<Long, Integer> cantidades);
+}
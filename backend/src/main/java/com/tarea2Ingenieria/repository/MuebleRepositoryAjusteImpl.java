@@ -0,0 +1,106 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+class MuebleRepositoryAjusteImpl implements MuebleRepositoryAjuste {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Long> buscarIds(Specification<Mueble> filtro) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Mueble> root = query.from(Mueble.class);
+        query.select(root.get("idMueble")).orderBy(cb.asc(root.get("idMueble")));
+        if (filtro != null) {
+            Predicate predicado = filtro.toPredicate(root, query, cb);
+            if (predicado != null) {
+                query.where(predicado);
+            }
+        }
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public int ajustarPrecioYStock(Collection<Long> ids, Double porcentajePrecio, Integer deltaStock) {
+        if (ids.isEmpty() || (porcentajePrecio == null && deltaStock == null)) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Mueble> update = cb.createCriteriaUpdate(Mueble.class);
+        Root<Mueble> root = update.from(Mueble.class);
+
+        if (porcentajePrecio != null) {
+            Path<Double> precio = root.get("precioBase");
+            update.set(precio, cb.round(cb.prod(precio, 1 + porcentajePrecio / 100), 0));
+        }
+        if (deltaStock != null) {
+            // Nunca por debajo de lo reservado por cotizaciones pendientes (ni de 0)
+            Expression<Integer> nuevoStock = cb.sum(root.get("stock"), deltaStock);
+            Expression<Integer> reservado = root.get("reservado");
+            update.set(root.<Integer>get("stock"), cb.<Integer>selectCase()
+                    .when(cb.lt(nuevoStock, reservado), reservado)
+                    .when(cb.lt(nuevoStock, 0), 0)
+                    .otherwise(nuevoStock));
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.get("version"), 1L));
+        update.where(root.get("idMueble").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int reservarStock(Map<Long, Integer> cantidades) {
+        if (cantidades.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Mueble> update = cb.createCriteriaUpdate(Mueble.class);
+        Root<Mueble> root = update.from(Mueble.class);
+        Path<Integer> reservado = root.get("reservado");
+        Expression<Integer> cantidad = cantidadPorId(cb, root, cantidades);
+
+        update.set(reservado, cb.sum(reservado, cantidad));
+        update.where(root.get("idMueble").in(cantidades.keySet()),
+                cb.equal(root.get("estado"), EstadoMueble.ACTIVO),
+                cb.ge(cb.diff(root.get("stock"), reservado), cantidad));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int liberarReservas(Map<Long, Integer> cantidades) {
+        if (cantidades.isEmpty()) {
+            return 0;
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Mueble> update = cb.createCriteriaUpdate(Mueble.class);
+        Root<Mueble> root = update.from(Mueble.class);
+        Path<Integer> reservado = root.get("reservado");
+
+        update.set(reservado, cb.diff(reservado, cantidadPorId(cb, root, cantidades)));
+        update.where(root.get("idMueble").in(cantidades.keySet()));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    // CASE id_mueble WHEN 1 THEN 3 WHEN 7 THEN 1 ... ELSE 0
+    private static Expression<Integer> cantidadPorId(CriteriaBuilder cb, Root<Mueble> root, Map<Long, Integer> cantidades) {
+        CriteriaBuilder.SimpleCase<Long, Integer> porId = cb.selectCase(root.get("idMueble"));
+        cantidades.forEach(porId::when);
+        return porId.otherwise(0);
+    }
+}
@@ -0,0 +1,44 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+// Filtros sobre muebles. Cada uno devuelve null si no aplica, así Specification.allOf los ignora.
+// Texto comparado con lower() en ambos lados: ignora mayúsculas igual en cualquier base, no solo con collation *_ci.
+public final class MuebleSpecifications {
+
+    private MuebleSpecifications() {
+    }
+
+    public static Specification<Mueble> conIds(Collection<Long> ids) {
+        return ids == null || ids.isEmpty() ? null : (root, query, cb) -> root.get("idMueble").in(ids);
+    }
+
+    public static Specification<Mueble> conTipo(String tipo) {
+        return tipo == null ? null : (root, query, cb) -> cb.equal(cb.lower(root.get("tipo")), tipo.toLowerCase());
+    }
+
+    public static Specification<Mueble> conMaterial(String material) {
+        return material == null ? null : (root, query, cb) -> cb.equal(cb.lower(root.get("material")), material.toLowerCase());
+    }
+
+    public static Specification<Mueble> conTamanio(TamanioMueble tamanio) {
+        return tamanio == null ? null : (root, query, cb) -> cb.equal(root.get("tamanio"), tamanio);
+    }
+
+    public static Specification<Mueble> conEstado(EstadoMueble estado) {
+        return estado == null ? null : (root, query, cb) -> cb.equal(root.get("estado"), estado);
+    }
+
+    public static Specification<Mueble> precioDesde(Double minimo) {
+        return minimo == null ? null : (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("precioBase"), minimo);
+    }
+
+    public static Specification<Mueble> precioHasta(Double maximo) {
+        return maximo == null ? null : (root, query, cb) -> cb.lessThanOrEqualTo(root.get("precioBase"), maximo);
+    }
+}
@@ -0,0 +1,40 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.ReservaStock;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+// Los candidatos se leen sin lock y después se bloquean por clave primaria: así ni el barrido ni la
+// confirmación toman locks de rango sobre los índices, que frenarían las inserciones de reservas nuevas.
+@Repository
+public interface ReservaStockRepository extends JpaRepository<ReservaStock, Long> {
+
+    @Query("select r.idReserva from ReservaStock r where r.idCotizacion = :id")
+    List<Long> findIdsByCotizacion(@Param("id") Long idCotizacion);
+
+    @Query("select r.idReserva from ReservaStock r where r.idCotizacion in :ids")
+    List<Long> findIdsByCotizaciones(@Param("ids") Collection<Long> idsCotizacion);
+
+    @Query("select r.idReserva from ReservaStock r where r.expiraEn < :ahora order by r.expiraEn")
+    List<Long> findIdsVencidas(@Param("ahora") Instant ahora, Limit limite);
+
+    // Las que ya no aparecen las consumió o liberó otra transacción mientras tanto
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select r from ReservaStock r where r.idReserva in :ids order by r.idReserva")
+    List<ReservaStock> bloquear(@Param("ids") Collection<Long> ids);
+
+    // Solo después de bloquear las reservas de esas cotizaciones con bloquear()
+    @Modifying
+    @Query("delete from ReservaStock r where r.idCotizacion in :ids")
+    int borrarPorCotizaciones(@Param("ids") Collection<Long> idsCotizacion);
+}
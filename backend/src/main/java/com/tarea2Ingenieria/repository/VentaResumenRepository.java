@@ -0,0 +1,113 @@
+package com.tarea2Ingenieria.repository;
+
+import com.tarea2Ingenieria.model.VentaDiaria;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// Resúmenes de ventas (ventas_diarias y ventas_mensuales). Las sumas están en VentaResumenRepositorySuma.
+@Repository
+public interface VentaResumenRepository extends JpaRepository<VentaDiaria, VentaDiaria.Clave>, VentaResumenRepositorySuma {
+
+    interface TotalDiario {
+        LocalDate getFecha();
+        Long getUnidades();
+        Double getIngresos();
+    }
+
+    interface TotalMensual {
+        Integer getPeriodo();
+        Long getUnidades();
+        Double getIngresos();
+    }
+
+    interface TotalRanking {
+        Long getId();
+        String getNombre();
+        Long getUnidades();
+        Double getIngresos();
+    }
+
+    interface RangoFechas {
+        LocalDate getDesde();
+        LocalDate getHasta();
+    }
+
+    // --- CONSULTAS (solo leen los resúmenes) ---
+
+    @Query(value = "SELECT fecha AS fecha, SUM(unidades) AS unidades, SUM(ingresos) AS ingresos " +
+            "FROM ventas_diarias WHERE fecha BETWEEN :desde AND :hasta " +
+            "GROUP BY fecha ORDER BY fecha", nativeQuery = true)
+    List<TotalDiario> totalesPorDia(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Query(value = "SELECT periodo AS periodo, SUM(unidades) AS unidades, SUM(ingresos) AS ingresos " +
+            "FROM ventas_mensuales WHERE periodo BETWEEN :desde AND :hasta " +
+            "GROUP BY periodo ORDER BY periodo", nativeQuery = true)
+    List<TotalMensual> totalesPorMes(@Param("desde") int periodoDesde, @Param("hasta") int periodoHasta);
+
+    // Meses completos desde ventas_mensuales y los días sueltos de los bordes desde ventas_diarias
+    @Query(value = "SELECT r.id_mueble AS id, m.nombre_mueble AS nombre, " +
+            "SUM(r.unidades) AS unidades, SUM(r.ingresos) AS ingresos FROM (" +
+            "SELECT id_mueble, unidades, ingresos FROM ventas_diarias " +
+            "WHERE fecha BETWEEN :desdeInicio AND :hastaInicio OR fecha BETWEEN :desdeFin AND :hastaFin " +
+            "UNION ALL " +
+            "SELECT id_mueble, unidades, ingresos FROM ventas_mensuales WHERE periodo BETWEEN :periodoDesde AND :periodoHasta" +
+            ") r JOIN muebles m ON m.id_mueble = r.id_mueble " +
+            "GROUP BY r.id_mueble, m.nombre_mueble " +
+            "ORDER BY SUM(r.ingresos) DESC, r.id_mueble LIMIT :limite", nativeQuery = true)
+    List<TotalRanking> rankingMuebles(@Param("desdeInicio") LocalDate desdeInicio, @Param("hastaInicio") LocalDate hastaInicio,
+                                      @Param("desdeFin") LocalDate desdeFin, @Param("hastaFin") LocalDate hastaFin,
+                                      @Param("periodoDesde") int periodoDesde, @Param("periodoHasta") int periodoHasta,
+                                      @Param("limite") int limite);
+
+    @Query(value = "SELECT r.id_variante AS id, v.nombre AS nombre, " +
+            "SUM(r.unidades) AS unidades, SUM(r.ingresos) AS ingresos FROM (" +
+            "SELECT id_variante, unidades, ingresos FROM ventas_diarias " +
+            "WHERE fecha BETWEEN :desdeInicio AND :hastaInicio OR fecha BETWEEN :desdeFin AND :hastaFin " +
+            "UNION ALL " +
+            "SELECT id_variante, unidades, ingresos FROM ventas_mensuales WHERE periodo BETWEEN :periodoDesde AND :periodoHasta" +
+            ") r JOIN variantes v ON v.id_variante = r.id_variante " +
+            "GROUP BY r.id_variante, v.nombre " +
+            "ORDER BY SUM(r.ingresos) DESC, r.id_variante LIMIT :limite", nativeQuery = true)
+    List<TotalRanking> rankingVariantes(@Param("desdeInicio") LocalDate desdeInicio, @Param("hastaInicio") LocalDate hastaInicio,
+                                        @Param("desdeFin") LocalDate desdeFin, @Param("hastaFin") LocalDate hastaFin,
+                                        @Param("periodoDesde") int periodoDesde, @Param("periodoHasta") int periodoHasta,
+                                        @Param("limite") int limite);
+
+    // --- RECONSTRUCCIÓN DESDE EL HISTORIAL ---
+
+    // Ventas confirmadas antes de que existiera fecha_confirmacion: se toma la fecha de la cotización
+    @Modifying
+    @Query(value = "UPDATE cotizaciones SET fecha_confirmacion = fecha " +
+            "WHERE estado = 'CONFIRMADA' AND fecha_confirmacion IS NULL", nativeQuery = true)
+    int completarFechasConfirmacion();
+
+    @Query(value = "SELECT MIN(fecha_confirmacion) AS desde, MAX(fecha_confirmacion) AS hasta " +
+            "FROM cotizaciones WHERE estado = 'CONFIRMADA'", nativeQuery = true)
+    RangoFechas rangoConfirmaciones();
+
+    @Modifying
+    @Query(value = "DELETE FROM ventas_diarias WHERE fecha NOT BETWEEN :desde AND :hasta", nativeQuery = true)
+    int borrarDiariasFueraDe(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @Query(value = "DELETE FROM ventas_mensuales WHERE periodo NOT BETWEEN :desde AND :hasta", nativeQuery = true)
+    int borrarMensualesFueraDe(@Param("desde") int periodoDesde, @Param("hasta") int periodoHasta);
+
+    @Modifying
+    @Query(value = "DELETE FROM ventas_mensuales", nativeQuery = true)
+    int vaciarMensuales();
+
+    @Modifying
+    @Query(value = "DELETE FROM ventas_diarias WHERE fecha BETWEEN :desde AND :hasta", nativeQuery = true)
+    int borrarDiarias(@Param("desde") LocalDate desde, @Param("hasta") LocalDate hasta);
+
+    @Modifying
+    @Query(value = "DELETE FROM ventas_mensuales WHERE periodo = :periodo", nativeQuery = true)
+    int borrarMensual(@Param("periodo") int periodo);
+}
@@ -0,0 +1,25 @@
+package com.tarea2Ingenieria.repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+// Fragmento de VentaResumenRepository: las sumas sobre ventas_diarias y ventas_mensuales. Se hacen con
+// INSERT ... SELECT agrupado y ON DUPLICATE KEY UPDATE: una sentencia por tabla sin importar cuántas líneas
+// tenga la venta. El SELECT va en una tabla derivada porque MySQL no admite GROUP BY directo en
+// INSERT ... SELECT ... ON DUPLICATE KEY.
+public interface VentaResumenRepositorySuma {
+
+    // --- ACTUALIZACIÓN AL CONFIRMAR UNA VENTA (o un lote de la cola de confirmación) ---
+
+    int sumarVentaDiaria(Collection<Long> idsCotizacion);
+
+    int sumarVentaMensual(Collection<Long> idsCotizacion);
+
+    // --- RECONSTRUCCIÓN DESDE EL HISTORIAL ---
+    // ON DUPLICATE KEY: una confirmación concurrente pudo haber creado la fila después del DELETE
+
+    int reconstruirDiarias(LocalDate desde, LocalDate hasta);
+
+    // El mes se arma desde ventas_diarias ya reconstruidas: no vuelve a recorrer las cotizaciones
+    int reconstruirMensual(int periodo, LocalDate desde, LocalDate hasta);
+}
@@ -0,0 +1,85 @@
+package com.tarea2Ingenieria.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDate;
+import java.util.Collection;
+
+// MySQL 8 suma las columnas de la tabla derivada en el UPDATE (VALUES(col) está deprecado desde 8.0.20).
+// H2, la base de los tests, no resuelve esas columnas en ON DUPLICATE KEY y solo entiende VALUES(col):
+// el resto de la sentencia es igual en los dos motores, solo cambia la cola.
+class VentaResumenRepositorySumaImpl implements VentaResumenRepositorySuma {
+
+    private static final String SUMAR_VENTA_DIARIA = "INSERT INTO ventas_diarias (fecha, id_mueble, id_variante, unidades, ingresos) " +
+            "SELECT * FROM (SELECT c.fecha_confirmacion, d.id_mueble, d.id_variante, " +
+            "SUM(d.cantidad) AS unidades_nuevas, SUM(d.cantidad * d.precio_unitario_snapshot) AS ingresos_nuevos " +
+            "FROM detalles_cotizacion d JOIN cotizaciones c ON c.id_cotizacion = d.id_cotizacion " +
+            "WHERE c.id_cotizacion IN (:ids) " +
+            "GROUP BY c.fecha_confirmacion, d.id_mueble, d.id_variante) AS venta ";
+
+    private static final String SUMAR_VENTA_MENSUAL = "INSERT INTO ventas_mensuales (periodo, id_mueble, id_variante, unidades, ingresos) " +
+            "SELECT * FROM (SELECT YEAR(c.fecha_confirmacion) * 100 + MONTH(c.fecha_confirmacion), d.id_mueble, d.id_variante, " +
+            "SUM(d.cantidad) AS unidades_nuevas, SUM(d.cantidad * d.precio_unitario_snapshot) AS ingresos_nuevos " +
+            "FROM detalles_cotizacion d JOIN cotizaciones c ON c.id_cotizacion = d.id_cotizacion " +
+            "WHERE c.id_cotizacion IN (:ids) " +
+            "GROUP BY c.fecha_confirmacion, d.id_mueble, d.id_variante) AS venta ";
+
+    private static final String RECONSTRUIR_DIARIAS = "INSERT INTO ventas_diarias (fecha, id_mueble, id_variante, unidades, ingresos) " +
+            "SELECT * FROM (SELECT c.fecha_confirmacion, d.id_mueble, d.id_variante, " +
+            "SUM(d.cantidad) AS unidades_nuevas, SUM(d.cantidad * d.precio_unitario_snapshot) AS ingresos_nuevos " +
+            "FROM cotizaciones c JOIN detalles_cotizacion d ON d.id_cotizacion = c.id_cotizacion " +
+            "WHERE c.estado = 'CONFIRMADA' AND c.fecha_confirmacion BETWEEN :desde AND :hasta " +
+            "GROUP BY c.fecha_confirmacion, d.id_mueble, d.id_variante) AS historial ";
+
+    private static final String RECONSTRUIR_MENSUAL = "INSERT INTO ventas_mensuales (periodo, id_mueble, id_variante, unidades, ingresos) " +
+            "SELECT * FROM (SELECT CAST(:periodo AS SIGNED) AS periodo, id_mueble, id_variante, " +
+            "SUM(unidades) AS unidades_nuevas, SUM(ingresos) AS ingresos_nuevos " +
+            "FROM ventas_diarias WHERE fecha BETWEEN :desde AND :hasta " +
+            "GROUP BY id_mueble, id_variante) AS mes ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final String alDuplicarSumar;
+
+    VentaResumenRepositorySumaImpl(JdbcTemplate jdbcTemplate) {
+        String motor = jdbcTemplate.execute((ConnectionCallback<String>) con -> con.getMetaData().getDatabaseProductName());
+        this.alDuplicarSumar = "MySQL".equalsIgnoreCase(motor)
+                ? "ON DUPLICATE KEY UPDATE unidades = unidades + unidades_nuevas, ingresos = ingresos + ingresos_nuevos"
+                : "ON DUPLICATE KEY UPDATE unidades = unidades + VALUES(unidades), ingresos = ingresos + VALUES(ingresos)";
+    }
+
+    @Override
+    public int sumarVentaDiaria(Collection<Long> idsCotizacion) {
+        return entityManager.createNativeQuery(SUMAR_VENTA_DIARIA + alDuplicarSumar)
+                .setParameter("ids", idsCotizacion)
+                .executeUpdate();
+    }
+
+    @Override
+    public int sumarVentaMensual(Collection<Long> idsCotizacion) {
+        return entityManager.createNativeQuery(SUMAR_VENTA_MENSUAL + alDuplicarSumar)
+                .setParameter("ids", idsCotizacion)
+                .executeUpdate();
+    }
+
+    @Override
+    public int reconstruirDiarias(LocalDate desde, LocalDate hasta) {
+        return entityManager.createNativeQuery(RECONSTRUIR_DIARIAS + alDuplicarSumar)
+                .setParameter("desde", desde)
+                .setParameter("hasta", hasta)
+                .executeUpdate();
+    }
+
+    @Override
+    public int reconstruirMensual(int periodo, LocalDate desde, LocalDate hasta) {
+        return entityManager.createNativeQuery(RECONSTRUIR_MENSUAL + alDuplicarSumar)
+                .setParameter("periodo", periodo)
+                .setParameter("desde", desde)
+                .setParameter("hasta", hasta)
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,12 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.MuebleDTO;
+
+import java.util.List;
+
+public interface BusquedaTextoMuebleService {
+
+    List<MuebleDTO> buscar(String texto, int limite);
+    void reconstruirIndice();
+    void aplicarCambiosPendientes();
+}
@@ -0,0 +1,305 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.event.MueblesModificadosEvent;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.miscellaneous.ASCIIFoldingFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FuzzyQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+import org.apache.lucene.store.Directory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Búsqueda por texto sobre el catálogo activo con un índice invertido de Lucene embebido en memoria.
+// El índice guarda todos los campos del DTO, así una búsqueda no toca la base de datos.
+// Se reconstruye completo al arrancar y después se mantiene al día con MueblesModificadosEvent: el evento solo
+// anota los ids y una tarea programada (app.busqueda.intervalo-ms) los relee juntos y refresca los buscadores,
+// fuera del hilo de la petición. Varias mutaciones del mismo mueble entre dos pasadas se aplican una vez.
+@Slf4j
+@Service
+public class BusquedaTextoMuebleServiceImpl implements BusquedaTextoMuebleService {
+
+    private static final String SELECT_MUEBLES = "SELECT id_mueble, nombre_mueble, tipo, material, precio_base, "
+            + "stock, tamanio, estado, version FROM muebles";
+    private static final int TAMANIO_BLOQUE_IDS = 1000;
+    private static final int LIMITE_MAXIMO = 100;
+
+    private static final String CAMPO_ID = "id";
+    private static final String CAMPO_NOMBRE = "nombre";
+    private static final String CAMPO_DETALLE = "detalle";
+    // El nombre pesa más que el tipo y el material al ordenar resultados
+    private static final Map<String, Float> PESO_CAMPOS = Map.of(CAMPO_NOMBRE, 3f, CAMPO_DETALLE, 1f);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Analyzer analizador = new AnalizadorSinAcentos();
+    private final Directory directorio = new ByteBuffersDirectory();
+    private final IndexWriter escritor;
+    private final SearcherManager buscadores;
+    // Serializa reconstrucción y actualizaciones para que una no pise a la otra (ReentrantLock: sin pinning)
+    private final ReentrantLock escritura = new ReentrantLock();
+    // Muebles modificados que el índice todavía no refleja
+    private final Set<Long> pendientes = ConcurrentHashMap.newKeySet();
+
+    public BusquedaTextoMuebleServiceImpl(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) throws IOException {
+        this.jdbcTemplate = jdbcTemplate;
+        this.escritor = new IndexWriter(directorio, new IndexWriterConfig(analizador));
+        this.buscadores = new SearcherManager(escritor, null);
+        Gauge.builder("muebles.busqueda.pendientes", pendientes, Set::size)
+                .description("Muebles modificados que la búsqueda por texto todavía no refleja")
+                .register(meterRegistry);
+    }
+
+    @Override
+    @Timed("muebles.busqueda.texto")
+    public List<MuebleDTO> buscar(String texto, int limite) {
+        Query consulta = armarConsulta(texto);
+        if (consulta == null) {
+            return List.of();
+        }
+
+        try {
+            IndexSearcher buscador = buscadores.acquire();
+            try {
+                ScoreDoc[] encontrados = buscador.search(consulta, Math.clamp(limite, 1, LIMITE_MAXIMO)).scoreDocs;
+                List<MuebleDTO> resultado = new ArrayList<>(encontrados.length);
+                for (ScoreDoc encontrado : encontrados) {
+                    resultado.add(toDTO(buscador.storedFields().document(encontrado.doc)));
+                }
+                return resultado;
+            } finally {
+                buscadores.release(buscador);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconstruirIndice() {
+        escritura.lock();
+        // Se arma en un directorio aparte y recién al final reemplaza al publicado: si la lectura falla a
+        // mitad de camino, el índice y los buscadores quedan como estaban
+        try (Directory nuevo = new ByteBuffersDirectory()) {
+            try (IndexWriter escritorNuevo = new IndexWriter(nuevo, new IndexWriterConfig(analizador))) {
+                jdbcTemplate.query(SELECT_MUEBLES + " WHERE estado = ?",
+                        (RowCallbackHandler) rs -> indexar(escritorNuevo, rs),
+                        EstadoMueble.ACTIVO.name());
+            }
+            escritor.deleteAll();
+            escritor.addIndexes(nuevo);
+            escritor.commit();
+            buscadores.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    // Después de CatalogoCacheInvalidator y CatalogoSnapshotService. Solo anota los ids: la lectura y la
+    // escritura del índice quedan para aplicarCambiosPendientes, que relee de la BD lo ya confirmado
+    @Order(2)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMueblesModificados(MueblesModificadosEvent event) {
+        pendientes.addAll(event.idsMuebles());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.busqueda.intervalo-ms:200}", initialDelayString = "${app.busqueda.intervalo-ms:200}")
+    public void aplicarCambiosPendientes() {
+        // Se toman los ids ya con el cerrojo: quien llama mientras corre otra pasada espera a que esa termine
+        escritura.lock();
+        // Un id que vuelve a llegar después de sacarlo se relee en la próxima pasada
+        List<Long> ids = new ArrayList<>(pendientes);
+        pendientes.removeAll(ids);
+        try {
+            if (ids.isEmpty()) {
+                return;
+            }
+            for (int desde = 0; desde < ids.size(); desde += TAMANIO_BLOQUE_IDS) {
+                List<Long> bloque = ids.subList(desde, Math.min(desde + TAMANIO_BLOQUE_IDS, ids.size()));
+                String marcadores = String.join(",", Collections.nCopies(bloque.size(), "?"));
+
+                Set<Long> faltantes = new HashSet<>(bloque);
+                jdbcTemplate.query(SELECT_MUEBLES + " WHERE id_mueble IN (" + marcadores + ")",
+                        rs -> {
+                            faltantes.remove(rs.getLong("id_mueble"));
+                            indexar(escritor, rs);
+                        },
+                        bloque.toArray());
+                // Los que ya no existen se sacan del índice
+                for (Long id : faltantes) {
+                    escritor.deleteDocuments(new Term(CAMPO_ID, id.toString()));
+                }
+            }
+            buscadores.maybeRefreshBlocking();
+        } catch (IOException | RuntimeException e) {
+            // Reescribir un mueble es idempotente: se reintentan todos y mientras tanto se busca sobre lo anterior
+            pendientes.addAll(ids);
+            log.warn("No se pudieron aplicar {} cambios al índice de búsqueda ({}); se reintenta en la próxima pasada",
+                    ids.size(), e.getMessage());
+        } finally {
+            escritura.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void cerrar() throws IOException {
+        buscadores.close();
+        escritor.close();
+        directorio.close();
+    }
+
+    // Solo los muebles activos quedan en el índice; cualquier otro estado se borra
+    private void indexar(IndexWriter destino, ResultSet rs) throws SQLException {
+        String id = String.valueOf(rs.getLong("id_mueble"));
+        try {
+            if (!EstadoMueble.ACTIVO.name().equals(rs.getString("estado"))) {
+                destino.deleteDocuments(new Term(CAMPO_ID, id));
+                return;
+            }
+
+            Document documento = new Document();
+            documento.add(new StringField(CAMPO_ID, id, Field.Store.YES));
+            documento.add(new TextField(CAMPO_NOMBRE, rs.getString("nombre_mueble"), Field.Store.YES));
+            documento.add(new TextField(CAMPO_DETALLE,
+                    rs.getString("tipo") + " " + rs.getString("material"), Field.Store.NO));
+            documento.add(new StoredField("tipo", rs.getString("tipo")));
+            documento.add(new StoredField("material", rs.getString("material")));
+            documento.add(new StoredField("precioBase", rs.getDouble("precio_base")));
+            documento.add(new StoredField("stock", rs.getInt("stock")));
+            documento.add(new StoredField("tamanio", rs.getString("tamanio")));
+            documento.add(new StoredField("version", rs.getLong("version")));
+            destino.updateDocument(new Term(CAMPO_ID, id), documento);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Cada palabra es obligatoria; dentro de una palabra se acepta exacta, con errores de tipeo ("robel")
+    // y, solo la última, como prefijo ("sof"): es la que el cliente suele estar escribiendo todavía.
+    // Expandir prefijos en todas las palabras multiplica los términos a recorrer sin mejorar resultados.
+    private Query armarConsulta(String texto) {
+        List<String> palabras = analizar(texto);
+        if (palabras.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder consulta = new BooleanQuery.Builder();
+        for (int i = 0; i < palabras.size(); i++) {
+            String palabra = palabras.get(i);
+            boolean ultima = i == palabras.size() - 1;
+            BooleanQuery.Builder alternativas = new BooleanQuery.Builder();
+            PESO_CAMPOS.forEach((campo, peso) -> {
+                Term termino = new Term(campo, palabra);
+                alternativas.add(new BoostQuery(new TermQuery(termino), 4f * peso), BooleanClause.Occur.SHOULD);
+                if (ultima && palabra.length() >= 2) {
+                    alternativas.add(new BoostQuery(new PrefixQuery(termino), 2f * peso), BooleanClause.Occur.SHOULD);
+                }
+                if (palabra.length() >= 4) {
+                    // Un error por palabra (la transposición cuenta como uno); con dos, armar el autómata
+                    // de Levenshtein por cada búsqueda duplica la latencia en palabras largas
+                    alternativas.add(new BoostQuery(new FuzzyQuery(termino, 1, 1), peso),
+                            BooleanClause.Occur.SHOULD);
+                }
+            });
+            consulta.add(alternativas.build(), BooleanClause.Occur.MUST);
+        }
+        return consulta.build();
+    }
+
+    private List<String> analizar(String texto) {
+        List<String> palabras = new ArrayList<>();
+        if (texto == null || texto.isBlank()) {
+            return palabras;
+        }
+        try (TokenStream tokens = analizador.tokenStream(CAMPO_NOMBRE, texto)) {
+            CharTermAttribute termino = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                palabras.add(termino.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return palabras;
+    }
+
+    private MuebleDTO toDTO(Document documento) {
+        MuebleDTO dto = new MuebleDTO();
+        dto.setIdMueble(Long.valueOf(documento.get(CAMPO_ID)));
+        dto.setNombreMueble(documento.get(CAMPO_NOMBRE));
+        dto.setTipo(documento.get("tipo"));
+        dto.setMaterial(documento.get("material"));
+        dto.setPrecioBase(documento.getField("precioBase").numericValue().doubleValue());
+        dto.setStock(documento.getField("stock").numericValue().intValue());
+        dto.setTamanio(documento.get("tamanio"));
+        dto.setVersion(documento.getField("version").numericValue().longValue());
+        dto.setEstado(EstadoMueble.ACTIVO.name());
+        return dto;
+    }
+
+    // Minúsculas y sin tildes tanto al indexar como al buscar: "Sofá" y "sofa" son el mismo término
+    private static class AnalizadorSinAcentos extends Analyzer {
+
+        @Override
+        protected TokenStreamComponents createComponents(String campo) {
+            StandardTokenizer tokenizador = new StandardTokenizer();
+            TokenStream tokens = new ASCIIFoldingFilter(new LowerCaseFilter(tokenizador));
+            return new TokenStreamComponents(tokenizador, tokens);
+        }
+
+        @Override
+        protected TokenStream normalize(String campo, TokenStream entrada) {
+            return new ASCIIFoldingFilter(new LowerCaseFilter(entrada));
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.tarea2Ingenieria.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Junta las lecturas por id que llegan al mismo tiempo en una sola consulta:
+//  - single-flight: quien pide un id que ya está en vuelo espera ese mismo resultado, sin otra consulta.
+//  - micro-lote: el primer id sin lote abierto deja a su hilo como "líder", que junta los ids que lleguen mientras
+//    haya otra consulta del cargador en curso y ejecuta un solo findAllById con todos. Deja de esperar al llenar
+//    maximo-lote, al terminar las consultas en curso o, como tope, al pasar app.coalescencia.ventana.
+//    Sin consultas en curso sale enseguida: una lectura aislada (o varias seguidas del mismo hilo) no paga la ventana.
+// La consulta corre en el hilo del líder, así que cuenta para su @PresupuestoSql; los demás solo esperan.
+// Es para lecturas fuera de transacción: dentro de una, el resto del lote leería con la del líder.
+// Métricas por cargador: coalescencia.solicitudes / coalescencia.consultas (su cociente, también publicado
+// como coalescencia.razon, es cuántas lecturas resolvió cada consulta) y coalescencia.lote (ids por consulta).
+public class CargadorAgrupado<K, V> {
+
+    private final Function<Collection<K>, Map<K, V>> cargarTodos;
+    private final long ventanaNanos;
+    private final int maximoLote;
+    private final Counter solicitudes;
+    private final Counter consultas;
+    private final DistributionSummary idsPorConsulta;
+    private final ConcurrentHashMap<K, CompletableFuture<Optional<V>>> enVuelo = new ConcurrentHashMap<>();
+
+    // ReentrantLock y no synchronized: con hilos virtuales el líder espera la ventana sin fijar el portador
+    private final ReentrantLock cerrojo = new ReentrantLock();
+    // Se avisa al llenarse el lote abierto o al quedar sin consultas en curso
+    private final Condition loteListo = cerrojo.newCondition();
+    // Lote que está juntando ids, protegido por cerrojo (null si no hay ninguno)
+    private Map<K, CompletableFuture<Optional<V>>> loteAbierto;
+    // Lotes que salieron y todavía no terminan su consulta, protegido por cerrojo
+    private int enEjecucion;
+
+    public CargadorAgrupado(String nombre,
+                            Function<Collection<K>, Map<K, V>> cargarTodos,
+                            Duration ventana,
+                            int maximoLote,
+                            MeterRegistry meterRegistry) {
+        this.cargarTodos = cargarTodos;
+        this.ventanaNanos = ventana.toNanos();
+        this.maximoLote = maximoLote;
+        this.solicitudes = Counter.builder("coalescencia.solicitudes")
+                .description("Lecturas por id pedidas al cargador")
+                .tag("cargador", nombre)
+                .register(meterRegistry);
+        this.consultas = Counter.builder("coalescencia.consultas")
+                .description("Consultas a la BD que resolvieron esas lecturas")
+                .tag("cargador", nombre)
+                .register(meterRegistry);
+        this.idsPorConsulta = DistributionSummary.builder("coalescencia.lote")
+                .description("Ids distintos por consulta")
+                .tag("cargador", nombre)
+                .register(meterRegistry);
+        Gauge.builder("coalescencia.razon", this, CargadorAgrupado::razon)
+                .description("Lecturas resueltas por consulta desde el arranque")
+                .tag("cargador", nombre)
+                .register(meterRegistry);
+    }
+
+    // Vacío si el id no existe
+    public Optional<V> cargar(K id) {
+        solicitudes.increment();
+        CompletableFuture<Optional<V>> propio = new CompletableFuture<>();
+        CompletableFuture<Optional<V>> existente = enVuelo.putIfAbsent(id, propio);
+        if (existente != null) {
+            return esperar(existente);
+        }
+        Map<K, CompletableFuture<Optional<V>>> lote = sumarAlLote(id, propio);
+        if (lote != null) {
+            ejecutar(lote);
+        }
+        return esperar(propio);
+    }
+
+    // Cociente acumulado; para una ventana de tiempo, rate(solicitudes) / rate(consultas)
+    public double razon() {
+        double total = consultas.count();
+        return total == 0 ? 0.0 : solicitudes.count() / total;
+    }
+
+    // Devuelve el lote a ejecutar si este hilo quedó como líder, null si se sumó al de otro
+    private Map<K, CompletableFuture<Optional<V>>> sumarAlLote(K id, CompletableFuture<Optional<V>> futuro) {
+        cerrojo.lock();
+        try {
+            if (loteAbierto != null && loteAbierto.size() < maximoLote) {
+                loteAbierto.put(id, futuro);
+                if (loteAbierto.size() >= maximoLote) {
+                    loteListo.signalAll();
+                }
+                return null;
+            }
+            // Un lote lleno que su líder todavía no retiró no admite más ids: este hilo abre otro
+            Map<K, CompletableFuture<Optional<V>>> lote = new LinkedHashMap<>();
+            lote.put(id, futuro);
+            loteAbierto = lote;
+            long restante = ventanaNanos;
+            while (enEjecucion > 0 && restante > 0 && lote.size() < maximoLote) {
+                try {
+                    restante = loteListo.awaitNanos(restante);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (loteAbierto == lote) {
+                loteAbierto = null;
+            }
+            enEjecucion++;
+            return lote;
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private void ejecutar(Map<K, CompletableFuture<Optional<V>>> lote) {
+        consultas.increment();
+        idsPorConsulta.record(lote.size());
+        try {
+            Map<K, V> encontrados = cargarTodos.apply(List.copyOf(lote.keySet()));
+            lote.forEach((id, futuro) -> {
+                enVuelo.remove(id, futuro);
+                futuro.complete(Optional.ofNullable(encontrados.get(id)));
+            });
+        } catch (RuntimeException | Error e) {
+            // Todo el lote recibe el error; el próximo pedido de esos ids vuelve a consultar
+            lote.forEach((id, futuro) -> {
+                enVuelo.remove(id, futuro);
+                futuro.completeExceptionally(e);
+            });
+        } finally {
+            terminarLote();
+        }
+    }
+
+    private void terminarLote() {
+        cerrojo.lock();
+        try {
+            if (--enEjecucion == 0) {
+                loteListo.signalAll();
+            }
+        } finally {
+            cerrojo.unlock();
+        }
+    }
+
+    private Optional<V> esperar(CompletableFuture<Optional<V>> futuro) {
+        try {
+            return futuro.join();
+        } catch (CompletionException e) {
+            // La misma excepción que lanzó la consulta, no envuelta
+            if (e.getCause() instanceof RuntimeException error) {
+                throw error;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.CacheConfig;
+import com.tarea2Ingenieria.event.MueblesModificadosEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogoCacheInvalidator {
+
+    private final CacheManager cacheManager;
+
+    // Después del commit (o en el acto si no hay transacción): saca solo los muebles tocados
+    // y el listado de activos, que es una única entrada.
+    @Order(0)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMueblesModificados(MueblesModificadosEvent event) {
+        Cache muebles = cacheManager.getCache(CacheConfig.MUEBLES);
+        if (muebles != null) {
+            event.idsMuebles().forEach(muebles::evict);
+        }
+        Cache activos = cacheManager.getCache(CacheConfig.MUEBLES_ACTIVOS);
+        if (activos != null) {
+            activos.clear();
+        }
+    }
+}
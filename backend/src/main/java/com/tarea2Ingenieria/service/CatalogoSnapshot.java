@@ -0,0 +1,24 @@
+package com.tarea2Ingenieria.service;
+
+import java.util.Arrays;
+
+// Catálogo activo ya serializado (JSON y JSON gzip) con su ETag. Inmutable: se reemplaza
+// entero cuando cambia algún mueble, nunca se modifica.
+public record CatalogoSnapshot(long generacion, byte[] json, byte[] jsonGzip, String etag) {
+
+    public String etagGzip() {
+        return etag + "-gz";
+    }
+
+    // If-None-Match puede traer varios ETags separados por coma, o "*"
+    public boolean coincideCon(String ifNoneMatch) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(valor -> valor.startsWith("W/") ? valor.substring(2) : valor)
+                .map(valor -> valor.replace("\"", ""))
+                .anyMatch(valor -> valor.equals("*") || valor.equals(etag) || valor.equals(etagGzip()));
+    }
+}
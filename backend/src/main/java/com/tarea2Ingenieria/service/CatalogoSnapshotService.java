@@ -0,0 +1,81 @@
+package com.tarea2Ingenieria.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.event.MueblesModificadosEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPOutputStream;
+
+@Component
+@RequiredArgsConstructor
+public class CatalogoSnapshotService {
+
+    private final MuebleService muebleService;
+    private final ObjectMapper objectMapper;
+
+    // Cada mutación sube la generación; un snapshot solo se sirve si es de la generación actual
+    private final AtomicLong generacion = new AtomicLong();
+    private final AtomicReference<CatalogoSnapshot> snapshot = new AtomicReference<>();
+
+    public CatalogoSnapshot getSnapshot() {
+        long generacionActual = generacion.get();
+        CatalogoSnapshot actual = snapshot.get();
+        if (actual != null && actual.generacion() == generacionActual) {
+            return actual;
+        }
+
+        // Sin locks: si dos hilos reconstruyen a la vez se queda el de generación más nueva
+        CatalogoSnapshot nuevo = construir(generacionActual);
+        snapshot.accumulateAndGet(nuevo, (previo, candidato) ->
+                previo == null || previo.generacion() <= candidato.generacion() ? candidato : previo);
+        return nuevo;
+    }
+
+    // Corre después de CatalogoCacheInvalidator, así la reconstrucción ya no lee la caché vieja
+    @Order(1)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onMueblesModificados(MueblesModificadosEvent event) {
+        generacion.incrementAndGet();
+    }
+
+    private CatalogoSnapshot construir(long generacionBase) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(muebleService.getMueblesActivos());
+            return new CatalogoSnapshot(generacionBase, json, gzip(json), etag(json));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el catálogo", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] datos) {
+        ByteArrayOutputStream salida = new ByteArrayOutputStream(datos.length / 4 + 64);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(salida)) {
+            gzip.write(datos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return salida.toByteArray();
+    }
+
+    // ETag fuerte derivado del contenido: estable entre reinicios y entre instancias
+    private static String etag(byte[] json) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(json);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(hash).substring(0, 22);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
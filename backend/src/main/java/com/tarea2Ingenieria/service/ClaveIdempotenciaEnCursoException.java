@@ -0,0 +1,8 @@
+package com.tarea2Ingenieria.service;
+
+public class ClaveIdempotenciaEnCursoException extends RuntimeException {
+
+    public ClaveIdempotenciaEnCursoException() {
+        super("Hay una solicitud con esta Idempotency-Key todavía en curso. Intente de nuevo en unos segundos.");
+    }
+}
@@ -0,0 +1,8 @@
+package com.tarea2Ingenieria.service;
+
+public class ClaveIdempotenciaReutilizadaException extends RuntimeException {
+
+    public ClaveIdempotenciaReutilizadaException() {
+        super("Esta Idempotency-Key ya se usó con otra solicitud. Genere una clave nueva por cada operación.");
+    }
+}
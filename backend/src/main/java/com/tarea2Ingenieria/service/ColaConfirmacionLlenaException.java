@@ -0,0 +1,8 @@
+package com.tarea2Ingenieria.service;
+
+public class ColaConfirmacionLlenaException extends RuntimeException {
+
+    public ColaConfirmacionLlenaException(int capacidad) {
+        super("La cola de confirmación está llena (" + capacidad + " pendientes). Intente de nuevo en unos segundos.");
+    }
+}
@@ -0,0 +1,12 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.ConfirmacionEnColaDTO;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+public interface ColaConfirmacionService {
+
+    CompletableFuture<ConfirmacionEnColaDTO> encolar(Long idCotizacion);
+    Optional<ConfirmacionEnColaDTO> getEstado(Long idCotizacion);
+}
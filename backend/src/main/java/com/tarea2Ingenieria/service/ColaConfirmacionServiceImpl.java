@@ -0,0 +1,147 @@
+package com.tarea2Ingenieria.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tarea2Ingenieria.dto.ConfirmacionEnColaDTO;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Modo de confirmación en cola (POST /api/cotizaciones/{id}/confirmar/cola). Las solicitudes entran a una cola
+// acotada y un único hilo escritor las saca en lotes: cada lote es una transacción de confirmarVentasEnLote, con
+// un solo UPDATE por mueble para todas sus ventas. En promociones, cientos de confirmaciones sobre los mismos
+// muebles dejan de pelear por la fila y se vuelven un commit por lote.
+// El estado de cada solicitud queda consultable un tiempo después de resolverse. La cola vive en memoria:
+// lo que esté encolado al apagar la aplicación se rechaza y la cotización sigue PENDIENTE.
+@Slf4j
+@Service
+public class ColaConfirmacionServiceImpl implements ColaConfirmacionService {
+
+    private final CotizacionService cotizacionService;
+    private final BlockingQueue<Solicitud> cola;
+    private final int capacidad;
+    private final int tamanioLote;
+    // Una misma cotización encolada dos veces comparte el futuro de la primera
+    private final Map<Long, CompletableFuture<ConfirmacionEnColaDTO>> enCurso = new ConcurrentHashMap<>();
+    private final Cache<Long, ConfirmacionEnColaDTO> estados;
+    private final Thread escritor;
+
+    public ColaConfirmacionServiceImpl(CotizacionService cotizacionService,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${app.confirmacion.cola.capacidad:10000}") int capacidad,
+                                       @Value("${app.confirmacion.cola.tamanio-lote:200}") int tamanioLote,
+                                       @Value("${app.confirmacion.cola.retencion:10m}") Duration retencion) {
+        this.cotizacionService = cotizacionService;
+        this.cola = new ArrayBlockingQueue<>(capacidad);
+        this.capacidad = capacidad;
+        this.tamanioLote = tamanioLote;
+        this.estados = Caffeine.newBuilder()
+                .expireAfterWrite(retencion)
+                .maximumSize(capacidad * 10L)
+                .build();
+        Gauge.builder("cotizaciones.confirmar.cola", cola, BlockingQueue::size)
+                .description("Confirmaciones esperando en la cola")
+                .register(meterRegistry);
+        // Hilo de plataforma dedicado: pasa casi todo el tiempo esperando la cola o la BD
+        this.escritor = Thread.ofPlatform().name("confirmaciones-cola").daemon().start(this::procesarCola);
+    }
+
+    @Override
+    public CompletableFuture<ConfirmacionEnColaDTO> encolar(Long idCotizacion) {
+        CompletableFuture<ConfirmacionEnColaDTO> futuro = new CompletableFuture<>();
+        CompletableFuture<ConfirmacionEnColaDTO> existente = enCurso.putIfAbsent(idCotizacion, futuro);
+        if (existente != null) {
+            return existente;
+        }
+        // El estado se publica antes de encolar: el escritor siempre lo pisa con el resultado, nunca al revés
+        estados.put(idCotizacion, ConfirmacionEnColaDTO.enCola(idCotizacion));
+        if (!cola.offer(new Solicitud(idCotizacion, futuro))) {
+            enCurso.remove(idCotizacion);
+            estados.invalidate(idCotizacion);
+            throw new ColaConfirmacionLlenaException(capacidad);
+        }
+        return futuro;
+    }
+
+    @Override
+    public Optional<ConfirmacionEnColaDTO> getEstado(Long idCotizacion) {
+        return Optional.ofNullable(estados.getIfPresent(idCotizacion));
+    }
+
+    @PreDestroy
+    public void detener() throws InterruptedException {
+        escritor.interrupt();
+        escritor.join(Duration.ofSeconds(10));
+        List<Solicitud> sinProcesar = new ArrayList<>();
+        cola.drainTo(sinProcesar);
+        for (Solicitud solicitud : sinProcesar) {
+            completar(solicitud, ConfirmacionEnColaDTO.rechazada(solicitud.idCotizacion(),
+                    "La aplicación se detuvo antes de procesar la confirmación. Intente de nuevo."));
+        }
+    }
+
+    // Toma lo que haya acumulado mientras se procesaba el lote anterior, hasta tamanioLote: con poca carga
+    // los lotes son de una cotización y no esperan a nadie; con mucha, crecen solos.
+    private void procesarCola() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Solicitud> lote = new ArrayList<>(tamanioLote);
+            try {
+                lote.add(cola.take());
+            } catch (InterruptedException e) {
+                return;
+            }
+            cola.drainTo(lote, tamanioLote - 1);
+            try {
+                procesarLote(lote);
+            } catch (RuntimeException e) {
+                // No debería pasar (procesarLote resuelve cada solicitud), pero el escritor no puede morir
+                log.error("Error inesperado en la cola de confirmación", e);
+                lote.forEach(solicitud -> completar(solicitud, ConfirmacionEnColaDTO.rechazada(
+                        solicitud.idCotizacion(), "Error al confirmar la venta: " + e.getMessage())));
+            }
+        }
+    }
+
+    private void procesarLote(List<Solicitud> lote) {
+        Map<Long, ConfirmacionEnColaDTO> resultados;
+        try {
+            resultados = cotizacionService.confirmarVentasEnLote(lote.stream().map(Solicitud::idCotizacion).toList());
+        } catch (RuntimeException e) {
+            // El lote se revirtió entero: se confirma de a una, con los reintentos de confirmarVenta
+            log.warn("Lote de {} confirmaciones revertido ({}); se confirman de a una", lote.size(), e.getMessage());
+            lote.forEach(solicitud -> completar(solicitud, confirmarSola(solicitud.idCotizacion())));
+            return;
+        }
+        lote.forEach(solicitud -> completar(solicitud, resultados.get(solicitud.idCotizacion())));
+    }
+
+    private ConfirmacionEnColaDTO confirmarSola(Long idCotizacion) {
+        try {
+            return ConfirmacionEnColaDTO.confirmada(cotizacionService.confirmarVenta(idCotizacion));
+        } catch (RuntimeException e) {
+            return ConfirmacionEnColaDTO.rechazada(idCotizacion, e.getMessage());
+        }
+    }
+
+    private void completar(Solicitud solicitud, ConfirmacionEnColaDTO resultado) {
+        estados.put(solicitud.idCotizacion(), resultado);
+        enCurso.remove(solicitud.idCotizacion());
+        solicitud.futuro().complete(resultado);
+    }
+
+    private record Solicitud(Long idCotizacion, CompletableFuture<ConfirmacionEnColaDTO> futuro) {
+    }
+}
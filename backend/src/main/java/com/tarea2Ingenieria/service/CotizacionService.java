@@ -1,14 +1,25 @@
 package com.tarea2Ingenieria.service;
 
+import com.tarea2Ingenieria.dto.ConfirmacionEnColaDTO;
+import com.tarea2Ingenieria.dto.CotizacionPaginaDTO;
 import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
 import com.tarea2Ingenieria.dto.CotizacionResponseDTO;
+import com.tarea2Ingenieria.dto.PrevisualizacionCotizacionDTO;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 public interface CotizacionService {
 
     CotizacionResponseDTO crearCotizacion(CotizacionRequestDTO requestDTO);
+    PrevisualizacionCotizacionDTO previsualizarCotizacion(CotizacionRequestDTO requestDTO);
     CotizacionResponseDTO confirmarVenta(Long cotizacionId);
+    Map<Long, ConfirmacionEnColaDTO> confirmarVentasEnLote(List<Long> cotizacionIds);
     CotizacionResponseDTO getCotizacionById(Long cotizacionId);
     List<CotizacionResponseDTO> getAllCotizaciones();
+    CotizacionPaginaDTO getCotizacionesPaginadas(String estado, LocalDate desde, LocalDate hasta,
+                                                 String cursor, int limite, String orden);
+    void exportarCotizaciones(OutputStream salida, String formato);
 }
@@ -1,26 +1,64 @@
 package com.tarea2Ingenieria.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.dto.CambioStockDTO;
+import com.tarea2Ingenieria.dto.ConfirmacionEnColaDTO;
+import com.tarea2Ingenieria.dto.CotizacionExportFilaDTO;
+import com.tarea2Ingenieria.dto.CotizacionPaginaDTO;
 import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
 import com.tarea2Ingenieria.dto.CotizacionResponseDTO;
 import com.tarea2Ingenieria.dto.DetalleRequestDTO;
 import com.tarea2Ingenieria.dto.DetalleResponseDTO;
+import com.tarea2Ingenieria.dto.DisponibilidadStockDTO;
+import com.tarea2Ingenieria.dto.LineaPrevisualizacionDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.dto.PrevisualizacionCotizacionDTO;
+import com.tarea2Ingenieria.dto.VarianteDTO;
+import com.tarea2Ingenieria.event.MueblesModificadosEvent;
+import com.tarea2Ingenieria.event.VentaConfirmadaEvent;
 import com.tarea2Ingenieria.model.Cotizacion;
 import com.tarea2Ingenieria.model.DetalleCotizacion;
 import com.tarea2Ingenieria.model.Mueble;
 import com.tarea2Ingenieria.model.Variante;
 import com.tarea2Ingenieria.model.enums.EstadoCotizacion;
 import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TipoEventoDominio;
 import com.tarea2Ingenieria.repository.CotizacionRepository;
+import com.tarea2Ingenieria.repository.CotizacionSpecifications;
 import com.tarea2Ingenieria.repository.MuebleRepository;
 import com.tarea2Ingenieria.repository.VarianteRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.retry.annotation.Backoff;
+import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -30,8 +68,25 @@ public class CotizacionServiceImpl implements CotizacionService {
     private final MuebleRepository muebleRepository;
     private final VarianteRepository varianteRepository;
 
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Lecturas cacheadas para la previsualización
+    private final MuebleService muebleService;
+    private final VarianteService varianteService;
+
+    private final ReservaStockService reservaStockService;
+
+    // Eventos para sistemas externos, en la misma transacción que cada cambio
+    private final EventoOutboxService eventoOutboxService;
+
+    private static final int LIMITE_MAXIMO_PAGINA = 100;
+    private static final String CABECERA_CSV =
+            "idCotizacion,fecha,estado,total,idDetalle,idMueble,nombreMueble,nombreVariante,cantidad,precioUnitario\n";
+
     @Override
     @Transactional
+    @Timed(value = "cotizaciones.crear", description = "Creación de cotizaciones", histogram = true)
     public CotizacionResponseDTO crearCotizacion(CotizacionRequestDTO requestDTO) {
 
         Cotizacion cotizacion = new Cotizacion();
@@ -41,9 +96,16 @@ public class CotizacionServiceImpl implements CotizacionService {
         List<DetalleCotizacion> detalles = new ArrayList<>();
         double totalCotizacion = 0.0;
 
+        // Resolvemos todos los muebles y variantes en una sola consulta por tabla
+        Map<Long, Mueble> muebles = cargarMuebles(requestDTO.getDetalles());
+        Map<Long, Variante> variantes = cargarVariantes(requestDTO.getDetalles());
+        Map<Long, Integer> cantidadPorMueble = cantidadPorMueble(requestDTO.getDetalles());
+
         for (DetalleRequestDTO itemDTO : requestDTO.getDetalles()) {
-            Mueble mueble = muebleRepository.findById(itemDTO.getIdMueble())
-                    .orElseThrow(() -> new RuntimeException("Mueble no encontrado"));
+            Mueble mueble = muebles.get(itemDTO.getIdMueble());
+            if (mueble == null) {
+                throw new RuntimeException("Mueble no encontrado");
+            }
 
             // --- VALIDACIÓN 1: ESTADO DEL MUEBLE ---
             if (mueble.getEstado() == EstadoMueble.INACTIVO) {
@@ -51,16 +113,18 @@ public class CotizacionServiceImpl implements CotizacionService {
             }
             // --- FIN VALIDACIÓN 1 ---
 
-            Variante variante = varianteRepository.findById(itemDTO.getIdVariante())
-                    .orElseThrow(() -> new RuntimeException("Variante no encontrada"));
+            Variante variante = variantes.get(itemDTO.getIdVariante());
+            if (variante == null) {
+                throw new RuntimeException("Variante no encontrada");
+            }
 
-            // Verificación de stock
-            if (mueble.getStock() < itemDTO.getCantidad()) {
+            // Verificación de stock libre: lo pedido del mueble en todo el carrito contra lo no reservado
+            if (mueble.getStock() - mueble.getReservado() < cantidadPorMueble.get(mueble.getIdMueble())) {
                 throw new RuntimeException("Stock insuficiente para: " + mueble.getNombreMueble());
             }
 
             // Cálculo de precio
-            double precioUnitario = mueble.getPrecioBase() + variante.getAumentoPrecio();
+            double precioUnitario = precioUnitario(mueble.getPrecioBase(), variante.getAumentoPrecio());
 
             DetalleCotizacion detalle = new DetalleCotizacion();
             detalle.setMueble(mueble);
@@ -77,55 +141,243 @@ public class CotizacionServiceImpl implements CotizacionService {
         cotizacion.setDetalles(detalles);
 
         Cotizacion cotizacionGuardada = cotizacionRepository.save(cotizacion);
-        return toResponseDTO(cotizacionGuardada);
+        // Retiene el stock hasta que se confirme o venza la reserva; si otra cotización se adelantó, falla todo
+        reservaStockService.reservar(cotizacionGuardada);
+
+        CotizacionResponseDTO respuesta = toResponseDTO(cotizacionGuardada);
+        eventoOutboxService.registrar(TipoEventoDominio.COTIZACION_CREADA, respuesta.getIdCotizacion(), respuesta);
+        return respuesta;
     }
 
+    // Mismo cálculo que crearCotizacion pero sin escribir nada: muebles y variantes salen de la caché (los muebles
+    // que falten, en una sola consulta) y
+    // solo la disponibilidad (stock menos reservas, que cambia con cada cotización) se lee de la BD, sin lock.
+    // En vez de fallar, marca las líneas inactivas o sin stock; el stock se compara contra lo pedido
+    // del mueble en todo el carrito, como al crear.
+    @Override
+    @Timed(value = "cotizaciones.previsualizar", description = "Previsualización de cotizaciones", histogram = true)
+    public PrevisualizacionCotizacionDTO previsualizarCotizacion(CotizacionRequestDTO requestDTO) {
+        Map<Long, Integer> cantidadPorMueble = cantidadPorMueble(requestDTO.getDetalles());
+        if (cantidadPorMueble.size() > ReservaStockService.MAXIMO_IDS_DISPONIBILIDAD) {
+            throw new ParametroInvalidoException("Demasiados muebles distintos en el carrito: como máximo "
+                    + ReservaStockService.MAXIMO_IDS_DISPONIBILIDAD);
+        }
+        Map<Long, VarianteDTO> variantes = varianteService.getAllVariantes().stream()
+                .collect(Collectors.toMap(VarianteDTO::getIdVariante, Function.identity()));
+        // Los muebles del carrito de una vez: los cacheados sin consulta y el resto en un solo findAllById
+        Map<Long, MuebleDTO> muebles = muebleService.getMueblesByIds(cantidadPorMueble.keySet());
+
+        Map<Long, Integer> disponiblePorMueble = reservaStockService.getDisponibilidad(cantidadPorMueble.keySet()).stream()
+                .collect(Collectors.toMap(DisponibilidadStockDTO::getIdMueble, DisponibilidadStockDTO::getDisponible));
+
+        List<LineaPrevisualizacionDTO> lineas = new ArrayList<>(requestDTO.getDetalles().size());
+        double totalCotizacion = 0.0;
+        boolean confirmable = true;
+        for (DetalleRequestDTO itemDTO : requestDTO.getDetalles()) {
+            MuebleDTO mueble = muebles.get(itemDTO.getIdMueble());
+            if (mueble == null) {
+                throw new RuntimeException("Mueble no encontrado");
+            }
+            VarianteDTO variante = variantes.get(itemDTO.getIdVariante());
+            if (variante == null) {
+                throw new RuntimeException("Variante no encontrada");
+            }
+
+            double precioUnitario = precioUnitario(mueble.getPrecioBase(), variante.getAumentoPrecio());
+
+            LineaPrevisualizacionDTO linea = new LineaPrevisualizacionDTO();
+            linea.setIdMueble(mueble.getIdMueble());
+            linea.setIdVariante(variante.getIdVariante());
+            linea.setNombreMueble(mueble.getNombreMueble());
+            linea.setNombreVariante(variante.getNombre());
+            linea.setCantidad(itemDTO.getCantidad());
+            linea.setPrecioUnitario(precioUnitario);
+            linea.setSubtotal(precioUnitario * itemDTO.getCantidad());
+
+            if (!EstadoMueble.ACTIVO.name().equals(mueble.getEstado())) {
+                linea.setMotivo("El producto '" + mueble.getNombreMueble() + "' no está disponible (inactivo).");
+            } else if (disponiblePorMueble.getOrDefault(mueble.getIdMueble(), 0) < cantidadPorMueble.get(mueble.getIdMueble())) {
+                linea.setMotivo("Stock insuficiente para: " + mueble.getNombreMueble());
+            }
+            linea.setDisponible(linea.getMotivo() == null);
+            confirmable &= linea.isDisponible();
+
+            lineas.add(linea);
+            totalCotizacion += linea.getSubtotal();
+        }
+
+        PrevisualizacionCotizacionDTO previsualizacion = new PrevisualizacionCotizacionDTO();
+        previsualizacion.setLineas(lineas);
+        previsualizacion.setTotal(totalCotizacion);
+        previsualizacion.setConfirmable(confirmable);
+        return previsualizacion;
+    }
+
+    // Ante conflictos de concurrencia (lock optimista, deadlock, timeout de lock) reintenta la
+    // transacción completa con backoff exponencial; el reintento envuelve a @Transactional.
     @Override
     @Transactional
+    @Retryable(retryFor = ConcurrencyFailureException.class,
+            maxAttemptsExpression = "${app.confirmacion.max-intentos:3}",
+            backoff = @Backoff(delayExpression = "${app.confirmacion.backoff-ms:50}", multiplier = 2, maxDelay = 1000, random = true))
+    // Se mide cada intento (el reintento envuelve al timer): los conflictos quedan con su tag exception
+    @Timed(value = "cotizaciones.confirmar", description = "Intentos de confirmación de venta", histogram = true)
     public CotizacionResponseDTO confirmarVenta(Long cotizacionId) {
-        Cotizacion cotizacion = cotizacionRepository.findById(cotizacionId)
+        Cotizacion cotizacion = cotizacionRepository.findByIdConDetalles(cotizacionId)
                 .orElseThrow(() -> new RuntimeException("Cotización no encontrada"));
 
         if (cotizacion.getEstado() == EstadoCotizacion.CONFIRMADA) {
             throw new RuntimeException("Esta cotización ya fue confirmada como venta.");
         }
 
-        for (DetalleCotizacion detalle : cotizacion.getDetalles()) {
+        // Reclamamos la cotización de forma atómica: si otra confirmación concurrente ganó, aquí devuelve 0
+        if (cotizacionRepository.marcarConfirmada(cotizacionId, LocalDate.now()) == 0) {
+            throw new RuntimeException("Esta cotización ya fue confirmada como venta.");
+        }
 
+        // Agrupamos por mueble y descontamos en orden de id para no cruzar locks entre confirmaciones
+        Map<Long, Integer> cantidadPorMueble = new TreeMap<>();
+        Map<Long, Mueble> muebles = new HashMap<>();
+        for (DetalleCotizacion detalle : cotizacion.getDetalles()) {
             Mueble mueble = detalle.getMueble();
+            cantidadPorMueble.merge(mueble.getIdMueble(), detalle.getCantidad(), Integer::sum);
+            muebles.put(mueble.getIdMueble(), mueble);
+        }
 
-            // VALIDACIÓN 2: ESTADO AL CONFIRMAR
-            if (mueble.getEstado() == EstadoMueble.INACTIVO) {
-                throw new RuntimeException("El producto '" + mueble.getNombreMueble() + "' ya no está disponible y no se puede confirmar la venta.");
-            }
+        // Lo que la cotización todavía tiene reservado sale de la reserva; si venció, compite por el stock libre
+        Map<Long, Integer> reservadoPorMueble = reservaStockService.consumir(cotizacionId);
+
+        for (Map.Entry<Long, Integer> item : cantidadPorMueble.entrySet()) {
+            // Descontamos stock solo si sigue ACTIVO y alcanza; si no, la transacción completa se revierte
+            int reservada = reservadoPorMueble.getOrDefault(item.getKey(), 0);
+            if (muebleRepository.descontarStock(item.getKey(), item.getValue(), reservada) == 0) {
+                Mueble mueble = muebles.get(item.getKey());
 
-            // Re-verificamos stock al momento de confirmar
-            if (mueble.getStock() < detalle.getCantidad()) {
+                // VALIDACIÓN 2: ESTADO AL CONFIRMAR
+                if (mueble.getEstado() == EstadoMueble.INACTIVO) {
+                    throw new RuntimeException("El producto '" + mueble.getNombreMueble() + "' ya no está disponible y no se puede confirmar la venta.");
+                }
                 throw new RuntimeException("Stock insuficiente para: " + mueble.getNombreMueble());
             }
-
-            // Descontamos stock
-            mueble.setStock(mueble.getStock() - detalle.getCantidad());
-            muebleRepository.save(mueble);
         }
 
+        // El stock cambió: el catálogo en caché se invalida cuando la transacción haga commit
+        eventPublisher.publishEvent(new MueblesModificadosEvent(Set.copyOf(cantidadPorMueble.keySet())));
+        // Los resúmenes de ventas se actualizan ahora, dentro de esta misma transacción
+        eventPublisher.publishEvent(new VentaConfirmadaEvent(cotizacionId));
+
+        // La entidad quedó desconectada tras el UPDATE; solo reflejamos el nuevo estado en la respuesta
         cotizacion.setEstado(EstadoCotizacion.CONFIRMADA);
-        Cotizacion ventaConfirmada = cotizacionRepository.save(cotizacion);
+        CotizacionResponseDTO respuesta = toResponseDTO(cotizacion);
+        registrarVenta(respuesta, cantidadPorMueble);
+        return respuesta;
+    }
 
-        return toResponseDTO(ventaConfirmada);
+    // Un lote de la cola de confirmación en una sola transacción. Las cotizaciones se aceptan en orden de llegada
+    // mientras alcance el stock; cada mueble recibe un único UPDATE con la suma de todas las aceptadas, así el lote
+    // toca cada fila caliente una vez en vez de una por venta. Las que no alcanzan se rechazan sin frenar al resto.
+    // Si un UPDATE de stock no aplica (otra transacción lo movió entre la lectura y el UPDATE) el lote entero se
+    // revierte y la cola confirma esas cotizaciones de a una con confirmarVenta.
+    @Override
+    @Transactional
+    @Timed(value = "cotizaciones.confirmar.lote", description = "Lotes de la cola de confirmación", histogram = true)
+    public Map<Long, ConfirmacionEnColaDTO> confirmarVentasEnLote(List<Long> cotizacionIds) {
+        Map<Long, ConfirmacionEnColaDTO> resultados = new HashMap<>();
+
+        // 1. Bloqueamos las cotizaciones; las que no existen o ya se confirmaron se rechazan de entrada
+        Map<Long, Cotizacion> cotizaciones = cotizacionRepository.bloquear(cotizacionIds).stream()
+                .collect(Collectors.toMap(Cotizacion::getIdCotizacion, Function.identity()));
+        List<Long> pendientes = new ArrayList<>();
+        for (Long id : cotizacionIds) {
+            Cotizacion cotizacion = cotizaciones.get(id);
+            if (cotizacion == null) {
+                resultados.put(id, ConfirmacionEnColaDTO.rechazada(id, "Cotización no encontrada"));
+            } else if (cotizacion.getEstado() != EstadoCotizacion.PENDIENTE) {
+                resultados.put(id, ConfirmacionEnColaDTO.rechazada(id, "Esta cotización ya fue confirmada como venta."));
+            } else {
+                pendientes.add(id);
+            }
+        }
+        if (pendientes.isEmpty()) {
+            return resultados;
+        }
+
+        // 2. Detalles, mueble y variante de todo el lote en una consulta, y lo que cada una tiene reservado
+        cotizacionRepository.findAllConDetallesByIds(pendientes);
+        Map<Long, Map<Long, Integer>> reservadoPorCotizacion = reservaStockService.bloquearReservas(pendientes);
+
+        // 3. Stock libre de cada mueble según la lectura del paso 2; se va restando a medida que se aceptan
+        Map<Long, Integer> libre = new HashMap<>();
+        Map<Long, Integer> cantidadTotal = new TreeMap<>();
+        Map<Long, Integer> reservadaTotal = new HashMap<>();
+        Map<Long, Mueble> muebles = new HashMap<>();
+        Map<Long, Map<Long, Integer>> aceptadas = new LinkedHashMap<>();
+        for (Long id : pendientes) {
+            Map<Long, Integer> cantidadPorMueble = new TreeMap<>();
+            for (DetalleCotizacion detalle : cotizaciones.get(id).getDetalles()) {
+                Mueble mueble = detalle.getMueble();
+                cantidadPorMueble.merge(mueble.getIdMueble(), detalle.getCantidad(), Integer::sum);
+                muebles.putIfAbsent(mueble.getIdMueble(), mueble);
+                libre.putIfAbsent(mueble.getIdMueble(), mueble.getStock() - mueble.getReservado());
+            }
+            Map<Long, Integer> reservadoPorMueble = reservadoPorCotizacion.getOrDefault(id, Map.of());
+
+            String motivo = motivoRechazo(cantidadPorMueble, reservadoPorMueble, libre, muebles);
+            if (motivo != null) {
+                resultados.put(id, ConfirmacionEnColaDTO.rechazada(id, motivo));
+                continue;
+            }
+            for (Map.Entry<Long, Integer> item : cantidadPorMueble.entrySet()) {
+                int reservada = reservadoPorMueble.getOrDefault(item.getKey(), 0);
+                libre.merge(item.getKey(), reservada - item.getValue(), Integer::sum);
+                cantidadTotal.merge(item.getKey(), item.getValue(), Integer::sum);
+                reservadaTotal.merge(item.getKey(), reservada, Integer::sum);
+            }
+            aceptadas.put(id, cantidadPorMueble);
+        }
+        if (aceptadas.isEmpty()) {
+            return resultados;
+        }
+
+        // 4. Un UPDATE condicional por mueble con la suma del lote, en orden de id
+        for (Map.Entry<Long, Integer> item : cantidadTotal.entrySet()) {
+            if (muebleRepository.descontarStock(item.getKey(), item.getValue(), reservadaTotal.get(item.getKey())) == 0) {
+                throw new ConcurrencyFailureException(
+                        "El stock de '" + muebles.get(item.getKey()).getNombreMueble() + "' cambió durante el lote de confirmación");
+            }
+        }
+        if (cotizacionRepository.marcarConfirmadas(aceptadas.keySet(), LocalDate.now()) != aceptadas.size()) {
+            throw new ConcurrencyFailureException("Una cotización del lote fue confirmada por otra operación");
+        }
+        reservaStockService.eliminarReservas(aceptadas.keySet());
+
+        // 5. Un evento de catálogo y uno de ventas para todo el lote
+        eventPublisher.publishEvent(new MueblesModificadosEvent(Set.copyOf(cantidadTotal.keySet())));
+        eventPublisher.publishEvent(new VentaConfirmadaEvent(List.copyOf(aceptadas.keySet())));
+
+        aceptadas.forEach((id, cantidadPorMueble) -> {
+            Cotizacion cotizacion = cotizaciones.get(id);
+            cotizacion.setEstado(EstadoCotizacion.CONFIRMADA);
+            CotizacionResponseDTO respuesta = toResponseDTO(cotizacion);
+            registrarVenta(respuesta, cantidadPorMueble);
+            resultados.put(id, ConfirmacionEnColaDTO.confirmada(respuesta));
+        });
+        return resultados;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public CotizacionResponseDTO getCotizacionById(Long cotizacionId) {
-        Cotizacion cotizacion = cotizacionRepository.findById(cotizacionId)
+        Cotizacion cotizacion = cotizacionRepository.findByIdConDetalles(cotizacionId)
                 .orElseThrow(() -> new RuntimeException("Cotización no encontrada"));
         return toResponseDTO(cotizacion);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<CotizacionResponseDTO> getAllCotizaciones() {
-        // 1. Busca todas las cotizaciones en la BD
-        List<Cotizacion> cotizaciones = cotizacionRepository.findAll();
+        // 1. Busca todas las cotizaciones en la BD, con detalles, mueble y variante ya cargados
+        List<Cotizacion> cotizaciones = cotizacionRepository.findAllConDetalles();
 
         // 2. Mapea la lista de Entidades a una lista de DTOs
         return cotizaciones.stream()
@@ -133,6 +385,165 @@ public class CotizacionServiceImpl implements CotizacionService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CotizacionPaginaDTO getCotizacionesPaginadas(String estado, LocalDate desde, LocalDate hasta,
+                                                        String cursor, int limite, String orden) {
+        int tamanio = Math.max(1, Math.min(limite, LIMITE_MAXIMO_PAGINA));
+        boolean ascendente = "asc".equalsIgnoreCase(orden);
+
+        LocalDate cursorFecha = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] partes = cursor.split("_");
+                cursorFecha = LocalDate.parse(partes[0]);
+                cursorId = Long.valueOf(partes[1]);
+            } catch (RuntimeException e) {
+                throw new ParametroInvalidoException("Cursor inválido: " + cursor);
+            }
+        }
+
+        Specification<Cotizacion> filtro = Specification.allOf(
+                CotizacionSpecifications.conEstado(estadoCotizacion(estado)),
+                CotizacionSpecifications.desde(desde),
+                CotizacionSpecifications.hasta(hasta),
+                CotizacionSpecifications.despuesDe(cursorFecha, cursorId, ascendente));
+        Sort.Direction direccion = ascendente ? Sort.Direction.ASC : Sort.Direction.DESC;
+        Sort sort = Sort.by(direccion, "fecha").and(Sort.by(direccion, "idCotizacion"));
+
+        // 1. Claves de la página (pedimos una fila extra para saber si hay más)
+        List<Cotizacion> filas = cotizacionRepository.findBy(filtro, q -> q.sortBy(sort).limit(tamanio + 1).all());
+        boolean hayMas = filas.size() > tamanio;
+        List<Long> ids = filas.stream()
+                .limit(tamanio)
+                .map(Cotizacion::getIdCotizacion)
+                .collect(Collectors.toList());
+
+        // 2. Grafo completo solo de esas cotizaciones, respetando el orden de la página
+        Map<Long, Cotizacion> porId = ids.isEmpty() ? Map.of() : cotizacionRepository.findAllConDetallesByIds(ids).stream()
+                .collect(Collectors.toMap(Cotizacion::getIdCotizacion, Function.identity()));
+
+        CotizacionPaginaDTO pagina = new CotizacionPaginaDTO();
+        pagina.setContenido(ids.stream()
+                .map(porId::get)
+                .map(this::toResponseDTO)
+                .collect(Collectors.toList()));
+        pagina.setHayMas(hayMas);
+        if (hayMas) {
+            Cotizacion ultima = filas.get(tamanio - 1);
+            pagina.setSiguienteCursor(ultima.getFecha() + "_" + ultima.getIdCotizacion());
+        }
+        return pagina;
+    }
+
+    private static EstadoCotizacion estadoCotizacion(String estado) {
+        if (estado == null || estado.isBlank()) {
+            return null;
+        }
+        try {
+            return EstadoCotizacion.valueOf(estado.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ParametroInvalidoException("Estado de cotización inválido: " + estado
+                    + ". Valores posibles: " + Arrays.toString(EstadoCotizacion.values()));
+        }
+    }
+    @Override
+    @Transactional(readOnly = true)
+    public void exportarCotizaciones(OutputStream salida, String formato) {
+        boolean csv = "csv".equalsIgnoreCase(formato);
+        Writer writer = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8));
+
+        // Las filas llegan ordenadas por cotización: en memoria solo vive la cotización en curso
+        try (Stream<CotizacionExportFilaDTO> filas = cotizacionRepository.streamExportacion()) {
+            Iterator<CotizacionExportFilaDTO> it = filas.iterator();
+            if (csv) {
+                writer.write(CABECERA_CSV);
+                while (it.hasNext()) {
+                    writer.write(toLineaCsv(it.next()));
+                }
+            } else {
+                CotizacionResponseDTO actual = null;
+                while (it.hasNext()) {
+                    CotizacionExportFilaDTO fila = it.next();
+                    if (actual == null || !actual.getIdCotizacion().equals(fila.getIdCotizacion())) {
+                        if (actual != null) {
+                            writer.write(objectMapper.writeValueAsString(actual));
+                            writer.write('\n');
+                        }
+                        actual = toResponseDTO(fila);
+                    }
+                    if (fila.getIdDetalle() != null) {
+                        actual.getDetalles().add(toDetalleResponseDTO(fila));
+                    }
+                }
+                if (actual != null) {
+                    writer.write(objectMapper.writeValueAsString(actual));
+                    writer.write('\n');
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error al exportar cotizaciones", e);
+        }
+    }
+
+    // Precio de una línea: base del mueble más el aumento de la variante
+    private static double precioUnitario(double precioBase, double aumentoPrecio) {
+        return precioBase + aumentoPrecio;
+    }
+
+    private static Map<Long, Integer> cantidadPorMueble(List<DetalleRequestDTO> items) {
+        Map<Long, Integer> cantidades = new TreeMap<>();
+        for (DetalleRequestDTO itemDTO : items) {
+            if (itemDTO.getIdMueble() != null) {
+                cantidades.merge(itemDTO.getIdMueble(), itemDTO.getCantidad(), Integer::sum);
+            }
+        }
+        return cantidades;
+    }
+
+    // Outbox: la venta y un cambio de stock por mueble (solo la diferencia: el UPDATE condicional no devuelve el stock)
+    private void registrarVenta(CotizacionResponseDTO venta, Map<Long, Integer> cantidadPorMueble) {
+        eventoOutboxService.registrar(TipoEventoDominio.VENTA_CONFIRMADA, venta.getIdCotizacion(), venta);
+        cantidadPorMueble.forEach((idMueble, cantidad) -> eventoOutboxService.registrar(TipoEventoDominio.STOCK_MUEBLE_CAMBIADO,
+                idMueble, new CambioStockDTO(idMueble, null, -cantidad, venta.getIdCotizacion())));
+    }
+
+    // Las mismas validaciones que confirmarVenta, contra el stock libre que va dejando el lote
+    private static String motivoRechazo(Map<Long, Integer> cantidadPorMueble, Map<Long, Integer> reservadoPorMueble,
+                                        Map<Long, Integer> libre, Map<Long, Mueble> muebles) {
+        for (Map.Entry<Long, Integer> item : cantidadPorMueble.entrySet()) {
+            Mueble mueble = muebles.get(item.getKey());
+            if (mueble.getEstado() != EstadoMueble.ACTIVO) {
+                return "El producto '" + mueble.getNombreMueble() + "' ya no está disponible y no se puede confirmar la venta.";
+            }
+            if (libre.get(item.getKey()) + reservadoPorMueble.getOrDefault(item.getKey(), 0) < item.getValue()) {
+                return "Stock insuficiente para: " + mueble.getNombreMueble();
+            }
+        }
+        return null;
+    }
+
+    // --- CARGA EN LOTE ---
+
+    private Map<Long, Mueble> cargarMuebles(List<DetalleRequestDTO> items) {
+        Set<Long> ids = items.stream()
+                .map(DetalleRequestDTO::getIdMueble)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return muebleRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Mueble::getIdMueble, Function.identity()));
+    }
+
+    private Map<Long, Variante> cargarVariantes(List<DetalleRequestDTO> items) {
+        Set<Long> ids = items.stream()
+                .map(DetalleRequestDTO::getIdVariante)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        return varianteRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Variante::getIdVariante, Function.identity()));
+    }
 
     // --- MAPPERS PRIVADOS ---
 
@@ -151,9 +562,47 @@ public class CotizacionServiceImpl implements CotizacionService {
         return response;
     }
 
+    private CotizacionResponseDTO toResponseDTO(CotizacionExportFilaDTO fila) {
+        CotizacionResponseDTO response = new CotizacionResponseDTO();
+        response.setIdCotizacion(fila.getIdCotizacion());
+        response.setFecha(fila.getFecha());
+        response.setTotal(fila.getTotal());
+        response.setEstado(fila.getEstado().name());
+        response.setDetalles(new ArrayList<>());
+        return response;
+    }
+
+    private DetalleResponseDTO toDetalleResponseDTO(CotizacionExportFilaDTO fila) {
+        DetalleResponseDTO dto = new DetalleResponseDTO();
+        dto.setNombreMueble(fila.getNombreMueble());
+        dto.setNombreVariante(fila.getNombreVariante());
+        dto.setCantidad(fila.getCantidad());
+        dto.setPrecioUnitario(fila.getPrecioUnitario());
+        dto.setSubtotal(fila.getPrecioUnitario() * fila.getCantidad());
+        return dto;
+    }
+
+    private String toLineaCsv(CotizacionExportFilaDTO fila) {
+        return fila.getIdCotizacion() + "," + fila.getFecha() + "," + fila.getEstado() + "," + fila.getTotal() + ","
+                + valorCsv(fila.getIdDetalle()) + "," + valorCsv(fila.getIdMueble()) + ","
+                + valorCsv(fila.getNombreMueble()) + "," + valorCsv(fila.getNombreVariante()) + ","
+                + valorCsv(fila.getCantidad()) + "," + valorCsv(fila.getPrecioUnitario()) + "\n";
+    }
+
+    private String valorCsv(Object valor) {
+        if (valor == null) {
+            return "";
+        }
+        String texto = valor.toString();
+        if (texto.contains(",") || texto.contains("\"") || texto.contains("\n")) {
+            return "\"" + texto.replace("\"", "\"\"") + "\"";
+        }
+        return texto;
+    }
+
     private DetalleResponseDTO toDetalleResponseDTO(DetalleCotizacion detalle) {
         DetalleResponseDTO dto = new DetalleResponseDTO();
-        // Asumiendo que los getters de Mueble y Variante están cargados (no son LAZY)
+        // Mueble y variante son LAZY: quien llama debe cargarlos con fetch join (findAllConDetalles / findByIdConDetalles)
         dto.setNombreMueble(detalle.getMueble().getNombreMueble());
         dto.setNombreVariante(detalle.getVariante().getNombre());
         dto.setCantidad(detalle.getCantidad());
@@ -0,0 +1,17 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.EventoDominioDTO;
+import com.tarea2Ingenieria.model.enums.TipoEventoDominio;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EventoOutboxService {
+
+    void registrar(TipoEventoDominio tipo, Long idAgregado, Object datos);
+    void registrarEstadoActual(TipoEventoDominio tipo, Collection<Long> idsMuebles);
+    int publicarPendientes();
+    int purgarPublicados();
+    List<EventoDominioDTO> getEventos(long desde, int limite);
+    long getUltimaPosicion();
+}
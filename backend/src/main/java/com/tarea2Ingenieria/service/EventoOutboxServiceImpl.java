@@ -0,0 +1,172 @@
+package com.tarea2Ingenieria.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.dto.EventoDominioDTO;
+import com.tarea2Ingenieria.model.EventoOutbox;
+import com.tarea2Ingenieria.model.enums.TipoEventoDominio;
+import com.tarea2Ingenieria.repository.EventoOutboxRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+// Outbox de eventos de dominio para sistemas externos (facturación, bodega):
+//  - registrar() junta los eventos de la transacción en curso y los escribe con un solo INSERT justo antes del
+//    commit: si la transacción se revierte, los eventos nunca existieron.
+//  - el relay programado les asigna posición en lotes y los entrega a cada SinkEventosDominio.
+//  - GET /api/eventos?desde= lee el feed por posición, para consumidores que prefieren consultar.
+// El relay entrega dentro de su propia transacción: un sink que falla revierte el lote y se reintenta.
+@Service
+public class EventoOutboxServiceImpl implements EventoOutboxService {
+
+    private static final int LIMITE_MAXIMO_FEED = 500;
+
+    private final EventoOutboxRepository eventoOutboxRepository;
+    private final List<SinkEventosDominio> sinks;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanioLote;
+    private final Duration retencion;
+
+    public EventoOutboxServiceImpl(EventoOutboxRepository eventoOutboxRepository,
+                                   List<SinkEventosDominio> sinks,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.outbox.tamanio-lote:500}") int tamanioLote,
+                                   @Value("${app.outbox.retencion:7d}") Duration retencion) {
+        this.eventoOutboxRepository = eventoOutboxRepository;
+        this.sinks = sinks;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.tamanioLote = tamanioLote;
+        this.retencion = retencion;
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrar(TipoEventoDominio tipo, Long idAgregado, Object datos) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(datos);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + tipo, e);
+        }
+        eventosDeLaTransaccion().add(new EventoOutbox(tipo, idAgregado, json, Instant.now()));
+    }
+
+    // Para ajustes masivos: llamar después del UPDATE, el stock y el precio se leen en el mismo INSERT ... SELECT
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarEstadoActual(TipoEventoDominio tipo, Collection<Long> idsMuebles) {
+        eventoOutboxRepository.insertarEstadoActual(tipo, idsMuebles, Instant.now());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.outbox.relay-ms:500}", initialDelayString = "${app.outbox.relay-ms:500}")
+    @Timed(value = "outbox.relay", description = "Publicación de eventos del outbox")
+    public int publicarPendientes() {
+        int publicados = 0;
+        while (true) {
+            int lote = transactionTemplate.execute(estado -> {
+                List<Long> ids = eventoOutboxRepository.findIdsPendientes(Limit.of(tamanioLote));
+                if (ids.isEmpty()) {
+                    return 0;
+                }
+                List<EventoOutbox> pendientes = eventoOutboxRepository.bloquearPendientes(ids);
+                // posicion es única: si otra instancia publica a la vez, una de las dos falla y reintenta después
+                long posicion = eventoOutboxRepository.ultimaPosicion();
+                Instant ahora = Instant.now();
+                List<EventoDominioDTO> eventos = new ArrayList<>(pendientes.size());
+                for (EventoOutbox evento : pendientes) {
+                    evento.setPosicion(++posicion);
+                    evento.setPublicadoEn(ahora);
+                    eventos.add(toDTO(evento));
+                }
+                if (!eventos.isEmpty()) {
+                    sinks.forEach(sink -> sink.publicar(eventos));
+                }
+                return ids.size();
+            });
+            publicados += lote;
+            if (lote < tamanioLote) {
+                return publicados;
+            }
+        }
+    }
+
+    // Los consumidores que se atrasen más que la retención tienen que resincronizar con una lectura completa
+    @Override
+    @Scheduled(fixedDelayString = "${app.outbox.purga-ms:3600000}", initialDelayString = "${app.outbox.purga-ms:3600000}")
+    public int purgarPublicados() {
+        int purgados = 0;
+        while (true) {
+            int lote = transactionTemplate.execute(estado -> {
+                List<Long> ids = eventoOutboxRepository.findIdsPublicadosAntesDe(
+                        Instant.now().minus(retencion), Limit.of(tamanioLote));
+                eventoOutboxRepository.deleteAllByIdInBatch(ids);
+                return ids.size();
+            });
+            purgados += lote;
+            if (lote < tamanioLote) {
+                return purgados;
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EventoDominioDTO> getEventos(long desde, int limite) {
+        int tamanio = Math.clamp(limite, 1, LIMITE_MAXIMO_FEED);
+        return eventoOutboxRepository.findPublicadosDesde(desde, Limit.of(tamanio)).stream()
+                .map(this::toDTO)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getUltimaPosicion() {
+        return eventoOutboxRepository.ultimaPosicion();
+    }
+
+    // Un buffer por transacción, ligado a ella: se inserta en beforeCommit y se suelta al terminar
+    @SuppressWarnings("unchecked")
+    private List<EventoOutbox> eventosDeLaTransaccion() {
+        List<EventoOutbox> eventos = (List<EventoOutbox>) TransactionSynchronizationManager.getResource(this);
+        if (eventos != null) {
+            return eventos;
+        }
+        List<EventoOutbox> nuevos = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, nuevos);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                eventoOutboxRepository.insertar(nuevos);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(EventoOutboxServiceImpl.this);
+            }
+        });
+        return nuevos;
+    }
+
+    private EventoDominioDTO toDTO(EventoOutbox evento) {
+        return new EventoDominioDTO(evento.getPosicion(), evento.getIdEvento(), evento.getTipo().name(),
+                evento.getIdAgregado(), evento.getDatos(), evento.getCreadoEn());
+    }
+}
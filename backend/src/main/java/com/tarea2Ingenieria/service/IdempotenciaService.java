@@ -0,0 +1,15 @@
+package com.tarea2Ingenieria.service;
+
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+public interface IdempotenciaService {
+
+    String CABECERA = "Idempotency-Key";
+    String CABECERA_REPRODUCIDA = "Idempotent-Replayed";
+
+    <T> ResponseEntity<T> ejecutar(String operacion, String clave, Object solicitud, Class<T> tipo,
+                                   Supplier<ResponseEntity<T>> accion);
+    int purgarClaves();
+}
@@ -0,0 +1,221 @@
+package com.tarea2Ingenieria.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.tarea2Ingenieria.model.ClaveIdempotencia;
+import com.tarea2Ingenieria.repository.ClaveIdempotenciaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Idempotency-Key para crear cotizaciones y confirmar ventas: los clientes móviles reintentan al vencer el
+// timeout, y sin clave cada reintento crea otra cotización o choca con "ya fue confirmada".
+//  - La primera solicitud con una clave ejecuta la acción y su respuesta exitosa queda guardada en memoria
+//    (como máximo app.idempotencia.maximo, durante app.idempotencia.retencion). Las repeticiones reciben la
+//    misma respuesta con Idempotent-Replayed: true, sin ejecutar nada ni tocar la BD.
+//  - Un duplicado que llega con la primera todavía en curso espera su resultado (hasta app.idempotencia.espera,
+//    después 409): los reintentos simultáneos se vuelven una sola ejecución.
+//  - La misma clave con otra solicitud es un error del cliente: 422.
+//  - Los errores no se guardan: la clave se libera y el reintento vuelve a ejecutar.
+// Con app.idempotencia.almacen=bd la clave además se reserva en claves_idempotencia antes de ejecutar y la
+// respuesta se guarda ahí: cubre varias instancias y reinicios, con dos sentencias más por solicitud nueva.
+@Service
+public class IdempotenciaServiceImpl implements IdempotenciaService {
+
+    private final ClaveIdempotenciaRepository claveIdempotenciaRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final boolean enBd;
+    private final Duration retencion;
+    private final Duration espera;
+    private final Duration abandono;
+    private final Cache<String, Entrada> entradas;
+
+    public IdempotenciaServiceImpl(ClaveIdempotenciaRepository claveIdempotenciaRepository,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.idempotencia.almacen:memoria}") String almacen,
+                                   @Value("${app.idempotencia.maximo:10000}") long maximo,
+                                   @Value("${app.idempotencia.retencion:24h}") Duration retencion,
+                                   @Value("${app.idempotencia.espera:30s}") Duration espera,
+                                   @Value("${app.idempotencia.abandono:2m}") Duration abandono) {
+        this.claveIdempotenciaRepository = claveIdempotenciaRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.enBd = "bd".equalsIgnoreCase(almacen);
+        this.retencion = retencion;
+        this.espera = espera;
+        this.abandono = abandono;
+        this.entradas = Caffeine.newBuilder()
+                .expireAfterWrite(retencion)
+                .maximumSize(maximo)
+                .build();
+    }
+
+    @Override
+    public <T> ResponseEntity<T> ejecutar(String operacion, String clave, Object solicitud, Class<T> tipo,
+                                          Supplier<ResponseEntity<T>> accion) {
+        if (clave == null) {
+            return accion.get();
+        }
+        String claveCompleta = operacion + ":" + clave;
+        String huella = sha256(json(solicitud));
+        Entrada nueva = new Entrada(huella, new CompletableFuture<>());
+        Entrada existente = entradas.asMap().putIfAbsent(claveCompleta, nueva);
+        if (existente != null) {
+            if (!existente.huella().equals(huella)) {
+                contar(operacion, "rechazada");
+                throw new ClaveIdempotenciaReutilizadaException();
+            }
+            contar(operacion, "reproducida");
+            return reproducir(esperar(existente));
+        }
+
+        ResponseEntity<T> respuesta;
+        try {
+            respuesta = enBd ? ejecutarConBd(sha256(claveCompleta), huella, tipo, accion) : accion.get();
+        } catch (RuntimeException e) {
+            entradas.asMap().remove(claveCompleta, nueva);
+            nueva.respuesta().completeExceptionally(e);
+            throw e;
+        }
+        if (!respuesta.getStatusCode().is2xxSuccessful()) {
+            entradas.asMap().remove(claveCompleta, nueva);
+        }
+        nueva.respuesta().complete(respuesta);
+        contar(operacion, "ejecutada");
+        return respuesta;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.idempotencia.purga-ms:3600000}", initialDelayString = "${app.idempotencia.purga-ms:3600000}")
+    public int purgarClaves() {
+        if (!enBd) {
+            return 0;
+        }
+        return claveIdempotenciaRepository.borrarAnterioresA(Instant.now().minus(retencion));
+    }
+
+    private <T> ResponseEntity<T> ejecutarConBd(String claveBd, String huella, Class<T> tipo,
+                                                Supplier<ResponseEntity<T>> accion) {
+        // Al milisegundo, para que la columna devuelva exactamente el mismo instante al comparar
+        Instant reserva = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        Optional<ResponseEntity<T>> guardada = reservarEnBd(claveBd, huella, reserva, tipo);
+        if (guardada.isPresent()) {
+            return reproducir(guardada.get());
+        }
+        ResponseEntity<T> respuesta;
+        try {
+            respuesta = accion.get();
+        } catch (RuntimeException e) {
+            claveIdempotenciaRepository.liberar(claveBd, reserva);
+            throw e;
+        }
+        if (respuesta.getStatusCode().is2xxSuccessful()) {
+            claveIdempotenciaRepository.completar(claveBd, reserva, respuesta.getStatusCode().value(),
+                    json(respuesta.getBody()));
+        } else {
+            claveIdempotenciaRepository.liberar(claveBd, reserva);
+        }
+        return respuesta;
+    }
+
+    // Vacío si esta solicitud se quedó con la clave; la respuesta guardada si otra ya la completó
+    private <T> Optional<ResponseEntity<T>> reservarEnBd(String claveBd, String huella, Instant ahora, Class<T> tipo) {
+        try {
+            claveIdempotenciaRepository.reservar(claveBd, huella, ahora);
+            return Optional.empty();
+        } catch (DataIntegrityViolationException e) {
+            // La usó otra instancia, o esta antes de reiniciarse
+        }
+        ClaveIdempotencia existente = claveIdempotenciaRepository.findById(claveBd)
+                .orElseThrow(ClaveIdempotenciaEnCursoException::new);
+        if (!existente.getHuella().equals(huella)) {
+            throw new ClaveIdempotenciaReutilizadaException();
+        }
+        if (existente.getCodigo() != null) {
+            return Optional.of(ResponseEntity.status(existente.getCodigo()).body(leer(existente.getCuerpo(), tipo)));
+        }
+        if (claveIdempotenciaRepository.tomarAbandonada(claveBd, ahora.minus(abandono), ahora) == 1) {
+            return Optional.empty();
+        }
+        throw new ClaveIdempotenciaEnCursoException();
+    }
+
+    private ResponseEntity<?> esperar(Entrada entrada) {
+        try {
+            return entrada.respuesta().get(espera.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ClaveIdempotenciaEnCursoException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ClaveIdempotenciaEnCursoException();
+        } catch (ExecutionException e) {
+            // El mismo error que recibió la solicitud original
+            if (e.getCause() instanceof RuntimeException error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> reproducir(ResponseEntity<?> original) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(original.getHeaders());
+        headers.set(CABECERA_REPRODUCIDA, "true");
+        return new ResponseEntity<>((T) original.getBody(), headers, original.getStatusCode());
+    }
+
+    private void contar(String operacion, String resultado) {
+        meterRegistry.counter("idempotencia.solicitudes", "operacion", operacion, "resultado", resultado).increment();
+    }
+
+    private String json(Object valor) {
+        try {
+            return objectMapper.writeValueAsString(valor);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar para la Idempotency-Key", e);
+        }
+    }
+
+    private <T> T leer(String cuerpo, Class<T> tipo) {
+        try {
+            return cuerpo == null ? null : objectMapper.readValue(cuerpo, tipo);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Respuesta guardada ilegible para la Idempotency-Key", e);
+        }
+    }
+
+    private static String sha256(String texto) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(texto.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Entrada(String huella, CompletableFuture<ResponseEntity<?>> respuesta) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.ImportacionResultadoDTO;
+
+import java.io.InputStream;
+
+public interface ImportacionMuebleService {
+
+    ImportacionResultadoDTO importarMuebles(InputStream entrada, String formato);
+}
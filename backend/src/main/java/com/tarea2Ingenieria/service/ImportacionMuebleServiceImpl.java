@@ -0,0 +1,371 @@
+package com.tarea2Ingenieria.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.dto.ErrorFilaDTO;
+import com.tarea2Ingenieria.dto.ImportacionResultadoDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.event.MueblesModificadosEvent;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TipoEventoDominio;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Importación masiva de muebles desde un arreglo JSON o un CSV, leídos en streaming.
+// Solo se mantiene en memoria el lote en curso: el consumo no depende del tamaño del archivo.
+// Cada lote se inserta con un batch JDBC en su propia transacción; si la BD rechaza el lote,
+// se reintenta fila a fila para aislar las filas malas sin perder el resto.
+@Service
+public class ImportacionMuebleServiceImpl implements ImportacionMuebleService {
+
+    private static final String INSERT_MUEBLE = "INSERT INTO muebles "
+            + "(nombre_mueble, tipo, material, precio_base, stock, tamanio, estado, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final List<String> COLUMNAS_CSV =
+            List.of("nombreMueble", "tipo", "material", "precioBase", "stock", "tamanio");
+    private static final int LARGO_MAXIMO_TEXTO = 255;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EventoOutboxService eventoOutboxService;
+    private final int tamanioLote;
+    private final int maxErrores;
+
+    public ImportacionMuebleServiceImpl(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        ObjectMapper objectMapper,
+                                        ApplicationEventPublisher eventPublisher,
+                                        EventoOutboxService eventoOutboxService,
+                                        @Value("${app.importacion.tamanio-lote:500}") int tamanioLote,
+                                        @Value("${app.importacion.max-errores:1000}") int maxErrores) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.eventoOutboxService = eventoOutboxService;
+        this.tamanioLote = tamanioLote;
+        this.maxErrores = maxErrores;
+    }
+
+    @Override
+    @Timed(value = "muebles.importacion", description = "Importación masiva de muebles")
+    public ImportacionResultadoDTO importarMuebles(InputStream entrada, String formato) {
+        Importacion importacion = new Importacion();
+        try {
+            if ("csv".equalsIgnoreCase(formato)) {
+                leerCsv(entrada, importacion);
+            } else {
+                leerJson(entrada, importacion);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        importacion.cerrarLote();
+        return importacion.resultado;
+    }
+
+    private void leerJson(InputStream entrada, Importacion importacion) throws IOException {
+        long fila = 0;
+        boolean dentroDeFila = false;
+        try (JsonParser parser = objectMapper.getFactory().createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new RuntimeException("El JSON de importación debe ser un arreglo de muebles.");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    importacion.error(fila + 1, "JSON incompleto: falta cerrar el arreglo, importación detenida");
+                    return;
+                }
+                fila++;
+                dentroDeFila = true;
+                if (token != JsonToken.START_OBJECT) {
+                    // Un número, texto o arreglo anidado es una fila inválida; se salta entero y se sigue
+                    parser.skipChildren();
+                    dentroDeFila = false;
+                    importacion.error(fila, "Se esperaba un objeto mueble y llegó " + describir(token));
+                    continue;
+                }
+                // Primero como árbol: un valor de tipo incorrecto invalida solo esta fila, no el parser
+                JsonNode nodo = parser.readValueAsTree();
+                dentroDeFila = false;
+                MuebleDTO mueble;
+                try {
+                    mueble = objectMapper.treeToValue(nodo, MuebleDTO.class);
+                } catch (JsonProcessingException e) {
+                    importacion.error(fila, "Formato inválido: " + e.getOriginalMessage());
+                    continue;
+                }
+                importacion.agregar(fila, mueble);
+            }
+        } catch (JsonProcessingException e) {
+            // JSON mal formado: no se puede seguir leyendo, pero lo ya insertado queda
+            importacion.error(dentroDeFila ? fila : fila + 1, "JSON mal formado, importación detenida: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String describir(JsonToken token) {
+        return switch (token) {
+            case START_ARRAY -> "un arreglo";
+            case VALUE_STRING -> "un texto";
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> "un número";
+            case VALUE_TRUE, VALUE_FALSE -> "un booleano";
+            case VALUE_NULL -> "null";
+            default -> token.asString() != null ? token.asString() : token.name();
+        };
+    }
+
+    private void leerCsv(InputStream entrada, Importacion importacion) throws IOException {
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        String cabecera = lector.readLine();
+        if (cabecera == null) {
+            return;
+        }
+        Map<String, Integer> columnas = indexarCabecera(separarCsv(cabecera.replace("\uFEFF", "")));
+
+        String linea;
+        long fila = 1;
+        while ((linea = lector.readLine()) != null) {
+            fila++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            List<String> valores = separarCsv(linea);
+            MuebleDTO mueble = new MuebleDTO();
+            mueble.setNombreMueble(valor(valores, columnas, "nombreMueble"));
+            mueble.setTipo(valor(valores, columnas, "tipo"));
+            mueble.setMaterial(valor(valores, columnas, "material"));
+            mueble.setTamanio(valor(valores, columnas, "tamanio"));
+            try {
+                String precio = valor(valores, columnas, "precioBase");
+                String stock = valor(valores, columnas, "stock");
+                mueble.setPrecioBase(precio == null ? null : Double.valueOf(precio));
+                mueble.setStock(stock == null ? null : Integer.valueOf(stock));
+            } catch (NumberFormatException e) {
+                importacion.error(fila, "Número inválido: " + e.getMessage());
+                continue;
+            }
+            importacion.agregar(fila, mueble);
+        }
+    }
+
+    private static Map<String, Integer> indexarCabecera(List<String> cabecera) {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < cabecera.size(); i++) {
+            columnas.put(cabecera.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        for (String requerida : COLUMNAS_CSV) {
+            if (!columnas.containsKey(requerida.toLowerCase(Locale.ROOT))) {
+                throw new RuntimeException("Falta la columna '" + requerida + "' en la cabecera del CSV. Se esperan: "
+                        + String.join(",", COLUMNAS_CSV));
+            }
+        }
+        return columnas;
+    }
+
+    private static String valor(List<String> valores, Map<String, Integer> columnas, String columna) {
+        int indice = columnas.get(columna.toLowerCase(Locale.ROOT));
+        if (indice >= valores.size()) {
+            return null;
+        }
+        String valor = valores.get(indice).trim();
+        return valor.isEmpty() ? null : valor;
+    }
+
+    // Separa una línea CSV respetando campos entre comillas ("a, b") y comillas escapadas ("")
+    private static List<String> separarCsv(String linea) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder campo = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == ',') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        campos.add(campo.toString());
+        return campos;
+    }
+
+    private static String validar(MuebleDTO mueble) {
+        for (String[] texto : new String[][]{
+                {"nombreMueble", mueble.getNombreMueble()},
+                {"tipo", mueble.getTipo()},
+                {"material", mueble.getMaterial()}}) {
+            if (texto[1] == null || texto[1].isBlank()) {
+                return texto[0] + " es obligatorio";
+            }
+            if (texto[1].length() > LARGO_MAXIMO_TEXTO) {
+                return texto[0] + " supera los " + LARGO_MAXIMO_TEXTO + " caracteres";
+            }
+        }
+        if (mueble.getPrecioBase() == null || mueble.getPrecioBase() <= 0) {
+            return "precioBase debe ser mayor que 0";
+        }
+        if (mueble.getStock() == null || mueble.getStock() < 0) {
+            return "stock debe ser 0 o mayor";
+        }
+        if (mueble.getTamanio() == null) {
+            return "tamanio es obligatorio";
+        }
+        try {
+            TamanioMueble.valueOf(mueble.getTamanio().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return "tamanio inválido: " + mueble.getTamanio();
+        }
+        return null;
+    }
+
+    private List<Long> insertar(List<FilaMueble> filas) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Long>>) conexion -> {
+            try (PreparedStatement sentencia = conexion.prepareStatement(INSERT_MUEBLE, Statement.RETURN_GENERATED_KEYS)) {
+                for (FilaMueble fila : filas) {
+                    MuebleDTO mueble = fila.mueble();
+                    sentencia.setString(1, mueble.getNombreMueble().trim());
+                    sentencia.setString(2, mueble.getTipo().trim());
+                    sentencia.setString(3, mueble.getMaterial().trim());
+                    sentencia.setDouble(4, mueble.getPrecioBase());
+                    sentencia.setInt(5, mueble.getStock());
+                    sentencia.setString(6, mueble.getTamanio().toUpperCase(Locale.ROOT));
+                    sentencia.setString(7, EstadoMueble.ACTIVO.name());
+                    sentencia.addBatch();
+                }
+                sentencia.executeBatch();
+
+                List<Long> ids = new ArrayList<>(filas.size());
+                try (ResultSet claves = sentencia.getGeneratedKeys()) {
+                    while (claves.next()) {
+                        ids.add(claves.getLong(1));
+                    }
+                }
+                return ids;
+            }
+        });
+    }
+
+    // Inserta y deja un MUEBLE_CREADO por fila en el outbox, en la misma transacción del lote
+    private List<Long> insertarYRegistrar(List<FilaMueble> filas) {
+        List<Long> ids = insertar(filas);
+        for (int i = 0; i < ids.size(); i++) {
+            MuebleDTO fila = filas.get(i).mueble();
+            MuebleDTO creado = new MuebleDTO();
+            creado.setIdMueble(ids.get(i));
+            creado.setNombreMueble(fila.getNombreMueble().trim());
+            creado.setTipo(fila.getTipo().trim());
+            creado.setPrecioBase(fila.getPrecioBase());
+            creado.setStock(fila.getStock());
+            creado.setEstado(EstadoMueble.ACTIVO.name());
+            creado.setTamanio(fila.getTamanio().toUpperCase(Locale.ROOT));
+            creado.setMaterial(fila.getMaterial().trim());
+            creado.setVersion(0L);
+            eventoOutboxService.registrar(TipoEventoDominio.MUEBLE_CREADO, creado.getIdMueble(), creado);
+        }
+        return ids;
+    }
+
+    private record FilaMueble(long numero, MuebleDTO mueble) {
+    }
+
+    // Estado de una importación en curso: el lote pendiente y el resultado acumulado
+    private final class Importacion {
+
+        private final ImportacionResultadoDTO resultado = new ImportacionResultadoDTO();
+        private final List<FilaMueble> lote = new ArrayList<>(tamanioLote);
+
+        void agregar(long fila, MuebleDTO mueble) {
+            resultado.setFilasLeidas(resultado.getFilasLeidas() + 1);
+            String error = validar(mueble);
+            if (error != null) {
+                registrarError(fila, error);
+                return;
+            }
+            lote.add(new FilaMueble(fila, mueble));
+            if (lote.size() == tamanioLote) {
+                cerrarLote();
+            }
+        }
+
+        // Fila que ni siquiera se pudo leer como mueble
+        void error(long fila, String mensaje) {
+            resultado.setFilasLeidas(resultado.getFilasLeidas() + 1);
+            registrarError(fila, mensaje);
+        }
+
+        void cerrarLote() {
+            if (lote.isEmpty()) {
+                return;
+            }
+            List<Long> ids = new ArrayList<>(lote.size());
+            try {
+                ids.addAll(transactionTemplate.execute(estado -> insertarYRegistrar(lote)));
+            } catch (DataAccessException e) {
+                for (FilaMueble fila : lote) {
+                    try {
+                        ids.addAll(transactionTemplate.execute(estado -> insertarYRegistrar(List.of(fila))));
+                    } catch (DataAccessException rechazo) {
+                        registrarError(fila.numero(), "Rechazado por la base de datos: "
+                                + rechazo.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+            lote.clear();
+            resultado.setInsertados(resultado.getInsertados() + ids.size());
+            if (!ids.isEmpty()) {
+                // Sin transacción abierta: invalida caché y snapshot del catálogo en el acto
+                eventPublisher.publishEvent(new MueblesModificadosEvent(Set.copyOf(ids)));
+            }
+        }
+
+        private void registrarError(long fila, String mensaje) {
+            resultado.setConError(resultado.getConError() + 1);
+            if (resultado.getErrores().size() < maxErrores) {
+                resultado.getErrores().add(new ErrorFilaDTO(fila, mensaje));
+            } else {
+                resultado.setErroresOmitidos(resultado.getErroresOmitidos() + 1);
+            }
+        }
+    }
+}
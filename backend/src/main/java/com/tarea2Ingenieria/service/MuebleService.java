@@ -1,16 +1,26 @@
 package com.tarea2Ingenieria.service;
 
+import com.tarea2Ingenieria.dto.AjusteMasivoDTO;
+import com.tarea2Ingenieria.dto.AjusteMasivoResultadoDTO;
 import com.tarea2Ingenieria.dto.MuebleDTO;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface MuebleService {
 
     MuebleDTO crearMueble(MuebleDTO muebleDTO);
     List<MuebleDTO> getMueblesActivos();
     MuebleDTO getMuebleById(Long id);
+    Map<Long, MuebleDTO> getMueblesByIds(Collection<Long> ids);
     MuebleDTO actualizarMueble(Long id, MuebleDTO muebleDTO);
     void desactivarMueble(Long id);
     void activarMueble(Long id);
     MuebleDTO actualizarParcialMueble(Long id, MuebleDTO muebleDTO);
+    AjusteMasivoResultadoDTO ajustarMasivo(AjusteMasivoDTO ajuste, boolean simular);
+    Page<MuebleDTO> buscarMuebles(String tipo, String material, String tamanio,
+                                  Double precioMin, Double precioMax, Pageable pageable);
 }
@@ -1,31 +1,76 @@
 package com.tarea2Ingenieria.service;
 
+import com.tarea2Ingenieria.CacheConfig;
+import com.tarea2Ingenieria.dto.AjusteMasivoDTO;
+import com.tarea2Ingenieria.dto.AjusteMasivoResultadoDTO;
+import com.tarea2Ingenieria.dto.CambioStockDTO;
 import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.event.MueblesModificadosEvent;
 import com.tarea2Ingenieria.model.Mueble;
 import com.tarea2Ingenieria.model.enums.EstadoMueble;
 import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import com.tarea2Ingenieria.model.enums.TipoEventoDominio;
 import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.repository.MuebleSpecifications;
+import com.tarea2Ingenieria.sql.ContadorSentencias;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class MuebleServiceImpl implements MuebleService {
 
+    private static final String MUTACIONES = "muebles.mutaciones";
+    // Tope de ids por UPDATE ... IN (...) para no armar sentencias gigantes
+    private static final int IDS_POR_UPDATE = 1000;
+    // UPDATE + INSERT de eventos del outbox
+    private static final int SENTENCIAS_POR_BLOQUE = 2;
+    private static final Set<String> ORDENES_BUSQUEDA = Set.of("precioBase", "nombreMueble", "stock", "idMueble");
+
     private final MuebleRepository muebleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EventoOutboxService eventoOutboxService;
+    private final CargadorAgrupado<Long, Mueble> cargadorMuebles;
+    private final CacheManager cacheManager;
 
+    // Las mutaciones son transaccionales para que el evento del outbox se escriba junto con el cambio
     @Override
+    @Transactional
+    @Timed(value = MUTACIONES, extraTags = {"operacion", "crear"})
     public MuebleDTO crearMueble(MuebleDTO muebleDTO) {
         Mueble mueble = toEntity(muebleDTO);
         mueble.setEstado(EstadoMueble.ACTIVO);
         Mueble muebleGuardado = muebleRepository.save(mueble);
-        return toDTO(muebleGuardado);
+        eventPublisher.publishEvent(new MueblesModificadosEvent(Set.of(muebleGuardado.getIdMueble())));
+        MuebleDTO respuesta = toDTO(muebleGuardado);
+        eventoOutboxService.registrar(TipoEventoDominio.MUEBLE_CREADO, respuesta.getIdMueble(), respuesta);
+        return respuesta;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.MUEBLES_ACTIVOS, sync = true)
     public List<MuebleDTO> getMueblesActivos() {
         return muebleRepository.findByEstado(EstadoMueble.ACTIVO)
                 .stream()
@@ -34,25 +79,89 @@ public class MuebleServiceImpl implements MuebleService {
     }
 
     @Override
+    // La caché ya carga una vez por id; el cargador junta en un findAllById los fallos de ids distintos
+    @Cacheable(cacheNames = CacheConfig.MUEBLES, key = "#id", sync = true)
     public MuebleDTO getMuebleById(Long id) {
-        Mueble mueble = muebleRepository.findById(id)
+        Mueble mueble = cargadorMuebles.cargar(id)
                 .orElseThrow(() -> new RuntimeException("Mueble no encontrado"));
         return toDTO(mueble);
     }
 
+    // Varios muebles de una vez (previsualización de un carrito): los que están en la caché salen de ahí y el
+    // resto se lee con un solo findAllById y queda cacheado como en getMuebleById. Los ids inexistentes no
+    // aparecen en el resultado. Con N lecturas sueltas serían N consultas seguidas: el cargador no las junta
+    // porque llegan de a una desde el mismo hilo.
+    @Override
+    public Map<Long, MuebleDTO> getMueblesByIds(Collection<Long> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.MUEBLES);
+        Map<Long, MuebleDTO> muebles = new HashMap<>();
+        List<Long> faltantes = new ArrayList<>();
+        for (Long id : ids) {
+            MuebleDTO cacheado = cache == null ? null : cache.get(id, MuebleDTO.class);
+            if (cacheado != null) {
+                muebles.put(id, cacheado);
+            } else {
+                faltantes.add(id);
+            }
+        }
+        if (faltantes.isEmpty()) {
+            return muebles;
+        }
+        for (Mueble mueble : muebleRepository.findAllById(faltantes)) {
+            MuebleDTO dto = toDTO(mueble);
+            muebles.put(mueble.getIdMueble(), dto);
+            if (cache != null) {
+                // putIfAbsent: no pisa lo que getMuebleById haya cargado mientras tanto
+                cache.putIfAbsent(mueble.getIdMueble(), dto);
+            }
+        }
+        return muebles;
+    }
+
+    // Búsqueda paginada en la BD sobre el catálogo activo; los filtros nulos no se aplican
     @Override
+    @Transactional(readOnly = true)
+    public Page<MuebleDTO> buscarMuebles(String tipo, String material, String tamanio,
+                                         Double precioMin, Double precioMax, Pageable pageable) {
+        for (Sort.Order orden : pageable.getSort()) {
+            if (!ORDENES_BUSQUEDA.contains(orden.getProperty())) {
+                throw new ParametroInvalidoException("No se puede ordenar por: " + orden.getProperty());
+            }
+        }
+        // Desempate por id: las páginas no se solapan aunque haya precios repetidos
+        Sort orden = pageable.getSort().getOrderFor("idMueble") == null
+                ? pageable.getSort().and(Sort.by("idMueble"))
+                : pageable.getSort();
+
+        Specification<Mueble> filtro = Specification.allOf(
+                MuebleSpecifications.conEstado(EstadoMueble.ACTIVO),
+                MuebleSpecifications.conTipo(tipo),
+                MuebleSpecifications.conMaterial(material),
+                MuebleSpecifications.conTamanio(tamanioMueble(tamanio)),
+                MuebleSpecifications.precioDesde(precioMin),
+                MuebleSpecifications.precioHasta(precioMax));
+
+        return muebleRepository.findAll(filtro, PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), orden))
+                .map(this::toDTO);
+    }
+
+    @Override
+    @Transactional
+    @Timed(value = MUTACIONES, extraTags = {"operacion", "actualizar"})
     public MuebleDTO actualizarMueble(Long id, MuebleDTO muebleDTO) {
-        Mueble muebleExistente = muebleRepository.findById(id)
+        Mueble muebleExistente = muebleRepository.findByIdParaActualizar(id)
                 .orElseThrow(() -> new RuntimeException("Mueble no encontrado"));
 
         if (muebleExistente.getEstado() == EstadoMueble.INACTIVO) {
             throw new RuntimeException("No se puede modificar un mueble inactivo.");
         }
+        verificarVersion(muebleExistente, muebleDTO);
+        Integer stockAnterior = muebleExistente.getStock();
 
         muebleExistente.setNombreMueble(muebleDTO.getNombreMueble());
         muebleExistente.setTipo(muebleDTO.getTipo());
         muebleExistente.setPrecioBase(muebleDTO.getPrecioBase());
-        muebleExistente.setStock(muebleDTO.getStock());
+        muebleExistente.setStock(stockSinPisarReservado(muebleExistente, muebleDTO.getStock()));
         muebleExistente.setMaterial(muebleDTO.getMaterial());
 
         if (muebleDTO.getTamanio() != null) {
@@ -61,19 +170,30 @@ public class MuebleServiceImpl implements MuebleService {
 
         }
 
-        Mueble muebleActualizado = muebleRepository.save(muebleExistente);
-        return toDTO(muebleActualizado);
+        // flush para que la versión de la respuesta (el ETag) ya sea la nueva
+        Mueble muebleActualizado = muebleRepository.saveAndFlush(muebleExistente);
+        eventPublisher.publishEvent(new MueblesModificadosEvent(Set.of(id)));
+        return registrarActualizacion(muebleActualizado, stockAnterior);
     }
 
     @Override
+    @Transactional
+    @Timed(value = MUTACIONES, extraTags = {"operacion", "desactivar"})
     public void desactivarMueble(Long id) {
         Mueble mueble = muebleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Mueble no encontrado"));
+        boolean estabaActivo = mueble.getEstado() == EstadoMueble.ACTIVO;
         mueble.setEstado(EstadoMueble.INACTIVO);
         muebleRepository.save(mueble);
+        eventPublisher.publishEvent(new MueblesModificadosEvent(Set.of(id)));
+        if (estabaActivo) {
+            eventoOutboxService.registrar(TipoEventoDominio.MUEBLE_DESACTIVADO, id, toDTO(mueble));
+        }
     }
 
     @Override
+    @Transactional
+    @Timed(value = MUTACIONES, extraTags = {"operacion", "activar"})
     public void activarMueble(Long id) {
         Mueble mueble = muebleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Mueble no encontrado"));
@@ -84,16 +204,22 @@ public class MuebleServiceImpl implements MuebleService {
 
         mueble.setEstado(EstadoMueble.ACTIVO);
         muebleRepository.save(mueble);
+        eventPublisher.publishEvent(new MueblesModificadosEvent(Set.of(id)));
+        eventoOutboxService.registrar(TipoEventoDominio.MUEBLE_ACTIVADO, id, toDTO(mueble));
     }
     @Override
+    @Transactional
+    @Timed(value = MUTACIONES, extraTags = {"operacion", "actualizar_parcial"})
     public MuebleDTO actualizarParcialMueble(Long id, MuebleDTO muebleDTO) {
 
-        Mueble muebleExistente = muebleRepository.findById(id)
+        Mueble muebleExistente = muebleRepository.findByIdParaActualizar(id)
                 .orElseThrow(() -> new RuntimeException("Mueble no encontrado"));
 
         if (muebleExistente.getEstado() == EstadoMueble.INACTIVO) {
             throw new RuntimeException("No se puede modificar un mueble inactivo.");
         }
+        verificarVersion(muebleExistente, muebleDTO);
+        Integer stockAnterior = muebleExistente.getStock();
 
         if (muebleDTO.getNombreMueble() != null) {
             muebleExistente.setNombreMueble(muebleDTO.getNombreMueble());
@@ -105,7 +231,7 @@ public class MuebleServiceImpl implements MuebleService {
             muebleExistente.setPrecioBase(muebleDTO.getPrecioBase());
         }
         if (muebleDTO.getStock() != null) {
-            muebleExistente.setStock(muebleDTO.getStock());
+            muebleExistente.setStock(stockSinPisarReservado(muebleExistente, muebleDTO.getStock()));
         }
         if (muebleDTO.getMaterial() != null) {
             muebleExistente.setMaterial(muebleDTO.getMaterial());
@@ -114,10 +240,97 @@ public class MuebleServiceImpl implements MuebleService {
             muebleExistente.setTamanio(TamanioMueble.valueOf(muebleDTO.getTamanio().toUpperCase()));
         }
 
-        Mueble muebleActualizado = muebleRepository.save(muebleExistente);
-        return toDTO(muebleActualizado);
+        // flush para que la versión de la respuesta (el ETag) ya sea la nueva
+        Mueble muebleActualizado = muebleRepository.saveAndFlush(muebleExistente);
+        eventPublisher.publishEvent(new MueblesModificadosEvent(Set.of(id)));
+        return registrarActualizacion(muebleActualizado, stockAnterior);
     }
 
+    // Ajuste masivo sin cargar entidades: una consulta de ids y un UPDATE por cada 1000 muebles (más un
+    // INSERT ... SELECT de eventos del outbox por bloque): O(n/1000) sentencias, 101 para 50.000 muebles.
+    // Los ids se resuelven primero para que el evento invalide exactamente las filas actualizadas.
+    // El stock nunca baja de lo reservado por cotizaciones pendientes: un deltaStock mayor se recorta ahí.
+    @Override
+    @Transactional
+    @Timed(value = MUTACIONES, extraTags = {"operacion", "ajuste_masivo"})
+    public AjusteMasivoResultadoDTO ajustarMasivo(AjusteMasivoDTO ajuste, boolean simular) {
+        if (ajuste.getPorcentajePrecio() == null && ajuste.getDeltaStock() == null) {
+            throw new RuntimeException("Debe indicar porcentajePrecio y/o deltaStock.");
+        }
+        if (ajuste.getPorcentajePrecio() != null && ajuste.getPorcentajePrecio() <= -100) {
+            throw new RuntimeException("porcentajePrecio debe ser mayor que -100.");
+        }
+        boolean sinFiltros = (ajuste.getIds() == null || ajuste.getIds().isEmpty())
+                && ajuste.getTipo() == null && ajuste.getMaterial() == null && ajuste.getTamanio() == null;
+        if (sinFiltros) {
+            throw new RuntimeException("Debe indicar al menos un filtro (ids, tipo, material o tamanio).");
+        }
+
+        Specification<Mueble> filtro = Specification.allOf(
+                MuebleSpecifications.conIds(ajuste.getIds()),
+                MuebleSpecifications.conTipo(ajuste.getTipo()),
+                MuebleSpecifications.conMaterial(ajuste.getMaterial()),
+                MuebleSpecifications.conTamanio(tamanioMueble(ajuste.getTamanio())));
+        List<Long> ids = muebleRepository.buscarIds(filtro);
+
+        if (simular || ids.isEmpty()) {
+            return new AjusteMasivoResultadoDTO(ids.size(), simular);
+        }
+        // Si se ajustó el stock el evento es de stock (lleva también el precio); si no, MUEBLE_ACTUALIZADO
+        TipoEventoDominio tipoEvento = ajuste.getDeltaStock() != null
+                ? TipoEventoDominio.STOCK_MUEBLE_CAMBIADO : TipoEventoDominio.MUEBLE_ACTUALIZADO;
+        int bloques = (ids.size() + IDS_POR_UPDATE - 1) / IDS_POR_UPDATE;
+        ContadorSentencias.ampliarPresupuesto(SENTENCIAS_POR_BLOQUE * bloques);
+        int afectados = 0;
+        for (int desde = 0; desde < ids.size(); desde += IDS_POR_UPDATE) {
+            List<Long> bloque = ids.subList(desde, Math.min(desde + IDS_POR_UPDATE, ids.size()));
+            afectados += muebleRepository.ajustarPrecioYStock(bloque, ajuste.getPorcentajePrecio(), ajuste.getDeltaStock());
+            eventoOutboxService.registrarEstadoActual(tipoEvento, bloque);
+        }
+        eventPublisher.publishEvent(new MueblesModificadosEvent(Set.copyOf(ids)));
+        return new AjusteMasivoResultadoDTO(afectados, false);
+    }
+
+    // Filtro de tamaño recibido del cliente (búsqueda y ajuste masivo): un valor desconocido es un 400, no un 500
+    private static TamanioMueble tamanioMueble(String tamanio) {
+        if (tamanio == null || tamanio.isBlank()) {
+            return null;
+        }
+        try {
+            return TamanioMueble.valueOf(tamanio.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ParametroInvalidoException("Tamaño de mueble inválido: " + tamanio
+                    + ". Valores posibles: " + Arrays.toString(TamanioMueble.values()));
+        }
+    }
+
+    // MUEBLE_ACTUALIZADO siempre (precio, nombre, etc.) y además STOCK_MUEBLE_CAMBIADO si cambió el stock;
+    // van en el mismo INSERT del outbox
+    private MuebleDTO registrarActualizacion(Mueble mueble, Integer stockAnterior) {
+        MuebleDTO respuesta = toDTO(mueble);
+        eventoOutboxService.registrar(TipoEventoDominio.MUEBLE_ACTUALIZADO, mueble.getIdMueble(), respuesta);
+        if (!Objects.equals(mueble.getStock(), stockAnterior)) {
+            int diferencia = mueble.getStock() - (stockAnterior != null ? stockAnterior : 0);
+            eventoOutboxService.registrar(TipoEventoDominio.STOCK_MUEBLE_CAMBIADO, mueble.getIdMueble(),
+                    new CambioStockDTO(mueble.getIdMueble(), mueble.getStock(), diferencia, null));
+        }
+        return respuesta;
+    }
+
+    // El stock editado a mano no puede dejar sin cubrir lo reservado (ajustarMasivo, en cambio, lo recorta ahí)
+    private static Integer stockSinPisarReservado(Mueble mueble, Integer stock) {
+        if (stock != null && mueble.getReservado() != null && stock < mueble.getReservado()) {
+            throw new StockMenorQueReservadoException(stock, mueble.getReservado());
+        }
+        return stock;
+    }
+
+    // Si el cliente envía la versión que leyó (If-Match), rechazamos la edición cuando ya cambió
+    private void verificarVersion(Mueble mueble, MuebleDTO muebleDTO) {
+        if (muebleDTO.getVersion() != null && !muebleDTO.getVersion().equals(mueble.getVersion())) {
+            throw new ObjectOptimisticLockingFailureException(Mueble.class, mueble.getIdMueble());
+        }
+    }
 
     private MuebleDTO toDTO(Mueble mueble) {
         MuebleDTO dto = new MuebleDTO();
@@ -127,6 +340,7 @@ public class MuebleServiceImpl implements MuebleService {
         dto.setPrecioBase(mueble.getPrecioBase());
         dto.setStock(mueble.getStock());
         dto.setMaterial(mueble.getMaterial());
+        dto.setVersion(mueble.getVersion());
 
         dto.setEstado(mueble.getEstado().name());
         dto.setTamanio(mueble.getTamanio().name());
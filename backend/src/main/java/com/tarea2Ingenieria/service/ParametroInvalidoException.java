@@ -0,0 +1,9 @@
+package com.tarea2Ingenieria.service;
+
+// Parámetro de consulta con un valor que no se puede interpretar (se responde 400, no 500)
+public class ParametroInvalidoException extends RuntimeException {
+
+    public ParametroInvalidoException(String mensaje) {
+        super(mensaje);
+    }
+}
@@ -0,0 +1,21 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.DisponibilidadStockDTO;
+import com.tarea2Ingenieria.model.Cotizacion;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ReservaStockService {
+
+    // Tope de ids por consulta de disponibilidad (un IN acotado); también limita los muebles distintos de un carrito
+    int MAXIMO_IDS_DISPONIBILIDAD = 100;
+
+    void reservar(Cotizacion cotizacion);
+    Map<Long, Integer> consumir(Long idCotizacion);
+    Map<Long, Map<Long, Integer>> bloquearReservas(Collection<Long> idsCotizacion);
+    void eliminarReservas(Collection<Long> idsCotizacion);
+    int liberarVencidas();
+    List<DisponibilidadStockDTO> getDisponibilidad(Collection<Long> idsMuebles);
+}
@@ -0,0 +1,173 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.DisponibilidadStockDTO;
+import com.tarea2Ingenieria.model.Cotizacion;
+import com.tarea2Ingenieria.model.DetalleCotizacion;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.ReservaStock;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.repository.ReservaStockRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Reservas de stock de las cotizaciones pendientes. crearCotizacion reserva, confirmarVenta consume lo que
+// siga vigente y un barrido programado devuelve al stock libre las reservas vencidas, en lotes.
+// Cada reserva es una fila de reservas_stock por detalle; el total por mueble se lleva en muebles.reservado
+// con UPDATE condicionales, así la disponibilidad se lee con un SELECT simple y sin bloquear la fila.
+@Service
+public class ReservaStockServiceImpl implements ReservaStockService {
+
+    private final MuebleRepository muebleRepository;
+    private final ReservaStockRepository reservaStockRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration duracion;
+    private final int tamanioLote;
+
+    public ReservaStockServiceImpl(MuebleRepository muebleRepository,
+                                   ReservaStockRepository reservaStockRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${app.reservas.duracion:15m}") Duration duracion,
+                                   @Value("${app.reservas.tamanio-lote:500}") int tamanioLote) {
+        this.muebleRepository = muebleRepository;
+        this.reservaStockRepository = reservaStockRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.duracion = duracion;
+        this.tamanioLote = tamanioLote;
+    }
+
+    // Dentro de la transacción de crearCotizacion: si no alcanza el stock se revierte la cotización entera
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reservar(Cotizacion cotizacion) {
+        Map<Long, Integer> cantidadPorMueble = new TreeMap<>();
+        Map<Long, Mueble> muebles = new TreeMap<>();
+        for (DetalleCotizacion detalle : cotizacion.getDetalles()) {
+            Mueble mueble = detalle.getMueble();
+            cantidadPorMueble.merge(mueble.getIdMueble(), detalle.getCantidad(), Integer::sum);
+            muebles.put(mueble.getIdMueble(), mueble);
+        }
+
+        if (muebleRepository.reservarStock(cantidadPorMueble) < cantidadPorMueble.size()) {
+            // Otra cotización tomó el stock entre la validación y el UPDATE: se informa el primero que no alcanza
+            Long sinStock = muebleRepository.findDisponibilidad(cantidadPorMueble.keySet()).stream()
+                    .filter(disponibilidad -> disponibilidad.getDisponible() < cantidadPorMueble.get(disponibilidad.getIdMueble()))
+                    .map(DisponibilidadStockDTO::getIdMueble)
+                    .findFirst()
+                    .orElse(cantidadPorMueble.keySet().iterator().next());
+            throw new RuntimeException("Stock insuficiente para: " + muebles.get(sinStock).getNombreMueble());
+        }
+
+        Instant expiraEn = Instant.now().plus(duracion);
+        List<ReservaStock> reservas = new ArrayList<>(cotizacion.getDetalles().size());
+        for (DetalleCotizacion detalle : cotizacion.getDetalles()) {
+            ReservaStock reserva = new ReservaStock();
+            reserva.setDetalle(detalle);
+            reserva.setIdCotizacion(cotizacion.getIdCotizacion());
+            reserva.setIdMueble(detalle.getMueble().getIdMueble());
+            reserva.setCantidad(detalle.getCantidad());
+            reserva.setExpiraEn(expiraEn);
+            reservas.add(reserva);
+        }
+        reservaStockRepository.saveAll(reservas);
+    }
+
+    // Dentro de la transacción de confirmarVenta. Devuelve lo que seguía reservado por mueble (vacío si
+    // la reserva ya venció); quien llama lo descuenta de muebles.reservado junto con el stock.
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Integer> consumir(Long idCotizacion) {
+        List<Long> ids = reservaStockRepository.findIdsByCotizacion(idCotizacion);
+        return ids.isEmpty() ? Map.of() : tomar(ids);
+    }
+
+    // Para los lotes de la cola de confirmación, que deciden qué cotizaciones aceptan antes de consumir:
+    // bloquea las reservas vigentes y devuelve lo reservado por cotización y mueble, sin borrarlo todavía.
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Map<Long, Map<Long, Integer>> bloquearReservas(Collection<Long> idsCotizacion) {
+        List<Long> ids = reservaStockRepository.findIdsByCotizaciones(idsCotizacion);
+        Map<Long, Map<Long, Integer>> porCotizacion = new HashMap<>();
+        if (ids.isEmpty()) {
+            return porCotizacion;
+        }
+        for (ReservaStock reserva : reservaStockRepository.bloquear(ids)) {
+            porCotizacion.computeIfAbsent(reserva.getIdCotizacion(), id -> new TreeMap<>())
+                    .merge(reserva.getIdMueble(), reserva.getCantidad(), Integer::sum);
+        }
+        return porCotizacion;
+    }
+
+    // Borra las reservas bloqueadas con bloquearReservas; quien llama ya las descontó de muebles.reservado
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void eliminarReservas(Collection<Long> idsCotizacion) {
+        reservaStockRepository.borrarPorCotizaciones(idsCotizacion);
+    }
+
+    // Cada lote es una transacción corta: lee candidatos, bloquea por id, borra y resta de muebles.reservado.
+    // Si una confirmación consume la reserva a la vez, solo uno de los dos la ve al bloquear.
+    @Override
+    @Scheduled(fixedDelayString = "${app.reservas.barrido-ms:30000}", initialDelayString = "${app.reservas.barrido-ms:30000}")
+    @Timed(value = "reservas.barrido", description = "Liberación de reservas de stock vencidas")
+    public int liberarVencidas() {
+        int liberadas = 0;
+        while (true) {
+            int[] lote = transactionTemplate.execute(estado -> {
+                List<Long> ids = reservaStockRepository.findIdsVencidas(Instant.now(), Limit.of(tamanioLote));
+                if (ids.isEmpty()) {
+                    return new int[]{0, 0};
+                }
+                Map<Long, Integer> porMueble = tomar(ids);
+                muebleRepository.liberarReservas(porMueble);
+                return new int[]{ids.size(), porMueble.values().stream().mapToInt(Integer::intValue).sum()};
+            });
+            liberadas += lote[1];
+            if (lote[0] < tamanioLote) {
+                return liberadas;
+            }
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<DisponibilidadStockDTO> getDisponibilidad(Collection<Long> idsMuebles) {
+        if (idsMuebles.isEmpty()) {
+            return List.of();
+        }
+        if (idsMuebles.size() > MAXIMO_IDS_DISPONIBILIDAD) {
+            throw new ParametroInvalidoException("Demasiados muebles: como máximo " + MAXIMO_IDS_DISPONIBILIDAD + " por consulta");
+        }
+        return muebleRepository.findDisponibilidad(idsMuebles);
+    }
+
+    // Bloquea las reservas que sigan existiendo, las borra y devuelve la cantidad por mueble (en orden de id,
+    // el mismo en que quien llama actualiza muebles)
+    private Map<Long, Integer> tomar(List<Long> ids) {
+        List<ReservaStock> reservas = reservaStockRepository.bloquear(ids);
+        Map<Long, Integer> porMueble = new TreeMap<>();
+        if (reservas.isEmpty()) {
+            return porMueble;
+        }
+        for (ReservaStock reserva : reservas) {
+            porMueble.merge(reserva.getIdMueble(), reserva.getCantidad(), Integer::sum);
+        }
+        reservaStockRepository.deleteAllByIdInBatch(reservas.stream().map(ReservaStock::getIdReserva).toList());
+        return porMueble;
+    }
+}
@@ -0,0 +1,22 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.EventoDominioDTO;
+import com.tarea2Ingenieria.event.EventosDominioPublicadosEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Entrega cada lote a los listeners de la propia aplicación como EventosDominioPublicadosEvent
+@Component
+@RequiredArgsConstructor
+public class SinkEventosAplicacion implements SinkEventosDominio {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public void publicar(List<EventoDominioDTO> eventos) {
+        eventPublisher.publishEvent(new EventosDominioPublicadosEvent(eventos));
+    }
+}
@@ -0,0 +1,52 @@
+package com.tarea2Ingenieria.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.dto.EventoDominioDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Agrega cada lote a un archivo NDJSON (un evento por línea), para integraciones que leen archivos.
+// Solo se activa con app.outbox.archivo=/ruta/eventos.ndjson
+@Component
+@ConditionalOnProperty("app.outbox.archivo")
+public class SinkEventosArchivo implements SinkEventosDominio {
+
+    private final ObjectMapper objectMapper;
+    private final Path archivo;
+    private final ReentrantLock escritura = new ReentrantLock();
+
+    public SinkEventosArchivo(ObjectMapper objectMapper, @Value("${app.outbox.archivo}") Path archivo) {
+        this.objectMapper = objectMapper;
+        this.archivo = archivo;
+    }
+
+    @Override
+    public void publicar(List<EventoDominioDTO> eventos) {
+        escritura.lock();
+        try (Writer writer = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.WRITE)) {
+            for (EventoDominioDTO evento : eventos) {
+                writer.write(objectMapper.writeValueAsString(evento));
+                writer.write('\n');
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar un evento del outbox", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("No se pudo escribir en " + archivo, e);
+        } finally {
+            escritura.unlock();
+        }
+    }
+}
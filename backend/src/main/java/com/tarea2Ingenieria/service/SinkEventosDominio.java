@@ -0,0 +1,13 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.EventoDominioDTO;
+
+import java.util.List;
+
+// Destino de los eventos que publica el relay del outbox. Cada bean que implemente esta interfaz recibe
+// todos los lotes, en orden de posición. Se llama dentro de la transacción del relay: si lanza una excepción
+// el lote no queda publicado y se reintenta (entrega al menos una vez: hay que tolerar repetidos por idEvento).
+public interface SinkEventosDominio {
+
+    void publicar(List<EventoDominioDTO> eventos);
+}
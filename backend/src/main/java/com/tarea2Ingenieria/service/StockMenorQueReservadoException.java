@@ -0,0 +1,9 @@
+package com.tarea2Ingenieria.service;
+
+public class StockMenorQueReservadoException extends RuntimeException {
+
+    public StockMenorQueReservadoException(int stock, int reservado) {
+        super("El stock (" + stock + ") no puede quedar por debajo de las " + reservado
+                + " unidades reservadas por cotizaciones pendientes.");
+    }
+}
@@ -0,0 +1,11 @@
+package com.tarea2Ingenieria.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public interface TransmisionMueblesService {
+
+    SseEmitter suscribir(String ultimoIdEvento);
+    void transmitirCambios();
+    void enviarLatidos();
+    int getSuscriptores();
+}
@@ -0,0 +1,324 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.CambioMuebleDTO;
+import com.tarea2Ingenieria.dto.EventoDominioDTO;
+import com.tarea2Ingenieria.model.enums.TipoEventoDominio;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+// Stream SSE de cambios de stock, precio y estado (GET /api/muebles/stream), para que el catálogo abierto en el
+// navegador no tenga que volver a pedir /api/muebles. Una sola fuente por instancia: una tarea programada sigue
+// el feed del outbox por posición, lee en una consulta el estado actual de los muebles tocados y reparte el
+// lote a todos los suscriptores. Con mil pestañas abiertas la BD sigue viendo una lectura cada intervalo.
+//  - El id de cada evento SSE es la posición del outbox. Al reconectar, el navegador manda Last-Event-ID y recibe
+//    lo que se perdió desde el historial en memoria; si ya no está ahí (o la instancia se reinició) recibe
+//    "resincronizar" y vuelve a pedir /api/muebles.
+//  - Cada suscriptor junta sus cambios pendientes por mueble (el último estado pisa al anterior) y los envía desde
+//    su propio hilo virtual: un cliente lento recibe menos mensajes, no frena a los demás. Si acumula más de
+//    app.sse.pendientes-max muebles se le cierra la conexión y al reconectar se pone al día o resincroniza.
+//  - Un comentario cada app.sse.latido-ms mantiene viva la conexión en proxies y detecta clientes que se fueron.
+// Se sigue el feed y no EventosDominioPublicadosEvent porque con varias instancias cada relay publica solo los
+// lotes que tomó él; el feed tiene todos los eventos en orden.
+@Service
+public class TransmisionMueblesServiceImpl implements TransmisionMueblesService {
+
+    public static final String EVENTO_CONECTADO = "conectado";
+    public static final String EVENTO_CAMBIOS = "muebles";
+    public static final String EVENTO_RESINCRONIZAR = "resincronizar";
+
+    private static final int EVENTOS_POR_LECTURA = 500;
+    private static final Set<String> EVENTOS_DE_MUEBLES = Stream.of(
+                    TipoEventoDominio.MUEBLE_CREADO, TipoEventoDominio.MUEBLE_ACTUALIZADO,
+                    TipoEventoDominio.STOCK_MUEBLE_CAMBIADO, TipoEventoDominio.MUEBLE_ACTIVADO,
+                    TipoEventoDominio.MUEBLE_DESACTIVADO)
+            .map(Enum::name)
+            .collect(Collectors.toUnmodifiableSet());
+
+    private final EventoOutboxService eventoOutboxService;
+    private final MuebleRepository muebleRepository;
+    private final Duration timeout;
+    private final int tamanioHistorial;
+    private final int pendientesMaximo;
+    private final Counter saturados;
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+
+    // Protegidos por this: el historial y las posiciones cambian juntos con el alta de suscriptores
+    private final Deque<Lote> historial = new ArrayDeque<>();
+    // Última posición del outbox leída (-1 hasta la primera lectura)
+    private long posicion = -1;
+    // El historial tiene todos los cambios posteriores a esta posición
+    private long cubreDesde = -1;
+
+    public TransmisionMueblesServiceImpl(EventoOutboxService eventoOutboxService,
+                                         MuebleRepository muebleRepository,
+                                         MeterRegistry meterRegistry,
+                                         @Value("${app.sse.timeout:30m}") Duration timeout,
+                                         @Value("${app.sse.historial:1000}") int tamanioHistorial,
+                                         @Value("${app.sse.pendientes-max:5000}") int pendientesMaximo) {
+        this.eventoOutboxService = eventoOutboxService;
+        this.muebleRepository = muebleRepository;
+        this.timeout = timeout;
+        this.tamanioHistorial = tamanioHistorial;
+        this.pendientesMaximo = pendientesMaximo;
+        this.saturados = Counter.builder("muebles.stream.saturados")
+                .description("Suscriptores desconectados por no alcanzar a recibir los cambios")
+                .register(meterRegistry);
+        Gauge.builder("muebles.stream.suscriptores", suscriptores, Set::size)
+                .description("Conexiones abiertas al stream de muebles")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SseEmitter suscribir(String ultimoIdEvento) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Suscriptor suscriptor = new Suscriptor(emitter);
+        emitter.onCompletion(suscriptor::descartar);
+        emitter.onError(error -> suscriptor.descartar());
+        // Al vencer se cierra y el navegador reconecta solo con Last-Event-ID
+        emitter.onTimeout(emitter::complete);
+
+        synchronized (this) {
+            long actual = leerPosicion();
+            if (ultimoIdEvento == null) {
+                suscriptor.controlar(EVENTO_CONECTADO, actual);
+            } else if (!ponerAlDia(suscriptor, ultimoIdEvento)) {
+                suscriptor.controlar(EVENTO_RESINCRONIZAR, actual);
+            }
+            suscriptores.add(suscriptor);
+        }
+        suscriptor.despachar();
+        return emitter;
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.sse.intervalo-ms:500}", initialDelayString = "${app.sse.intervalo-ms:500}")
+    public void transmitirCambios() {
+        while (true) {
+            long desde;
+            synchronized (this) {
+                desde = leerPosicion();
+            }
+            List<EventoDominioDTO> eventos = eventoOutboxService.getEventos(desde, EVENTOS_POR_LECTURA);
+            if (eventos.isEmpty()) {
+                return;
+            }
+            Set<Long> ids = eventos.stream()
+                    .filter(evento -> EVENTOS_DE_MUEBLES.contains(evento.getTipo()))
+                    .map(EventoDominioDTO::getIdAgregado)
+                    .collect(Collectors.toCollection(TreeSet::new));
+            List<CambioMuebleDTO> cambios = ids.isEmpty() ? List.of() : muebleRepository.findAllById(ids).stream()
+                    .map(mueble -> new CambioMuebleDTO(mueble.getIdMueble(), mueble.getStock(),
+                            mueble.getPrecioBase(), mueble.getEstado().name()))
+                    .toList();
+            publicar(new Lote(eventos.getLast().getPosicion(), cambios));
+            if (eventos.size() < EVENTOS_POR_LECTURA) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${app.sse.latido-ms:15000}", initialDelayString = "${app.sse.latido-ms:15000}")
+    public void enviarLatidos() {
+        for (Suscriptor suscriptor : suscriptores) {
+            suscriptor.latir();
+            suscriptor.despachar();
+        }
+    }
+
+    @Override
+    public int getSuscriptores() {
+        return suscriptores.size();
+    }
+
+    @PreDestroy
+    public void cerrar() {
+        suscriptores.forEach(suscriptor -> suscriptor.emitter.complete());
+    }
+
+    private void publicar(Lote lote) {
+        List<Suscriptor> desbordados = new ArrayList<>();
+        synchronized (this) {
+            posicion = lote.posicion();
+            if (lote.cambios().isEmpty()) {
+                return;
+            }
+            historial.addLast(lote);
+            if (historial.size() > tamanioHistorial) {
+                cubreDesde = historial.removeFirst().posicion();
+            }
+            for (Suscriptor suscriptor : suscriptores) {
+                if (!suscriptor.agregar(lote)) {
+                    desbordados.add(suscriptor);
+                }
+            }
+        }
+        for (Suscriptor suscriptor : desbordados) {
+            saturados.increment();
+            suscriptor.cerrar();
+        }
+        suscriptores.forEach(Suscriptor::despachar);
+    }
+
+    // Encola lo que el cliente se perdió desde su Last-Event-ID; false si el historial ya no lo cubre
+    private boolean ponerAlDia(Suscriptor suscriptor, String ultimoIdEvento) {
+        long ultimo;
+        try {
+            ultimo = Long.parseLong(ultimoIdEvento.trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        if (ultimo < cubreDesde) {
+            return false;
+        }
+        for (Lote lote : historial) {
+            if (lote.posicion() > ultimo && !suscriptor.agregar(lote)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // La primera vez arranca desde el final del feed: lo anterior ya está en /api/muebles
+    private long leerPosicion() {
+        if (posicion < 0) {
+            posicion = eventoOutboxService.getUltimaPosicion();
+            cubreDesde = posicion;
+        }
+        return posicion;
+    }
+
+    private record Lote(long posicion, List<CambioMuebleDTO> cambios) {
+    }
+
+    private final class Suscriptor {
+
+        private final SseEmitter emitter;
+        // Protegidos por this
+        private final Map<Long, CambioMuebleDTO> pendientes = new LinkedHashMap<>();
+        private long posicionPendiente;
+        private String control;
+        private boolean latido;
+        private boolean enviando;
+        private boolean cerrado;
+
+        private Suscriptor(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        synchronized boolean agregar(Lote lote) {
+            for (CambioMuebleDTO cambio : lote.cambios()) {
+                pendientes.put(cambio.getIdMueble(), cambio);
+            }
+            posicionPendiente = lote.posicion();
+            return pendientes.size() <= pendientesMaximo;
+        }
+
+        // Un evento de control reemplaza a los cambios pendientes: el cliente va a partir de esa posición
+        synchronized void controlar(String evento, long posicion) {
+            pendientes.clear();
+            control = evento;
+            posicionPendiente = posicion;
+        }
+
+        synchronized void latir() {
+            latido = true;
+        }
+
+        void despachar() {
+            synchronized (this) {
+                if (enviando || cerrado || (control == null && pendientes.isEmpty() && !latido)) {
+                    return;
+                }
+                enviando = true;
+            }
+            Thread.ofVirtual().name("sse-muebles").start(this::enviar);
+        }
+
+        // Un solo hilo por suscriptor envía a la vez; lo que llega mientras tanto se junta para el próximo envío
+        private void enviar() {
+            while (true) {
+                SseEmitter.SseEventBuilder evento;
+                synchronized (this) {
+                    evento = cerrado ? null : siguiente();
+                    if (evento == null) {
+                        enviando = false;
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(evento);
+                } catch (IOException | IllegalStateException e) {
+                    // El cliente se fue: el contenedor completa el emitter y onError/onCompletion lo descartan
+                    descartar();
+                    synchronized (this) {
+                        enviando = false;
+                    }
+                    return;
+                }
+            }
+        }
+
+        private SseEmitter.SseEventBuilder siguiente() {
+            if (control != null) {
+                SseEmitter.SseEventBuilder evento = SseEmitter.event()
+                        .id(String.valueOf(posicionPendiente))
+                        .name(control)
+                        .data(posicionPendiente);
+                control = null;
+                latido = false;
+                return evento;
+            }
+            if (!pendientes.isEmpty()) {
+                SseEmitter.SseEventBuilder evento = SseEmitter.event()
+                        .id(String.valueOf(posicionPendiente))
+                        .name(EVENTO_CAMBIOS)
+                        .data(List.copyOf(pendientes.values()), MediaType.APPLICATION_JSON);
+                pendientes.clear();
+                latido = false;
+                return evento;
+            }
+            if (latido) {
+                latido = false;
+                return SseEmitter.event().comment("latido");
+            }
+            return null;
+        }
+
+        void descartar() {
+            synchronized (this) {
+                cerrado = true;
+                pendientes.clear();
+            }
+            suscriptores.remove(this);
+        }
+
+        // complete() espera a que termine un send en curso: un cliente lento no puede frenar al que lo cierra
+        void cerrar() {
+            descartar();
+            Thread.ofVirtual().name("sse-muebles-cierre").start(emitter::complete);
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.tarea2Ingenieria.service;
 
 
+import com.tarea2Ingenieria.CacheConfig;
 import com.tarea2Ingenieria.dto.VarianteDTO;
 import com.tarea2Ingenieria.model.Variante;
 import com.tarea2Ingenieria.repository.VarianteRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -15,8 +18,10 @@ import java.util.stream.Collectors;
 public class VarianteServiceImpl implements VarianteService {
 
     private final VarianteRepository varianteRepository;
+    private final CargadorAgrupado<Long, Variante> cargadorVariantes;
 
     @Override
+    @CacheEvict(cacheNames = CacheConfig.VARIANTES, allEntries = true)
     public VarianteDTO crearVariante(VarianteDTO varianteDTO) {
         Variante variante = toEntity(varianteDTO);
         Variante varianteGuardada = varianteRepository.save(variante);
@@ -24,6 +29,7 @@ public class VarianteServiceImpl implements VarianteService {
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.VARIANTES, sync = true)
     public List<VarianteDTO> getAllVariantes() {
         return varianteRepository.findAll()
                 .stream()
@@ -31,9 +37,10 @@ public class VarianteServiceImpl implements VarianteService {
                 .collect(Collectors.toList());
     }
 
+    // Ráfagas de la misma variante (o de varias) se resuelven con una consulta
     @Override
     public VarianteDTO getVarianteById(Long id) {
-        Variante variante = varianteRepository.findById(id)
+        Variante variante = cargadorVariantes.cargar(id)
                 .orElseThrow(() -> new RuntimeException("Variante no encontrada"));
         return toDTO(variante);
     }
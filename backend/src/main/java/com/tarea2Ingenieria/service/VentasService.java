@@ -0,0 +1,15 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.IngresoPeriodoDTO;
+import com.tarea2Ingenieria.dto.ReconstruccionVentasDTO;
+import com.tarea2Ingenieria.dto.VentaRankingDTO;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface VentasService {
+
+    List<IngresoPeriodoDTO> getIngresos(LocalDate desde, LocalDate hasta, String granularidad);
+    List<VentaRankingDTO> getMasVendidos(LocalDate desde, LocalDate hasta, String por, int limite);
+    ReconstruccionVentasDTO reconstruirResumenes();
+}
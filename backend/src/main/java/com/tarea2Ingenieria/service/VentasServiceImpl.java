@@ -0,0 +1,215 @@
+package com.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.IngresoPeriodoDTO;
+import com.tarea2Ingenieria.dto.ReconstruccionVentasDTO;
+import com.tarea2Ingenieria.dto.VentaRankingDTO;
+import com.tarea2Ingenieria.event.VentaConfirmadaEvent;
+import com.tarea2Ingenieria.repository.VentaResumenRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Ventas por día, mes, mueble y variante. Las consultas leen solo ventas_diarias y ventas_mensuales,
+// que se suman en la transacción de cada confirmarVenta; nunca recorren cotizaciones ni detalles.
+// reconstruirResumenes() rehace los resúmenes desde el historial, un mes por transacción y en paralelo.
+@Service
+public class VentasServiceImpl implements VentasService {
+
+    private static final int LIMITE_MAXIMO_RANKING = 100;
+    private static final int MAXIMO_DIAS_POR_DIA = 366;
+    private static final int MAX_INTENTOS_MES = 3;
+
+    private final VentaResumenRepository ventaResumenRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int hilosReconstruccion;
+
+    public VentasServiceImpl(VentaResumenRepository ventaResumenRepository,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.ventas.reconstruccion.hilos:4}") int hilosReconstruccion) {
+        this.ventaResumenRepository = ventaResumenRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.hilosReconstruccion = hilosReconstruccion;
+    }
+
+    // Síncrono y dentro de la transacción de confirmarVenta: si la venta se revierte (o se reintenta), la suma también
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onVentaConfirmada(VentaConfirmadaEvent event) {
+        ventaResumenRepository.sumarVentaDiaria(event.idsCotizacion());
+        ventaResumenRepository.sumarVentaMensual(event.idsCotizacion());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<IngresoPeriodoDTO> getIngresos(LocalDate desde, LocalDate hasta, String granularidad) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+
+        if ("mes".equalsIgnoreCase(granularidad)) {
+            LocalDate inicio = desde != null ? desde : fin.withDayOfMonth(1).minusMonths(11);
+            validarRango(inicio, fin);
+            return ventaResumenRepository.totalesPorMes(periodo(YearMonth.from(inicio)), periodo(YearMonth.from(fin))).stream()
+                    .map(total -> new IngresoPeriodoDTO(
+                            YearMonth.of(total.getPeriodo() / 100, total.getPeriodo() % 100).toString(),
+                            total.getUnidades(), total.getIngresos()))
+                    .toList();
+        }
+        if (granularidad != null && !"dia".equalsIgnoreCase(granularidad)) {
+            throw new RuntimeException("Granularidad inválida: " + granularidad + " (use dia o mes)");
+        }
+
+        LocalDate inicio = desde != null ? desde : fin.minusDays(29);
+        validarRango(inicio, fin);
+        if (ChronoUnit.DAYS.between(inicio, fin) >= MAXIMO_DIAS_POR_DIA) {
+            throw new RuntimeException("Rango demasiado amplio para granularidad dia: use granularidad=mes");
+        }
+        return ventaResumenRepository.totalesPorDia(inicio, fin).stream()
+                .map(total -> new IngresoPeriodoDTO(total.getFecha().toString(), total.getUnidades(), total.getIngresos()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<VentaRankingDTO> getMasVendidos(LocalDate desde, LocalDate hasta, String por, int limite) {
+        LocalDate fin = hasta != null ? hasta : LocalDate.now();
+        LocalDate inicio = desde != null ? desde : fin.minusDays(29);
+        validarRango(inicio, fin);
+        int tamanio = Math.clamp(limite, 1, LIMITE_MAXIMO_RANKING);
+
+        // Los meses completos del rango salen de ventas_mensuales; solo los bordes se suman día a día
+        YearMonth primerMes = inicio.getDayOfMonth() == 1 ? YearMonth.from(inicio) : YearMonth.from(inicio).plusMonths(1);
+        YearMonth ultimoMes = fin.equals(YearMonth.from(fin).atEndOfMonth()) ? YearMonth.from(fin) : YearMonth.from(fin).minusMonths(1);
+
+        LocalDate hastaInicio;
+        LocalDate desdeFin;
+        int periodoDesde;
+        int periodoHasta;
+        if (primerMes.isAfter(ultimoMes)) {
+            // Ningún mes completo: todo el rango desde ventas_diarias
+            hastaInicio = fin;
+            desdeFin = fin.plusDays(1);
+            periodoDesde = 1;
+            periodoHasta = 0;
+        } else {
+            hastaInicio = primerMes.atDay(1).minusDays(1);
+            desdeFin = ultimoMes.atEndOfMonth().plusDays(1);
+            periodoDesde = periodo(primerMes);
+            periodoHasta = periodo(ultimoMes);
+        }
+
+        List<VentaResumenRepository.TotalRanking> totales;
+        if (por == null || "mueble".equalsIgnoreCase(por)) {
+            totales = ventaResumenRepository.rankingMuebles(inicio, hastaInicio, desdeFin, fin, periodoDesde, periodoHasta, tamanio);
+        } else if ("variante".equalsIgnoreCase(por)) {
+            totales = ventaResumenRepository.rankingVariantes(inicio, hastaInicio, desdeFin, fin, periodoDesde, periodoHasta, tamanio);
+        } else {
+            throw new RuntimeException("Ranking inválido: " + por + " (use mueble o variante)");
+        }
+        return totales.stream()
+                .map(total -> new VentaRankingDTO(total.getId(), total.getNombre(), total.getUnidades(), total.getIngresos()))
+                .toList();
+    }
+
+    @Override
+    @Timed(value = "ventas.reconstruccion", description = "Reconstrucción de los resúmenes de ventas")
+    public ReconstruccionVentasDTO reconstruirResumenes() {
+        long inicio = System.nanoTime();
+
+        List<YearMonth> meses = transactionTemplate.execute(estado -> {
+            ventaResumenRepository.completarFechasConfirmacion();
+            VentaResumenRepository.RangoFechas rango = ventaResumenRepository.rangoConfirmaciones();
+            if (rango == null || rango.getDesde() == null) {
+                ventaResumenRepository.deleteAllInBatch();
+                ventaResumenRepository.vaciarMensuales();
+                return List.of();
+            }
+            // Lo que quedó fuera del historial (por ejemplo, ventas borradas) se descarta
+            ventaResumenRepository.borrarDiariasFueraDe(rango.getDesde(), rango.getHasta());
+            ventaResumenRepository.borrarMensualesFueraDe(
+                    periodo(YearMonth.from(rango.getDesde())), periodo(YearMonth.from(rango.getHasta())));
+
+            List<YearMonth> lista = new ArrayList<>();
+            for (YearMonth mes = YearMonth.from(rango.getDesde()); !mes.isAfter(YearMonth.from(rango.getHasta())); mes = mes.plusMonths(1)) {
+                lista.add(mes);
+            }
+            return lista;
+        });
+
+        long filasDiarias = 0;
+        long filasMensuales = 0;
+        if (!meses.isEmpty()) {
+            // Cada mes escribe claves distintas: los meses no compiten por las mismas filas
+            try (ExecutorService hilos = Executors.newFixedThreadPool(Math.min(hilosReconstruccion, meses.size()))) {
+                List<Future<long[]>> resultados = new ArrayList<>();
+                for (YearMonth mes : meses) {
+                    resultados.add(hilos.submit(() -> reconstruirMes(mes)));
+                }
+                for (int i = 0; i < resultados.size(); i++) {
+                    long[] filas = esperar(resultados.get(i), meses.get(i));
+                    filasDiarias += filas[0];
+                    filasMensuales += filas[1];
+                }
+            }
+        }
+
+        long milisegundos = (System.nanoTime() - inicio) / 1_000_000;
+        return new ReconstruccionVentasDTO(meses.size(), filasDiarias, filasMensuales, milisegundos);
+    }
+
+    // Borrar y volver a sumar el mes es idempotente: ante un deadlock con el mes vecino se repite entero
+    private long[] reconstruirMes(YearMonth mes) {
+        for (int intento = 1; ; intento++) {
+            try {
+                return transactionTemplate.execute(estado -> {
+                    LocalDate desde = mes.atDay(1);
+                    LocalDate hasta = mes.atEndOfMonth();
+                    ventaResumenRepository.borrarDiarias(desde, hasta);
+                    ventaResumenRepository.borrarMensual(periodo(mes));
+                    long diarias = ventaResumenRepository.reconstruirDiarias(desde, hasta);
+                    long mensuales = ventaResumenRepository.reconstruirMensual(periodo(mes), desde, hasta);
+                    return new long[]{diarias, mensuales};
+                });
+            } catch (ConcurrencyFailureException e) {
+                if (intento >= MAX_INTENTOS_MES) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static long[] esperar(Future<long[]> resultado, YearMonth mes) {
+        try {
+            return resultado.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reconstrucción de ventas interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Falló la reconstrucción de ventas del mes " + mes, e.getCause());
+        }
+    }
+
+    private static void validarRango(LocalDate desde, LocalDate hasta) {
+        if (desde.isAfter(hasta)) {
+            throw new RuntimeException("Rango de fechas inválido: desde es posterior a hasta");
+        }
+    }
+
+    private static int periodo(YearMonth mes) {
+        return mes.getYear() * 100 + mes.getMonthValue();
+    }
+}
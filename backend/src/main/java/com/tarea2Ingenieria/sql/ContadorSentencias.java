@@ -0,0 +1,74 @@
+package com.tarea2Ingenieria.sql;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Cuenta las sentencias que Hibernate prepara en el hilo actual mientras hay una medición abierta.
+// Fuera de un request (DataLoader, jobs) no hay medición y no cuenta nada.
+public class ContadorSentencias implements StatementInspector {
+
+    private static final ThreadLocal<Medicion> MEDICION = new ThreadLocal<>();
+
+    public static void iniciar(String endpoint, Integer presupuesto, boolean fallar) {
+        MEDICION.set(new Medicion(endpoint, presupuesto, fallar));
+    }
+
+    // Para endpoints cuyo costo depende del tamaño del trabajo (p. ej. un UPDATE por bloque de ids): el
+    // código que ya conoce ese tamaño suma las sentencias esperadas al presupuesto fijo de la anotación.
+    // Sin medición abierta o sin presupuesto no hace nada.
+    public static void ampliarPresupuesto(int sentencias) {
+        Medicion medicion = MEDICION.get();
+        if (medicion != null && medicion.presupuesto != null) {
+            medicion.presupuesto += sentencias;
+        }
+    }
+
+    // Devuelve la medición en curso y la cierra; null si no había una abierta
+    public static Medicion terminar() {
+        Medicion medicion = MEDICION.get();
+        MEDICION.remove();
+        return medicion;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Medicion medicion = MEDICION.get();
+        if (medicion != null) {
+            medicion.sentencias++;
+            // Fallar aquí, antes de ejecutar la sentencia, hace visible el exceso en la propia respuesta
+            if (medicion.fallar && medicion.excedida()) {
+                throw new PresupuestoSqlExcedidoException(medicion.endpoint, medicion.presupuesto, sql);
+            }
+        }
+        return sql;
+    }
+
+    public static final class Medicion {
+
+        private final String endpoint;
+        private Integer presupuesto;
+        private final boolean fallar;
+        private int sentencias;
+
+        private Medicion(String endpoint, Integer presupuesto, boolean fallar) {
+            this.endpoint = endpoint;
+            this.presupuesto = presupuesto;
+            this.fallar = fallar;
+        }
+
+        public String getEndpoint() {
+            return endpoint;
+        }
+
+        public Integer getPresupuesto() {
+            return presupuesto;
+        }
+
+        public int getSentencias() {
+            return sentencias;
+        }
+
+        public boolean excedida() {
+            return presupuesto != null && sentencias > presupuesto;
+        }
+    }
+}
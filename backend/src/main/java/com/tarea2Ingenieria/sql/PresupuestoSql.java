@@ -0,0 +1,15 @@
+package com.tarea2Ingenieria.sql;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Máximo de sentencias SQL que puede ejecutar un endpoint por request.
+// Se controla en PresupuestoSqlInterceptor; la anotación del método tiene prioridad sobre la de la clase.
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PresupuestoSql {
+
+    int value();
+}
@@ -0,0 +1,9 @@
+package com.tarea2Ingenieria.sql;
+
+public class PresupuestoSqlExcedidoException extends RuntimeException {
+
+    public PresupuestoSqlExcedidoException(String endpoint, int presupuesto, String sql) {
+        super("El endpoint " + endpoint + " superó su presupuesto de " + presupuesto
+                + " sentencias SQL (posible N+1). Sentencia #" + (presupuesto + 1) + ": " + sql);
+    }
+}
@@ -0,0 +1,86 @@
+package com.tarea2Ingenieria.sql;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Abre una medición de sentencias por request y al terminar:
+//  - publica http.server.requests.sql (sentencias por endpoint) en Micrometer
+//  - deja el conteo en el atributo SENTENCIAS_SQL del request (lo usan los tests)
+//  - si el endpoint declara @PresupuestoSql y lo superó, lo registra en el log.
+//    En modo "fallar" la propia sentencia que excede lanza PresupuestoSqlExcedidoException.
+// Las respuestas en streaming siguen en otro hilo y solo se cuenta la parte síncrona.
+@Slf4j
+public class PresupuestoSqlInterceptor implements AsyncHandlerInterceptor {
+
+    public static final String SENTENCIAS_SQL = PresupuestoSqlInterceptor.class.getName() + ".SENTENCIAS";
+
+    private final MeterRegistry meterRegistry;
+    private final boolean fallar;
+
+    public PresupuestoSqlInterceptor(MeterRegistry meterRegistry, boolean fallar) {
+        this.meterRegistry = meterRegistry;
+        this.fallar = fallar;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod) {
+            ContadorSentencias.iniciar(endpoint(request), presupuesto(handlerMethod), fallar);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        registrar(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        registrar(request);
+    }
+
+    private void registrar(HttpServletRequest request) {
+        ContadorSentencias.Medicion medicion = ContadorSentencias.terminar();
+        if (medicion == null) {
+            return;
+        }
+        request.setAttribute(SENTENCIAS_SQL, medicion.getSentencias());
+        DistributionSummary.builder("http.server.requests.sql")
+                .description("Sentencias SQL ejecutadas por request")
+                .baseUnit("statements")
+                .tag("method", request.getMethod())
+                .tag("uri", uri(request))
+                .register(meterRegistry)
+                .record(medicion.getSentencias());
+
+        if (medicion.excedida() && !fallar) {
+            log.warn("{} ejecutó {} sentencias SQL con un presupuesto de {} (posible N+1)",
+                    medicion.getEndpoint(), medicion.getSentencias(), medicion.getPresupuesto());
+        }
+    }
+
+    private static Integer presupuesto(HandlerMethod handlerMethod) {
+        PresupuestoSql presupuesto = handlerMethod.getMethodAnnotation(PresupuestoSql.class);
+        if (presupuesto == null) {
+            presupuesto = handlerMethod.getBeanType().getAnnotation(PresupuestoSql.class);
+        }
+        return presupuesto != null ? presupuesto.value() : null;
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        return request.getMethod() + " " + uri(request);
+    }
+
+    // Patrón de la ruta (/api/muebles/{id}) para no crear una serie por cada id
+    private static String uri(HttpServletRequest request) {
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return patron != null ? patron.toString() : "UNKNOWN";
+    }
+}
@@ -1,9 +1,12 @@
 package com.example.tarea2Ingenieria;
 
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
-@SpringBootTest
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@ActiveProfiles("test")
 class Tarea2IngenieriaApplicationTests {
 
 	@Test
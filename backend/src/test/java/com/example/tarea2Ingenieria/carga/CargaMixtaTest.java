@@ -0,0 +1,254 @@
+package com.example.tarea2Ingenieria.carga;
+
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Prueba de carga de punta a punta: HTTP real contra Tomcat, Spring MVC, Hibernate y H2 en memoria.
+ * No corre con el build normal; se lanza con el perfil "carga":
+ * <pre>
+ *   ./mvnw -Pcarga test
+ *   ./mvnw -Pcarga test -Dcarga.muebles=20000 -Dcarga.concurrencia=64 -Dcarga.duracion=60
+ *   ./mvnw -Pcarga test -Dcarga.mezcla=catalogo:5,mueble:50,variantes:5,cotizar:25,confirmar:15
+ * </pre>
+ * Cada hilo repite operaciones elegidas según la mezcla (lazo cerrado, sin pausa) durante la duración
+ * indicada; el calentamiento previo no se mide. El resumen queda en target/carga-resultado.txt.
+ */
+@Tag("carga")
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+class CargaMixtaTest {
+
+    private static final Pattern ID_COTIZACION = Pattern.compile("\"idCotizacion\"\\s*:\\s*(\\d+)");
+
+    enum Operacion {
+        CATALOGO("catalogo"), MUEBLE("mueble"), VARIANTES("variantes"), COTIZAR("cotizar"), CONFIRMAR("confirmar");
+
+        private final String clave;
+
+        Operacion(String clave) {
+            this.clave = clave;
+        }
+    }
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final int muebles = Integer.getInteger("carga.muebles", 5000);
+    private final int concurrencia = Integer.getInteger("carga.concurrencia", 32);
+    private final int duracionSegundos = Integer.getInteger("carga.duracion", 30);
+    private final int calentamientoSegundos = Integer.getInteger("carga.calentamiento", 10);
+    private final String mezcla = System.getProperty("carga.mezcla",
+            "catalogo:10,mueble:40,variantes:10,cotizar:25,confirmar:15");
+
+    private HttpClient cliente;
+    private List<Long> idsMuebles;
+    private List<Long> idsVariantes;
+    private Operacion[] ruleta;
+    // Cotizaciones PENDIENTE creadas por la propia carga, listas para confirmar
+    private final ConcurrentLinkedQueue<Long> pendientes = new ConcurrentLinkedQueue<>();
+
+    @Test
+    void cargaMixta() throws Exception {
+        DataLoaderCarga loader = new DataLoaderCarga(jdbcTemplate);
+        // Stock holgado: la prueba mide latencia, no el rechazo por falta de stock
+        loader.cargar(muebles, 1_000_000);
+        idsMuebles = loader.idsMuebles();
+        idsVariantes = loader.idsVariantes();
+        ruleta = armarRuleta(mezcla);
+
+        ExecutorService hilosHttp = Executors.newFixedThreadPool(concurrencia);
+        cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(hilosHttp)
+                .build();
+
+        ExecutorService hilosCarga = Executors.newFixedThreadPool(concurrencia);
+        try {
+            correr(hilosCarga, calentamientoSegundos);
+            long inicio = System.nanoTime();
+            Map<Operacion, RegistroLatencias> resultado = correr(hilosCarga, duracionSegundos);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            String resumen = resumir(resultado, segundos);
+            System.out.println(resumen);
+            Files.writeString(Path.of("target", "carga-resultado.txt"), resumen);
+
+            int total = resultado.values().stream().mapToInt(RegistroLatencias::cantidad).sum();
+            int errores = resultado.values().stream().mapToInt(RegistroLatencias::errores).sum();
+            assertTrue(total > 0, "La carga no completó ninguna operación");
+            assertEquals(0, errores, "Hubo respuestas con error durante la carga:\n" + resumen);
+        } finally {
+            hilosCarga.shutdownNow();
+            hilosHttp.shutdownNow();
+        }
+    }
+
+    private Map<Operacion, RegistroLatencias> correr(ExecutorService hilos, int segundos) throws Exception {
+        long fin = System.nanoTime() + segundos * 1_000_000_000L;
+        List<Future<Map<Operacion, RegistroLatencias>>> trabajadores = new ArrayList<>();
+        for (int i = 0; i < concurrencia; i++) {
+            trabajadores.add(hilos.submit(() -> trabajar(fin)));
+        }
+
+        Map<Operacion, RegistroLatencias> combinado = registrosVacios();
+        for (Future<Map<Operacion, RegistroLatencias>> trabajador : trabajadores) {
+            trabajador.get().forEach((operacion, registro) -> combinado.get(operacion).combinar(registro));
+        }
+        return combinado;
+    }
+
+    private Map<Operacion, RegistroLatencias> trabajar(long fin) throws InterruptedException {
+        Map<Operacion, RegistroLatencias> registros = registrosVacios();
+        ThreadLocalRandom azar = ThreadLocalRandom.current();
+        while (System.nanoTime() < fin) {
+            Operacion operacion = ruleta[azar.nextInt(ruleta.length)];
+            Long pendiente = operacion == Operacion.CONFIRMAR ? pendientes.poll() : null;
+            if (operacion == Operacion.CONFIRMAR && pendiente == null) {
+                // Aún no hay cotizaciones que confirmar: se crea una primero
+                operacion = Operacion.COTIZAR;
+            }
+
+            HttpRequest request = armarRequest(operacion, pendiente, azar);
+            long inicio = System.nanoTime();
+            try {
+                HttpResponse<String> respuesta = cliente.send(request, HttpResponse.BodyHandlers.ofString());
+                long nanos = System.nanoTime() - inicio;
+                if (respuesta.statusCode() >= 400) {
+                    registros.get(operacion).registrarError();
+                    continue;
+                }
+                registros.get(operacion).registrar(nanos);
+                if (operacion == Operacion.COTIZAR) {
+                    Matcher matcher = ID_COTIZACION.matcher(respuesta.body());
+                    if (matcher.find()) {
+                        pendientes.add(Long.parseLong(matcher.group(1)));
+                    }
+                }
+            } catch (IOException e) {
+                registros.get(operacion).registrarError();
+            }
+        }
+        return registros;
+    }
+
+    private HttpRequest armarRequest(Operacion operacion, Long pendiente, ThreadLocalRandom azar) {
+        String base = "http://localhost:" + puerto;
+        return switch (operacion) {
+            case CATALOGO -> HttpRequest.newBuilder(URI.create(base + "/api/muebles")).GET().build();
+            case MUEBLE -> HttpRequest.newBuilder(URI.create(base + "/api/muebles/" + elegir(idsMuebles, azar))).GET().build();
+            case VARIANTES -> HttpRequest.newBuilder(URI.create(base + "/api/variantes")).GET().build();
+            case CONFIRMAR -> HttpRequest.newBuilder(URI.create(base + "/api/cotizaciones/" + pendiente + "/confirmar"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+            case COTIZAR -> HttpRequest.newBuilder(URI.create(base + "/api/cotizaciones"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(cuerpoCotizacion(azar))).build();
+        };
+    }
+
+    // Entre 1 y 5 líneas con muebles y variantes al azar
+    private String cuerpoCotizacion(ThreadLocalRandom azar) {
+        StringBuilder json = new StringBuilder("{\"detalles\":[");
+        int lineas = 1 + azar.nextInt(5);
+        for (int i = 0; i < lineas; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"idMueble\":").append(elegir(idsMuebles, azar))
+                    .append(",\"idVariante\":").append(elegir(idsVariantes, azar))
+                    .append(",\"cantidad\":").append(1 + azar.nextInt(3)).append('}');
+        }
+        return json.append("]}").toString();
+    }
+
+    private static Long elegir(List<Long> ids, ThreadLocalRandom azar) {
+        return ids.get(azar.nextInt(ids.size()));
+    }
+
+    // "catalogo:10,mueble:40" -> arreglo con 10 CATALOGO y 40 MUEBLE para sortear con un índice al azar
+    private static Operacion[] armarRuleta(String mezcla) {
+        List<Operacion> ruleta = new ArrayList<>();
+        for (String parte : mezcla.split(",")) {
+            String[] claveYPeso = parte.trim().split(":");
+            Operacion operacion = null;
+            for (Operacion candidata : Operacion.values()) {
+                if (candidata.clave.equals(claveYPeso[0].trim())) {
+                    operacion = candidata;
+                }
+            }
+            if (operacion == null) {
+                throw new IllegalArgumentException("Operación desconocida en carga.mezcla: " + claveYPeso[0]);
+            }
+            for (int i = 0; i < Integer.parseInt(claveYPeso[1].trim()); i++) {
+                ruleta.add(operacion);
+            }
+        }
+        if (ruleta.isEmpty()) {
+            throw new IllegalArgumentException("carga.mezcla no tiene operaciones con peso");
+        }
+        return ruleta.toArray(Operacion[]::new);
+    }
+
+    private static Map<Operacion, RegistroLatencias> registrosVacios() {
+        Map<Operacion, RegistroLatencias> registros = new EnumMap<>(Operacion.class);
+        for (Operacion operacion : Operacion.values()) {
+            registros.put(operacion, new RegistroLatencias());
+        }
+        return registros;
+    }
+
+    private String resumir(Map<Operacion, RegistroLatencias> resultado, double segundos) {
+        StringBuilder resumen = new StringBuilder();
+        resumen.append(String.format(Locale.ROOT, "Carga mixta: %d muebles, %d hilos, %.1f s medidos, mezcla %s%n",
+                muebles, concurrencia, segundos, mezcla));
+        resumen.append(String.format(Locale.ROOT, "%-10s %9s %7s %10s %9s %9s %9s%n",
+                "operación", "total", "errores", "ops/s", "p50 ms", "p99 ms", "p999 ms"));
+
+        RegistroLatencias global = new RegistroLatencias();
+        resultado.forEach((operacion, registro) -> {
+            global.combinar(registro);
+            resumen.append(fila(operacion.clave, registro, segundos));
+        });
+        resumen.append(fila("TOTAL", global, segundos));
+        return resumen.toString();
+    }
+
+    private static String fila(String nombre, RegistroLatencias registro, double segundos) {
+        return String.format(Locale.ROOT, "%-10s %9d %7d %10.1f %9.2f %9.2f %9.2f%n",
+                nombre, registro.cantidad(), registro.errores(), registro.cantidad() / segundos,
+                registro.percentilMs(50), registro.percentilMs(99), registro.percentilMs(99.9));
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.tarea2Ingenieria.carga;
+
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Variante escalable de DataLoader para las pruebas de carga: inserta N muebles con JDBC en lotes
+// (guardarlos uno a uno con JPA tardaría más que la propia prueba con catálogos grandes).
+class DataLoaderCarga {
+
+    private static final int TAMANIO_LOTE = 1000;
+    private static final String[] TIPOS = {"Silla", "Mesa", "Sofá", "Estante", "Cama", "Velador"};
+    private static final String[] MATERIALES = {"Roble", "Pino", "Tela Premium", "Metal", "Raulí"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    DataLoaderCarga(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Deja exactamente 'cantidad' muebles activos con stock suficiente para toda la corrida
+    void cargar(int cantidad, int stockPorMueble) {
+        jdbcTemplate.update("DELETE FROM eventos_outbox");
+        jdbcTemplate.update("DELETE FROM reservas_stock");
+        jdbcTemplate.update("DELETE FROM detalles_cotizacion");
+        jdbcTemplate.update("DELETE FROM cotizaciones");
+        jdbcTemplate.update("DELETE FROM muebles");
+
+        List<Object[]> lote = new ArrayList<>(TAMANIO_LOTE);
+        for (int i = 1; i <= cantidad; i++) {
+            String tipo = TIPOS[i % TIPOS.length];
+            lote.add(new Object[]{
+                    tipo + " " + MATERIALES[i % MATERIALES.length] + " N°" + i,
+                    tipo,
+                    MATERIALES[i % MATERIALES.length],
+                    5000.0 + (i % 200) * 750.0,
+                    stockPorMueble,
+                    TamanioMueble.values()[i % TamanioMueble.values().length].name(),
+                    EstadoMueble.ACTIVO.name()
+            });
+            if (lote.size() == TAMANIO_LOTE) {
+                insertar(lote);
+                lote.clear();
+            }
+        }
+        if (!lote.isEmpty()) {
+            insertar(lote);
+        }
+    }
+
+    List<Long> idsMuebles() {
+        return jdbcTemplate.queryForList("SELECT id_mueble FROM muebles ORDER BY id_mueble", Long.class);
+    }
+
+    List<Long> idsVariantes() {
+        return jdbcTemplate.queryForList("SELECT id_variante FROM variantes ORDER BY id_variante", Long.class);
+    }
+
+    private void insertar(List<Object[]> lote) {
+        jdbcTemplate.batchUpdate("INSERT INTO muebles (nombre_mueble, tipo, material, precio_base, stock, tamanio, estado, version) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)", lote);
+    }
+}
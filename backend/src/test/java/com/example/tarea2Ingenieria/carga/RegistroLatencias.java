@@ -0,0 +1,49 @@
+package com.example.tarea2Ingenieria.carga;
+
+import java.util.Arrays;
+
+// Latencias de una operación en nanosegundos. Cada hilo de carga tiene su propio registro
+// (sin sincronización en el camino medido) y al final se combinan para calcular percentiles.
+class RegistroLatencias {
+
+    private long[] muestras = new long[1024];
+    private int cantidad;
+    private int errores;
+
+    void registrar(long nanos) {
+        if (cantidad == muestras.length) {
+            muestras = Arrays.copyOf(muestras, cantidad * 2);
+        }
+        muestras[cantidad++] = nanos;
+    }
+
+    void registrarError() {
+        errores++;
+    }
+
+    void combinar(RegistroLatencias otro) {
+        for (int i = 0; i < otro.cantidad; i++) {
+            registrar(otro.muestras[i]);
+        }
+        errores += otro.errores;
+    }
+
+    int cantidad() {
+        return cantidad;
+    }
+
+    int errores() {
+        return errores;
+    }
+
+    // Percentil por rango más cercano, en milisegundos
+    double percentilMs(double percentil) {
+        if (cantidad == 0) {
+            return 0.0;
+        }
+        long[] ordenadas = Arrays.copyOf(muestras, cantidad);
+        Arrays.sort(ordenadas);
+        int indice = (int) Math.ceil(percentil / 100.0 * cantidad) - 1;
+        return ordenadas[Math.max(0, Math.min(indice, cantidad - 1))] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.ConfirmacionEnColaDTO;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.service.CotizacionService;
+import com.tarea2Ingenieria.service.MuebleService;
+import com.tarea2Ingenieria.sql.ContadorSentencias;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ConfirmacionEnColaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private MuebleRepository muebleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testConfirmarEnCola_202ConLocationYLuegoConfirmada() throws Exception {
+        Long mesa = crearMueble("Mesa En Cola", 5);
+        Long id = crearCotizacion(mesa, 2);
+
+        mockMvc.perform(post("/api/cotizaciones/{id}/confirmar/cola", id))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/api/cotizaciones/" + id + "/confirmacion"))
+                .andExpect(jsonPath("$.estado").value("EN_COLA"));
+
+        esperarResuelta(id);
+        mockMvc.perform(get("/api/cotizaciones/{id}/confirmacion", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("CONFIRMADA"))
+                .andExpect(jsonPath("$.cotizacion.estado").value("CONFIRMADA"));
+        Mueble mueble = muebleRepository.findById(mesa).orElseThrow();
+        assertEquals(3, mueble.getStock());
+        assertEquals(0, mueble.getReservado());
+    }
+
+    @Test
+    void testConfirmarEnColaYEsperar_200Y409SiYaEstabaConfirmada() throws Exception {
+        Long id = crearCotizacion(crearMueble("Silla En Cola", 3), 1);
+
+        mockMvc.perform(asyncDispatch(esperar(id)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.estado").value("CONFIRMADA"))
+                .andExpect(jsonPath("$.cotizacion.idCotizacion").value(id));
+
+        mockMvc.perform(asyncDispatch(esperar(id)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.estado").value("RECHAZADA"))
+                .andExpect(jsonPath("$.motivo").value("Esta cotización ya fue confirmada como venta."));
+    }
+
+    @Test
+    void testEstadoDesconocido_404() throws Exception {
+        mockMvc.perform(get("/api/cotizaciones/{id}/confirmacion", 987654L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testLote_UnDescuentoPorMuebleYRechazosSueltos() {
+        Long banco = crearMueble("Banco Lote", 3);
+        Long repisa = crearMueble("Repisa Lote", 2);
+        List<Long> ventasBanco = List.of(crearCotizacion(banco, 1), crearCotizacion(banco, 1), crearCotizacion(banco, 1));
+        Long sinStock = crearCotizacion(repisa, 2);
+        // Un ajuste de stock dejó a la repisa por debajo de lo reservado
+        jdbcTemplate.update("UPDATE muebles SET stock = 1 WHERE id_mueble = ?", repisa);
+        Long yaConfirmada = crearCotizacion(crearMueble("Velador Lote", 1), 1);
+        cotizacionService.confirmarVenta(yaConfirmada);
+
+        ContadorSentencias.iniciar("lote", null, false);
+        Map<Long, ConfirmacionEnColaDTO> resultados = cotizacionService.confirmarVentasEnLote(List.of(
+                ventasBanco.get(0), sinStock, ventasBanco.get(1), 987654L, yaConfirmada, ventasBanco.get(2)));
+        int sentencias = ContadorSentencias.terminar().getSentencias();
+
+        ventasBanco.forEach(id -> assertEquals("CONFIRMADA", resultados.get(id).getEstado()));
+        assertEquals("Stock insuficiente para: Repisa Lote", resultados.get(sinStock).getMotivo());
+        assertEquals("Cotización no encontrada", resultados.get(987654L).getMotivo());
+        assertEquals("Esta cotización ya fue confirmada como venta.", resultados.get(yaConfirmada).getMotivo());
+
+        Mueble muebleBanco = muebleRepository.findById(banco).orElseThrow();
+        assertEquals(0, muebleBanco.getStock());
+        assertEquals(0, muebleBanco.getReservado());
+        // La rechazada conserva su reserva
+        assertEquals(2, muebleRepository.findById(repisa).orElseThrow().getReservado());
+
+        // Bloqueo de cotizaciones, detalles, reservas (ids y lock), un UPDATE para las tres ventas del banco,
+        // marcar confirmadas, borrar reservas, los dos resúmenes de ventas y un INSERT con los eventos del outbox
+        assertEquals(10, sentencias);
+    }
+
+    private MvcResult esperar(Long id) throws Exception {
+        return mockMvc.perform(post("/api/cotizaciones/{id}/confirmar/cola", id).param("esperar", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private void esperarResuelta(Long id) throws Exception {
+        for (int i = 0; i < 250; i++) {
+            String cuerpo = mockMvc.perform(get("/api/cotizaciones/{id}/confirmacion", id))
+                    .andReturn().getResponse().getContentAsString();
+            if (!cuerpo.contains("EN_COLA")) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        fail("La confirmación en cola no se resolvió a tiempo");
+    }
+
+    private Long crearCotizacion(Long idMueble, int cantidad) {
+        DetalleRequestDTO detalle = new DetalleRequestDTO();
+        detalle.setIdMueble(idMueble);
+        detalle.setIdVariante(1L);
+        detalle.setCantidad(cantidad);
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(List.of(detalle));
+        return cotizacionService.crearCotizacion(request).getIdCotizacion();
+    }
+
+    private Long crearMueble(String nombre, int stock) {
+        MuebleDTO dto = new MuebleDTO();
+        dto.setNombreMueble(nombre);
+        dto.setTipo("Mesa");
+        dto.setMaterial("Pino");
+        dto.setTamanio("MEDIANO");
+        dto.setPrecioBase(10000.0);
+        dto.setStock(stock);
+        return muebleService.crearMueble(dto).getIdMueble();
+    }
+}
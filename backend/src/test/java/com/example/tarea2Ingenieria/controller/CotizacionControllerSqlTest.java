@@ -0,0 +1,137 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.example.tarea2Ingenieria.sql.SentenciasSql;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.service.CotizacionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Las sentencias SQL por request no deben crecer con la cantidad de cotizaciones o detalles (N+1)
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CotizacionControllerSqlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private MuebleRepository muebleRepository;
+
+    @Test
+    void testPaginado_EstadoDesconocido400SinConsultar() throws Exception {
+        mockMvc.perform(get("/api/cotizaciones/pagina").param("estado", "ARCHIVADA"))
+                .andExpect(status().isBadRequest())
+                .andExpect(SentenciasSql.exactamente(0));
+    }
+
+    @Test
+    void testCrearCotizacion_SentenciasNoCrecenConLasLineas() throws Exception {
+        List<Long> muebles = crearMuebles(20);
+
+        MvcResult unaLinea = crear(solicitud(muebles.subList(0, 1)));
+        MvcResult veinteLineas = crear(solicitud(muebles));
+
+        int conUna = SentenciasSql.contar(unaLinea);
+        int conVeinte = SentenciasSql.contar(veinteLineas);
+        // Puede variar si justo se pide un nuevo bloque de secuencia: detalles y reservas avanzan a la par
+        assertTrue(conVeinte <= conUna + 2, "1 línea: " + conUna + " sentencias, 20 líneas: " + conVeinte);
+    }
+
+    @Test
+    void testListarYObtener_UnaSentenciaConDetalles() throws Exception {
+        List<Long> muebles = crearMuebles(4);
+        Long id = null;
+        for (int i = 0; i < 5; i++) {
+            id = cotizacionService.crearCotizacion(solicitud(muebles)).getIdCotizacion();
+        }
+
+        mockMvc.perform(get("/api/cotizaciones"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.exactamente(1));
+        mockMvc.perform(get("/api/cotizaciones/" + id))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.exactamente(1));
+        mockMvc.perform(get("/api/cotizaciones/pagina").param("limite", "3"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.maximo(2));
+    }
+
+    @Test
+    void testConfirmarVenta_UnUpdatePorMuebleDistinto() throws Exception {
+        List<Long> muebles = crearMuebles(3);
+        Long id = cotizacionService.crearCotizacion(solicitud(muebles)).getIdCotizacion();
+
+        // lectura con detalles + reclamo de la cotización + ids, lock y borrado de la reserva
+        // + 3 descuentos de stock + resumen diario y mensual + eventos del outbox
+        mockMvc.perform(post("/api/cotizaciones/" + id + "/confirmar"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.exactamente(11));
+    }
+
+    private MvcResult crear(CotizacionRequestDTO request) throws Exception {
+        return mockMvc.perform(post("/api/cotizaciones")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andExpect(SentenciasSql.maximo(12))
+                .andReturn();
+    }
+
+    private CotizacionRequestDTO solicitud(List<Long> idsMuebles) {
+        List<DetalleRequestDTO> detalles = new ArrayList<>();
+        for (int i = 0; i < idsMuebles.size(); i++) {
+            DetalleRequestDTO detalle = new DetalleRequestDTO();
+            detalle.setIdMueble(idsMuebles.get(i));
+            detalle.setIdVariante((long) (i % 3) + 1);
+            detalle.setCantidad(1);
+            detalles.add(detalle);
+        }
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(detalles);
+        return request;
+    }
+
+    private List<Long> crearMuebles(int cantidad) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            Mueble mueble = new Mueble();
+            mueble.setNombreMueble("Mueble SQL " + i);
+            mueble.setTipo("Mesa");
+            mueble.setMaterial("Pino");
+            mueble.setPrecioBase(1000.0);
+            mueble.setStock(100);
+            mueble.setTamanio(TamanioMueble.MEDIANO);
+            mueble.setEstado(EstadoMueble.ACTIVO);
+            ids.add(muebleRepository.save(mueble).getIdMueble());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.example.tarea2Ingenieria.sql.SentenciasSql;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.dto.PrevisualizacionCotizacionDTO;
+import com.tarea2Ingenieria.repository.CotizacionRepository;
+import com.tarea2Ingenieria.service.CotizacionService;
+import com.tarea2Ingenieria.service.MuebleService;
+import com.tarea2Ingenieria.service.ReservaStockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CotizacionPrevisualizacionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private CotizacionRepository cotizacionRepository;
+
+    @Test
+    void testPrevisualizar_MismoTotalQueCrearYSinGuardar() throws Exception {
+        Long mesa = crearMueble("Mesa Previa", 20000.0, 10);
+        Long silla = crearMueble("Silla Previa", 5000.0, 10);
+        CotizacionRequestDTO request = solicitud(linea(mesa, 1L, 1), linea(silla, 2L, 4));
+        long cotizacionesAntes = cotizacionRepository.count();
+
+        PrevisualizacionCotizacionDTO previa = cotizacionService.previsualizarCotizacion(request);
+
+        assertEquals(cotizacionesAntes, cotizacionRepository.count());
+        assertTrue(previa.isConfirmable());
+        assertEquals(2, previa.getLineas().size());
+        assertEquals(previa.getLineas().get(1).getPrecioUnitario() * 4, previa.getLineas().get(1).getSubtotal(), 0.001);
+        assertEquals("Silla Previa", previa.getLineas().get(1).getNombreMueble());
+        assertEquals(cotizacionService.crearCotizacion(request).getTotal(), previa.getTotal(), 0.001);
+    }
+
+    @Test
+    void testPrevisualizar_ConCacheCalienteSoloLeeLaDisponibilidad() throws Exception {
+        Long repisa = crearMueble("Repisa Previa", 8000.0, 10);
+        CotizacionRequestDTO request = solicitud(linea(repisa, 1L, 2));
+
+        previsualizar(request).andExpect(SentenciasSql.maximo(3));
+        previsualizar(request)
+                .andExpect(jsonPath("$.lineas[0].disponible").value(true))
+                .andExpect(SentenciasSql.exactamente(1));
+    }
+
+    @Test
+    void testPrevisualizar_MuchosMueblesEnFrioEnUnaSolaLectura() throws Exception {
+        List<DetalleRequestDTO> lineas = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            lineas.add(linea(crearMueble("Cajón Previo " + i, 1000.0 + i, 5), 1L, 1));
+        }
+        CotizacionRequestDTO request = solicitud(lineas.toArray(DetalleRequestDTO[]::new));
+
+        // Variantes + un findAllById con los 15 muebles + disponibilidad, no una lectura por mueble
+        previsualizar(request)
+                .andExpect(jsonPath("$.lineas.length()").value(15))
+                .andExpect(jsonPath("$.confirmable").value(true))
+                .andExpect(SentenciasSql.maximo(3));
+        previsualizar(request).andExpect(SentenciasSql.exactamente(1));
+    }
+
+    @Test
+    void testPrevisualizar_DemasiadosMueblesDistintos400() throws Exception {
+        List<DetalleRequestDTO> lineas = new ArrayList<>();
+        for (long id = 1; id <= ReservaStockService.MAXIMO_IDS_DISPONIBILIDAD + 1; id++) {
+            lineas.add(linea(id, 1L, 1));
+        }
+
+        mockMvc.perform(post("/api/cotizaciones/previsualizar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(solicitud(lineas.toArray(DetalleRequestDTO[]::new)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(containsString("Demasiados muebles distintos")))
+                .andExpect(SentenciasSql.exactamente(0));
+    }
+
+    @Test
+    void testPrevisualizar_StockSeSumaEntreLineasDelMismoMueble() throws Exception {
+        Long banco = crearMueble("Banco Previo", 3000.0, 5);
+
+        previsualizar(solicitud(linea(banco, 1L, 3), linea(banco, 2L, 3)))
+                .andExpect(jsonPath("$.confirmable").value(false))
+                .andExpect(jsonPath("$.lineas[0].disponible").value(false))
+                .andExpect(jsonPath("$.lineas[0].motivo").value("Stock insuficiente para: Banco Previo"));
+    }
+
+    @Test
+    void testPrevisualizar_ReflejaCambiosDespuesDeConfirmarYDesactivar() throws Exception {
+        Long velador = crearMueble("Velador Previo", 4000.0, 3);
+        CotizacionRequestDTO dos = solicitud(linea(velador, 1L, 2));
+
+        previsualizar(dos).andExpect(jsonPath("$.confirmable").value(true));
+        Long idCotizacion = cotizacionService.crearCotizacion(dos).getIdCotizacion();
+        // Las 2 quedan reservadas por la cotización pendiente: libre solo 1
+        previsualizar(dos).andExpect(jsonPath("$.confirmable").value(false));
+        cotizacionService.confirmarVenta(idCotizacion);
+        // Queda 1 en stock y nada reservado
+        previsualizar(dos).andExpect(jsonPath("$.confirmable").value(false));
+        previsualizar(solicitud(linea(velador, 1L, 1))).andExpect(jsonPath("$.confirmable").value(true));
+
+        muebleService.desactivarMueble(velador);
+        previsualizar(solicitud(linea(velador, 1L, 1)))
+                .andExpect(jsonPath("$.lineas[0].motivo").value("El producto 'Velador Previo' no está disponible (inactivo)."));
+    }
+
+    private ResultActions previsualizar(CotizacionRequestDTO request) throws Exception {
+        return mockMvc.perform(post("/api/cotizaciones/previsualizar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isOk());
+    }
+
+    private static DetalleRequestDTO linea(Long idMueble, Long idVariante, int cantidad) {
+        DetalleRequestDTO detalle = new DetalleRequestDTO();
+        detalle.setIdMueble(idMueble);
+        detalle.setIdVariante(idVariante);
+        detalle.setCantidad(cantidad);
+        return detalle;
+    }
+
+    private static CotizacionRequestDTO solicitud(DetalleRequestDTO... lineas) {
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(new ArrayList<>(List.of(lineas)));
+        return request;
+    }
+
+    private Long crearMueble(String nombre, double precio, int stock) {
+        MuebleDTO dto = new MuebleDTO();
+        dto.setNombreMueble(nombre);
+        dto.setTipo("Mesa");
+        dto.setMaterial("Pino");
+        dto.setTamanio("MEDIANO");
+        dto.setPrecioBase(precio);
+        dto.setStock(stock);
+        return muebleService.crearMueble(dto).getIdMueble();
+    }
+}
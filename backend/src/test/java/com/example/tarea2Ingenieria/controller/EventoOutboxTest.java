@@ -0,0 +1,162 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.example.tarea2Ingenieria.sql.SentenciasSql;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.AjusteMasivoDTO;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.dto.EventoDominioDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.event.EventosDominioPublicadosEvent;
+import com.tarea2Ingenieria.service.CotizacionService;
+import com.tarea2Ingenieria.service.EventoOutboxService;
+import com.tarea2Ingenieria.service.MuebleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// El relay programado queda detenido (cada una hora) para publicar a mano y comparar posiciones sin carreras
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class, properties = "app.outbox.relay-ms=3600000")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@RecordApplicationEvents
+class EventoOutboxTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EventoOutboxService eventoOutboxService;
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEvents applicationEvents;
+
+    @Test
+    void testVenta_EventosDeCotizacionVentaYStockEnOrden() {
+        long desde = publicarTodo();
+        Long mesa = crearMueble("Mesa Evento", 5);
+        Long idCotizacion = cotizacionService.crearCotizacion(solicitud(mesa, 2)).getIdCotizacion();
+        cotizacionService.confirmarVenta(idCotizacion);
+
+        assertEquals(4, eventoOutboxService.publicarPendientes());
+
+        List<EventoDominioDTO> eventos = eventoOutboxService.getEventos(desde, 100);
+        assertEquals(List.of("MUEBLE_CREADO", "COTIZACION_CREADA", "VENTA_CONFIRMADA", "STOCK_MUEBLE_CAMBIADO"),
+                eventos.stream().map(EventoDominioDTO::getTipo).toList());
+        assertEquals(List.of(desde + 1, desde + 2, desde + 3, desde + 4),
+                eventos.stream().map(EventoDominioDTO::getPosicion).toList());
+        assertEquals(idCotizacion, eventos.get(2).getIdAgregado());
+        assertEquals(mesa, eventos.get(3).getIdAgregado());
+        assertTrue(eventos.get(3).getDatos().contains("\"diferencia\":-2"));
+
+        // El sink en proceso recibió el mismo lote
+        List<EventoDominioDTO> recibidos = applicationEvents.stream(EventosDominioPublicadosEvent.class)
+                .flatMap(evento -> evento.eventos().stream())
+                .filter(evento -> evento.getPosicion() > desde)
+                .toList();
+        assertEquals(eventos, recibidos);
+    }
+
+    @Test
+    void testTransaccionRevertida_NoDejaEventos() {
+        Long silla = crearMueble("Silla Sin Evento", 1);
+        int antes = pendientes();
+
+        assertThrows(RuntimeException.class, () -> cotizacionService.crearCotizacion(solicitud(silla, 3)));
+
+        assertEquals(antes, pendientes());
+    }
+
+    @Test
+    void testAjusteMasivo_UnEventoDeStockPorMuebleConElStockFinal() {
+        long desde = publicarTodo();
+        Long repisa = crearMueble("Repisa Ajustada", 4);
+        Long banco = crearMueble("Banco Ajustado", 7);
+        AjusteMasivoDTO ajuste = new AjusteMasivoDTO();
+        ajuste.setIds(List.of(repisa, banco));
+        ajuste.setDeltaStock(3);
+        muebleService.ajustarMasivo(ajuste, false);
+        eventoOutboxService.publicarPendientes();
+
+        List<String> stock = eventoOutboxService.getEventos(desde, 100).stream()
+                .filter(evento -> evento.getTipo().equals("STOCK_MUEBLE_CAMBIADO"))
+                .map(EventoDominioDTO::getDatos)
+                .toList();
+        assertEquals(List.of(
+                "{\"idMueble\":" + repisa + ",\"stock\":7,\"precioBase\":10000.0}",
+                "{\"idMueble\":" + banco + ",\"stock\":10,\"precioBase\":10000.0}"), stock);
+    }
+
+    @Test
+    void testFeed_DesdeUnaPosicionConUnaSolaConsulta() throws Exception {
+        long desde = publicarTodo();
+        Long velador = crearMueble("Velador Feed", 2);
+        crearMueble("Cómoda Feed", 2);
+        eventoOutboxService.publicarPendientes();
+
+        mockMvc.perform(get("/api/eventos").param("desde", String.valueOf(desde)).param("limite", "1"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.exactamente(1))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].posicion").value(desde + 1))
+                .andExpect(jsonPath("$[0].tipo").value("MUEBLE_CREADO"))
+                .andExpect(jsonPath("$[0].datos.nombreMueble").value("Velador Feed"))
+                .andExpect(jsonPath("$[0].idAgregado").value(velador));
+
+        mockMvc.perform(get("/api/eventos").param("desde", String.valueOf(desde + 2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    // Publica lo que hayan dejado otros tests y devuelve la última posición
+    private long publicarTodo() {
+        eventoOutboxService.publicarPendientes();
+        return jdbcTemplate.queryForObject("SELECT COALESCE(MAX(posicion), 0) FROM eventos_outbox", Long.class);
+    }
+
+    private int pendientes() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM eventos_outbox WHERE posicion IS NULL", Integer.class);
+    }
+
+    private static CotizacionRequestDTO solicitud(Long idMueble, int cantidad) {
+        DetalleRequestDTO detalle = new DetalleRequestDTO();
+        detalle.setIdMueble(idMueble);
+        detalle.setIdVariante(1L);
+        detalle.setCantidad(cantidad);
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(List.of(detalle));
+        return request;
+    }
+
+    private Long crearMueble(String nombre, int stock) {
+        MuebleDTO dto = new MuebleDTO();
+        dto.setNombreMueble(nombre);
+        dto.setTipo("Mesa");
+        dto.setMaterial("Pino");
+        dto.setTamanio("MEDIANO");
+        dto.setPrecioBase(10000.0);
+        dto.setStock(stock);
+        return muebleService.crearMueble(dto).getIdMueble();
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.example.tarea2Ingenieria.sql.SentenciasSql;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.service.IdempotenciaService;
+import com.tarea2Ingenieria.service.MuebleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotenciaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCrear_ReintentoConLaMismaClaveDevuelveLaMismaCotizacion() throws Exception {
+        Long mesa = crearMueble("Mesa Reintentada", 5);
+        String cuerpo = objectMapper.writeValueAsString(solicitud(mesa, 2));
+
+        String primera = crear(cuerpo, "crear-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotenciaService.CABECERA_REPRODUCIDA))
+                .andReturn().getResponse().getContentAsString();
+
+        String repetida = crear(cuerpo, "crear-1")
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotenciaService.CABECERA_REPRODUCIDA, "true"))
+                .andExpect(SentenciasSql.exactamente(0))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(primera, repetida);
+        assertEquals(2, reservado(mesa));
+    }
+
+    @Test
+    void testCrear_MismaClaveConOtraSolicitud422() throws Exception {
+        Long silla = crearMueble("Silla Clave Usada", 5);
+        crear(objectMapper.writeValueAsString(solicitud(silla, 1)), "crear-2").andExpect(status().isCreated());
+
+        crear(objectMapper.writeValueAsString(solicitud(silla, 3)), "crear-2")
+                .andExpect(status().isUnprocessableEntity());
+        assertEquals(1, reservado(silla));
+    }
+
+    @Test
+    void testConfirmar_ReintentoDevuelve200EnVezDeYaConfirmada() throws Exception {
+        Long banco = crearMueble("Banco Reconfirmado", 3);
+        Long id = objectMapper.readTree(crear(objectMapper.writeValueAsString(solicitud(banco, 1)), "crear-3")
+                .andReturn().getResponse().getContentAsString()).get("idCotizacion").asLong();
+
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/cotizaciones/{id}/confirmar", id).header(IdempotenciaService.CABECERA, "confirmar-3"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.estado").value("CONFIRMADA"));
+        }
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT stock FROM muebles WHERE id_mueble = ?", Integer.class, banco));
+    }
+
+    @Test
+    void testErrorNoSeGuarda_ElReintentoVuelveAEjecutar() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+
+        assertThrows(RuntimeException.class, () -> idempotenciaService.ejecutar("prueba", "falla-1", 1, String.class, () -> {
+            ejecuciones.incrementAndGet();
+            throw new RuntimeException("Stock insuficiente");
+        }));
+        ResponseEntity<String> reintento = idempotenciaService.ejecutar("prueba", "falla-1", 1, String.class, () -> {
+            ejecuciones.incrementAndGet();
+            return ResponseEntity.ok("listo");
+        });
+
+        assertEquals("listo", reintento.getBody());
+        assertEquals(2, ejecuciones.get());
+    }
+
+    @Test
+    void testDuplicadosSimultaneos_UnaSolaEjecucion() throws Exception {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        CountDownLatch largada = new CountDownLatch(1);
+        ExecutorService hilos = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<String>>> respuestas = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                respuestas.add(hilos.submit(() -> {
+                    largada.await();
+                    return idempotenciaService.ejecutar("prueba", "simultanea-1", "mismo cuerpo", String.class, () -> {
+                        ejecuciones.incrementAndGet();
+                        dormir(200);
+                        return ResponseEntity.ok("cotizacion-" + ejecuciones.get());
+                    });
+                }));
+            }
+            largada.countDown();
+            for (Future<ResponseEntity<String>> respuesta : respuestas) {
+                assertEquals("cotizacion-1", respuesta.get().getBody());
+            }
+        } finally {
+            hilos.shutdownNow();
+        }
+        assertEquals(1, ejecuciones.get());
+    }
+
+    private ResultActions crear(String cuerpo, String clave) throws Exception {
+        return mockMvc.perform(post("/api/cotizaciones")
+                .header(IdempotenciaService.CABECERA, clave)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cuerpo));
+    }
+
+    private int reservado(Long idMueble) {
+        return jdbcTemplate.queryForObject("SELECT reservado FROM muebles WHERE id_mueble = ?", Integer.class, idMueble);
+    }
+
+    private static void dormir(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static CotizacionRequestDTO solicitud(Long idMueble, int cantidad) {
+        DetalleRequestDTO detalle = new DetalleRequestDTO();
+        detalle.setIdMueble(idMueble);
+        detalle.setIdVariante(1L);
+        detalle.setCantidad(cantidad);
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(List.of(detalle));
+        return request;
+    }
+
+    private Long crearMueble(String nombre, int stock) {
+        MuebleDTO dto = new MuebleDTO();
+        dto.setNombreMueble(nombre);
+        dto.setTipo("Mesa");
+        dto.setMaterial("Pino");
+        dto.setTamanio("MEDIANO");
+        dto.setPrecioBase(10000.0);
+        dto.setStock(stock);
+        return muebleService.crearMueble(dto).getIdMueble();
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.service.CotizacionService;
+import com.tarea2Ingenieria.service.MuebleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@ActiveProfiles("test")
+class MetricasPrometheusTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Test
+    void testServicios_RegistranTimers() {
+        DetalleRequestDTO detalle = new DetalleRequestDTO();
+        detalle.setIdMueble(1L);
+        detalle.setIdVariante(1L);
+        detalle.setCantidad(1);
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(List.of(detalle));
+        cotizacionService.crearCotizacion(request);
+
+        MuebleDTO cambio = new MuebleDTO();
+        cambio.setStock(25);
+        muebleService.actualizarParcialMueble(1L, cambio);
+
+        assertTrue(meterRegistry.get("cotizaciones.crear").timer().count() >= 1);
+        assertTrue(meterRegistry.get("muebles.mutaciones").tag("operacion", "actualizar_parcial").timer().count() >= 1);
+    }
+
+    @Test
+    void testPrometheus_ExponeServiciosRepositoriosPoolYHibernate() throws Exception {
+        muebleService.getMuebleById(2L);
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(scrape.contains("spring_data_repository_invocations_seconds_count"), "faltan métricas de repositorios");
+        assertTrue(scrape.contains("hikaricp_connections_active"), "faltan métricas del pool");
+        assertTrue(scrape.contains("hibernate_statements_total"), "faltan estadísticas de Hibernate");
+    }
+}
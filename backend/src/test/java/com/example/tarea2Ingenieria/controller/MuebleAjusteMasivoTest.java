@@ -0,0 +1,146 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.example.tarea2Ingenieria.sql.SentenciasSql;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.service.MuebleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MuebleAjusteMasivoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MuebleRepository muebleRepository;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testAjuste_TamanioDesconocido400SinTocarNada() throws Exception {
+        mockMvc.perform(post("/api/muebles/ajustes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tamanio\":\"gigante\",\"porcentajePrecio\":10}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value(containsString("gigante")))
+                .andExpect(SentenciasSql.exactamente(0));
+    }
+
+    @Test
+    void testSimulacion_SoloCuenta() throws Exception {
+        Mueble perchero = crearMueble("Perchero", "Metal", 10000.0, 5);
+
+        mockMvc.perform(post("/api/muebles/ajustes").param("simular", "true")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tipo\":\"perchero\",\"porcentajePrecio\":10}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.afectados").value(1))
+                .andExpect(jsonPath("$.simulado").value(true))
+                .andExpect(SentenciasSql.exactamente(1));
+
+        assertEquals(10000.0, muebleRepository.findById(perchero.getIdMueble()).orElseThrow().getPrecioBase());
+    }
+
+    @Test
+    void testAjuste_PorTipoYMaterialEnUnUpdateYCacheConsistente() throws Exception {
+        Mueble roble = crearMueble("Banqueta", "Roble", 19990.0, 3);
+        Mueble pino = crearMueble("Banqueta", "Pino", 14990.0, 3);
+        MuebleDTO enCache = muebleService.getMuebleById(roble.getIdMueble());
+
+        mockMvc.perform(post("/api/muebles/ajustes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tipo\":\"Banqueta\",\"material\":\"Roble\",\"porcentajePrecio\":10,\"deltaStock\":-5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.afectados").value(1))
+                // ids + UPDATE + INSERT ... SELECT de los eventos de stock
+                .andExpect(SentenciasSql.exactamente(3));
+
+        Mueble ajustado = muebleRepository.findById(roble.getIdMueble()).orElseThrow();
+        assertEquals(21989.0, ajustado.getPrecioBase());
+        assertEquals(0, ajustado.getStock()); // 3 - 5 queda en 0, no negativo
+        assertEquals(roble.getVersion() + 1, ajustado.getVersion());
+        assertEquals(14990.0, muebleRepository.findById(pino.getIdMueble()).orElseThrow().getPrecioBase());
+
+        MuebleDTO releido = muebleService.getMuebleById(roble.getIdMueble());
+        assertNotSame(enCache, releido);
+        assertEquals(21989.0, releido.getPrecioBase());
+    }
+
+    @Test
+    void testAjuste_StockNoBajaDeLoReservado() throws Exception {
+        Mueble mueble = crearMueble("Aparador", "Raulí", 89990.0, 10);
+        // 4 unidades retenidas por cotizaciones pendientes
+        jdbcTemplate.update("UPDATE muebles SET reservado = 4 WHERE id_mueble = ?", mueble.getIdMueble());
+
+        mockMvc.perform(post("/api/muebles/ajustes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[" + mueble.getIdMueble() + "],\"deltaStock\":-8}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.afectados").value(1));
+
+        Mueble ajustado = muebleRepository.findById(mueble.getIdMueble()).orElseThrow();
+        assertEquals(4, ajustado.getStock()); // 10 - 8 quedaría bajo las 4 unidades reservadas
+        assertEquals(4, ajustado.getReservado());
+    }
+
+    @Test
+    void testAjuste_PresupuestoCreceConLosBloquesDeMilIds() throws Exception {
+        List<Mueble> muebles = new ArrayList<>();
+        for (int i = 0; i < 2500; i++) {
+            Mueble mueble = nuevoMueble("Biombo", "Bambú", 30000.0, 5);
+            mueble.setNombreMueble("Biombo " + i);
+            muebles.add(mueble);
+        }
+        muebleRepository.saveAll(muebles);
+
+        mockMvc.perform(post("/api/muebles/ajustes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"tipo\":\"Biombo\",\"porcentajePrecio\":5}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.afectados").value(2500))
+                // ids + (UPDATE + INSERT de eventos) por cada uno de los 3 bloques
+                .andExpect(SentenciasSql.exactamente(7));
+    }
+
+    private Mueble crearMueble(String tipo, String material, double precio, int stock) {
+        return muebleRepository.save(nuevoMueble(tipo, material, precio, stock));
+    }
+
+    private static Mueble nuevoMueble(String tipo, String material, double precio, int stock) {
+        Mueble mueble = new Mueble();
+        mueble.setNombreMueble(tipo + " " + material);
+        mueble.setTipo(tipo);
+        mueble.setMaterial(material);
+        mueble.setPrecioBase(precio);
+        mueble.setStock(stock);
+        mueble.setTamanio(TamanioMueble.PEQUENO);
+        mueble.setEstado(EstadoMueble.ACTIVO);
+        return mueble;
+    }
+}
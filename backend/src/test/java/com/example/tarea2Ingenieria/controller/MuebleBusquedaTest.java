@@ -0,0 +1,133 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.example.tarea2Ingenieria.sql.SentenciasSql;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MuebleBusquedaTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MuebleRepository muebleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeAll
+    void crearRepisas() {
+        crear("Repisa Roble 1", "Roble", TamanioMueble.PEQUENO, 12000.0, EstadoMueble.ACTIVO);
+        crear("Repisa Roble 2", "Roble", TamanioMueble.MEDIANO, 18000.0, EstadoMueble.ACTIVO);
+        crear("Repisa Roble 3", "Roble", TamanioMueble.GRANDE, 26000.0, EstadoMueble.ACTIVO);
+        crear("Repisa Roble 4", "Roble", TamanioMueble.GRANDE, 31000.0, EstadoMueble.ACTIVO);
+        crear("Repisa Roble Inactiva", "Roble", TamanioMueble.GRANDE, 20000.0, EstadoMueble.INACTIVO);
+        crear("Repisa Pino", "Pino", TamanioMueble.MEDIANO, 15000.0, EstadoMueble.ACTIVO);
+    }
+
+    @Test
+    void testBuscar_FiltraPaginaYOrdena() throws Exception {
+        mockMvc.perform(get("/api/muebles/buscar")
+                        .param("tipo", "Repisa")
+                        .param("material", "Roble")
+                        .param("precioMin", "15000")
+                        .param("sort", "precioBase,desc")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(2))
+                .andExpect(jsonPath("$.content[0].nombreMueble").value("Repisa Roble 4"))
+                .andExpect(jsonPath("$.content[1].nombreMueble").value("Repisa Roble 3"))
+                .andExpect(jsonPath("$.page.totalElements").value(3))
+                .andExpect(jsonPath("$.page.totalPages").value(2))
+                .andExpect(SentenciasSql.maximo(2));
+    }
+
+    @Test
+    void testBuscar_PorTamanioYRangoDePrecio() throws Exception {
+        mockMvc.perform(get("/api/muebles/buscar")
+                        .param("tipo", "Repisa")
+                        .param("tamanio", "mediano")
+                        .param("precioMax", "16000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].nombreMueble").value("Repisa Pino"));
+    }
+
+    @Test
+    void testBuscar_TextoSinDistinguirMayusculas() throws Exception {
+        mockMvc.perform(get("/api/muebles/buscar")
+                        .param("tipo", "REPISA")
+                        .param("material", "pino"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content.length()").value(1))
+                .andExpect(jsonPath("$.content[0].nombreMueble").value("Repisa Pino"));
+    }
+
+    @Test
+    void testBuscar_TamanioDePaginaAcotado() throws Exception {
+        mockMvc.perform(get("/api/muebles/buscar").param("size", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.page.size").value(100));
+    }
+
+    @Test
+    void testBuscar_OrdenNoPermitido400() throws Exception {
+        mockMvc.perform(get("/api/muebles/buscar").param("sort", "version"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.detail").value("No se puede ordenar por: version"))
+                .andExpect(SentenciasSql.exactamente(0));
+    }
+
+    @Test
+    void testBuscar_TamanioDesconocido400() throws Exception {
+        mockMvc.perform(get("/api/muebles/buscar").param("tamanio", "gigante"))
+                .andExpect(status().isBadRequest())
+                .andExpect(SentenciasSql.exactamente(0));
+    }
+
+    @Test
+    void testIndicesDeBusquedaCreados() {
+        List<String> indices = jdbcTemplate.queryForList(
+                "SELECT LOWER(index_name) FROM information_schema.indexes WHERE LOWER(table_name) = 'muebles'", String.class);
+
+        assertTrue(indices.containsAll(List.of(
+                "idx_muebles_estado_tipo_material_precio",
+                "idx_muebles_estado_material_precio",
+                "idx_muebles_estado_tamanio_precio",
+                "idx_muebles_estado_precio")), indices.toString());
+    }
+
+    private void crear(String nombre, String material, TamanioMueble tamanio, double precio, EstadoMueble estado) {
+        Mueble mueble = new Mueble();
+        mueble.setNombreMueble(nombre);
+        mueble.setTipo("Repisa");
+        mueble.setMaterial(material);
+        mueble.setTamanio(tamanio);
+        mueble.setPrecioBase(precio);
+        mueble.setStock(10);
+        mueble.setEstado(estado);
+        muebleRepository.save(mueble);
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.example.tarea2Ingenieria.sql.SentenciasSql;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.service.BusquedaTextoMuebleService;
+import com.tarea2Ingenieria.service.MuebleService;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MuebleBusquedaTextoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private BusquedaTextoMuebleService busquedaTextoMuebleService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private MuebleDTO sofa;
+
+    @BeforeAll
+    void crearMuebles() {
+        sofa = crear("Sofá Zaragoza 3 Cuerpos", "Sofa", "Lino");
+        crear("Mesa Zaragoza Roble", "Mesa", "Roble");
+        crear("Banqueta Zaragoza", "Banqueta", "Roble");
+        busquedaTextoMuebleService.aplicarCambiosPendientes();
+    }
+
+    @Test
+    void testBuscar_SinTildesNiMayusculas() throws Exception {
+        mockMvc.perform(get("/api/muebles/texto").param("q", "SOFA zaragoza"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].nombreMueble").value("Sofá Zaragoza 3 Cuerpos"))
+                .andExpect(jsonPath("$[0].material").value("Lino"))
+                .andExpect(SentenciasSql.exactamente(0));
+    }
+
+    @Test
+    void testBuscar_PorPrefijo() {
+        List<MuebleDTO> resultado = busquedaTextoMuebleService.buscar("zaragoza banq", 10);
+
+        assertEquals(List.of("Banqueta Zaragoza"), nombres(resultado));
+    }
+
+    @Test
+    void testBuscar_ToleraErroresDeTipeo() {
+        List<MuebleDTO> resultado = busquedaTextoMuebleService.buscar("zaragosa robel", 10);
+
+        assertEquals(2, resultado.size());
+    }
+
+    @Test
+    void testBuscar_NombrePesaMasQueMaterial() {
+        // "Mesa Zaragoza Roble" lo tiene en el nombre; la banqueta solo en el material
+        List<MuebleDTO> resultado = busquedaTextoMuebleService.buscar("zaragoza roble", 10);
+
+        assertEquals(List.of("Mesa Zaragoza Roble", "Banqueta Zaragoza"), nombres(resultado));
+    }
+
+    @Test
+    void testBuscar_TextoVacio() throws Exception {
+        mockMvc.perform(get("/api/muebles/texto").param("q", "  "))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+
+    @Test
+    void testIndice_SeActualizaConCadaMutacion() {
+        MuebleDTO biombo = crear("Biombo Teruel", "Biombo", "Bambú");
+        busquedaTextoMuebleService.aplicarCambiosPendientes();
+        assertEquals(List.of("Biombo Teruel"), nombres(busquedaTextoMuebleService.buscar("teruel bambu", 10)));
+
+        MuebleDTO cambios = new MuebleDTO();
+        cambios.setNombreMueble("Biombo Huesca");
+        muebleService.actualizarParcialMueble(biombo.getIdMueble(), cambios);
+        busquedaTextoMuebleService.aplicarCambiosPendientes();
+        assertTrue(busquedaTextoMuebleService.buscar("teruel", 10).isEmpty());
+        assertEquals(List.of("Biombo Huesca"), nombres(busquedaTextoMuebleService.buscar("huesca", 10)));
+
+        muebleService.desactivarMueble(biombo.getIdMueble());
+        busquedaTextoMuebleService.aplicarCambiosPendientes();
+        assertTrue(busquedaTextoMuebleService.buscar("huesca", 10).isEmpty());
+
+        muebleService.activarMueble(biombo.getIdMueble());
+        busquedaTextoMuebleService.aplicarCambiosPendientes();
+        assertEquals(List.of("Biombo Huesca"), nombres(busquedaTextoMuebleService.buscar("huesca", 10)));
+    }
+
+    @Test
+    void testReconstruirIndice_TomaFilasInsertadasPorFuera() {
+        jdbcTemplate.update("INSERT INTO muebles (nombre_mueble, tipo, material, precio_base, stock, tamanio, estado, version) "
+                + "VALUES ('Cómoda Albarracín', 'Comoda', 'Pino', 90000, 3, 'GRANDE', 'ACTIVO', 0)");
+        assertTrue(busquedaTextoMuebleService.buscar("albarracin", 10).isEmpty());
+
+        busquedaTextoMuebleService.reconstruirIndice();
+
+        List<MuebleDTO> resultado = busquedaTextoMuebleService.buscar("albarracin", 10);
+        assertEquals(List.of("Cómoda Albarracín"), nombres(resultado));
+        assertEquals(90000.0, resultado.get(0).getPrecioBase());
+        assertEquals(3, resultado.get(0).getStock());
+        // Lo que ya estaba indexado sigue ahí después de reconstruir
+        List<MuebleDTO> sofas = busquedaTextoMuebleService.buscar("zaragoza cuerpos", 10);
+        assertEquals(1, sofas.size());
+        assertEquals(sofa.getIdMueble(), sofas.get(0).getIdMueble());
+    }
+
+    private MuebleDTO crear(String nombre, String tipo, String material) {
+        MuebleDTO dto = new MuebleDTO();
+        dto.setNombreMueble(nombre);
+        dto.setTipo(tipo);
+        dto.setMaterial(material);
+        dto.setTamanio("MEDIANO");
+        dto.setPrecioBase(50000.0);
+        dto.setStock(5);
+        return muebleService.crearMueble(dto);
+    }
+
+    private static List<String> nombres(List<MuebleDTO> muebles) {
+        return muebles.stream().map(MuebleDTO::getNombreMueble).toList();
+    }
+}
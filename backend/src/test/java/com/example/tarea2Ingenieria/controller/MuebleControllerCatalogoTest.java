@@ -0,0 +1,95 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.service.MuebleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MuebleControllerCatalogoTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testCatalogo_IfNoneMatchVigenteDevuelve304() throws Exception {
+        MvcResult primera = mockMvc.perform(get("/api/muebles"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn();
+        String etag = primera.getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/muebles").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void testCatalogo_MutacionCambiaElEtag() throws Exception {
+        String etag = mockMvc.perform(get("/api/muebles"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        MuebleDTO cambio = new MuebleDTO();
+        cambio.setPrecioBase(17500.0);
+        muebleService.actualizarParcialMueble(1L, cambio);
+
+        MvcResult despues = mockMvc.perform(get("/api/muebles").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertNotEquals(etag, despues.getResponse().getHeader(HttpHeaders.ETAG));
+        assertTrue(despues.getResponse().getContentAsString().contains("17500.0"));
+    }
+
+    @Test
+    void testCatalogo_VarianteGzipEsElMismoJson() throws Exception {
+        byte[] plano = mockMvc.perform(get("/api/muebles"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        MvcResult comprimida = mockMvc.perform(get("/api/muebles").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(comprimida.getResponse().getContentAsByteArray()))) {
+            assertArrayEquals(plano, gzip.readAllBytes());
+        }
+        assertEquals(muebleService.getMueblesActivos().size(), objectMapper.readTree(plano).size());
+    }
+
+    @Test
+    void testCatalogo_GzipConQCeroNoSeComprime() throws Exception {
+        for (String acceptEncoding : new String[]{"gzip;q=0", "gzip;q=0.000, deflate", "*;q=1, gzip;q=0", "identity"}) {
+            mockMvc.perform(get("/api/muebles").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                    .andExpect(status().isOk())
+                    .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING));
+        }
+        for (String acceptEncoding : new String[]{"GZIP;q=0.5", "br;q=1, *;q=0.1"}) {
+            mockMvc.perform(get("/api/muebles").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.service.MuebleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MuebleControllerIfMatchTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void testPut_ElEtagDevueltoSirveParaElSiguientePut() throws Exception {
+        MuebleDTO mueble = crearMueble("Repisa Versionada");
+        mueble.setStock(6);
+        String etag = actualizar(mueble.getIdMueble(), mueble, "\"" + mueble.getVersion() + "\"")
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertEquals("\"" + (mueble.getVersion() + 1) + "\"", etag);
+
+        mueble.setPrecioBase(12000.0);
+        actualizar(mueble.getIdMueble(), mueble, etag)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.precioBase").value(12000.0));
+    }
+
+    @Test
+    void testPatch_ElEtagDevueltoSirveYElAnteriorDa409() throws Exception {
+        MuebleDTO mueble = crearMueble("Baúl Versionado");
+        String anterior = "\"" + mueble.getVersion() + "\"";
+        String etag = mockMvc.perform(patch("/api/muebles/{id}", mueble.getIdMueble())
+                        .header(HttpHeaders.IF_MATCH, anterior)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stock\":7}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(patch("/api/muebles/{id}", mueble.getIdMueble())
+                        .header(HttpHeaders.IF_MATCH, etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stock\":8}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/api/muebles/{id}", mueble.getIdMueble())
+                        .header(HttpHeaders.IF_MATCH, anterior)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"stock\":9}"))
+                .andExpect(status().isConflict());
+    }
+
+    private ResultActions actualizar(Long id, MuebleDTO mueble, String ifMatch) throws Exception {
+        return mockMvc.perform(put("/api/muebles/{id}", id)
+                .header(HttpHeaders.IF_MATCH, ifMatch)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(mueble)));
+    }
+
+    private MuebleDTO crearMueble(String nombre) {
+        MuebleDTO dto = new MuebleDTO();
+        dto.setNombreMueble(nombre);
+        dto.setTipo("Estantería");
+        dto.setMaterial("Pino");
+        dto.setTamanio("MEDIANO");
+        dto.setPrecioBase(10000.0);
+        dto.setStock(5);
+        return muebleService.crearMueble(dto);
+    }
+}
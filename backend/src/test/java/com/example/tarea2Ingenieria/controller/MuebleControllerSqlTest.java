@@ -0,0 +1,66 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.example.tarea2Ingenieria.sql.SentenciasSql;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MuebleControllerSqlTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testCatalogo_SnapshotVigenteNoConsultaLaBase() throws Exception {
+        mockMvc.perform(get("/api/muebles"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.maximo(1));
+        mockMvc.perform(get("/api/muebles"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.exactamente(0));
+    }
+
+    @Test
+    void testMueblePorId_CacheadoNoConsultaLaBase() throws Exception {
+        mockMvc.perform(get("/api/muebles/2"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.maximo(1));
+        mockMvc.perform(get("/api/muebles/2"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.exactamente(0));
+    }
+
+    @Test
+    void testActualizacionParcial_LecturaYUpdate() throws Exception {
+        mockMvc.perform(patch("/api/muebles/2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"material\":\"Pino Oregón\"}"))
+                .andExpect(status().isOk())
+                // lectura + UPDATE + evento MUEBLE_ACTUALIZADO del outbox
+                .andExpect(SentenciasSql.exactamente(3));
+    }
+
+    @Test
+    void testDisponibilidad_UnaLecturaSinCache() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/muebles/disponibilidad").param("ids", "1,2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.length()").value(2))
+                    .andExpect(jsonPath("$[0].disponible").isNumber())
+                    .andExpect(SentenciasSql.exactamente(1));
+        }
+    }
+}
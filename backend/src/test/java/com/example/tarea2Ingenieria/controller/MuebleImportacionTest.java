@@ -0,0 +1,129 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.service.MuebleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Lotes de 2 filas para ejercitar varios batches con pocos datos
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class, properties = "app.importacion.tamanio-lote=2")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MuebleImportacionTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Test
+    void testImportarJson_FilasInvalidasNoDetienenLaImportacion() throws Exception {
+        muebleService.getMueblesActivos(); // deja el catálogo en caché
+        String json = """
+                [
+                  {"nombreMueble": "Velador Json 1", "tipo": "Velador", "material": "Pino", "precioBase": 19990, "stock": 4, "tamanio": "pequeno"},
+                  {"nombreMueble": "Velador Json 2", "tipo": "Velador", "material": "Pino", "precioBase": -5, "stock": 4, "tamanio": "PEQUENO"},
+                  {"nombreMueble": "Velador Json 3", "tipo": "Velador", "material": "Pino", "precioBase": 19990, "stock": "muchos", "tamanio": "PEQUENO"},
+                  {"nombreMueble": "Velador Json 4", "tipo": "Velador", "material": "Roble", "precioBase": 25990, "stock": 2, "tamanio": "MEDIANO"},
+                  {"nombreMueble": "Velador Json 5", "tipo": "Velador", "material": "Roble", "precioBase": 25990, "stock": 2, "tamanio": "MEDIANO"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/muebles/importar").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filasLeidas").value(5))
+                .andExpect(jsonPath("$.insertados").value(3))
+                .andExpect(jsonPath("$.conError").value(2))
+                .andExpect(jsonPath("$.errores[0].fila").value(2))
+                .andExpect(jsonPath("$.errores[0].mensaje").value("precioBase debe ser mayor que 0"))
+                .andExpect(jsonPath("$.errores[1].fila").value(3))
+                .andExpect(jsonPath("$.errores[1].mensaje", startsWith("Formato inválido")));
+
+        // Los lotes publican MueblesModificadosEvent: el catálogo en caché ya incluye lo importado
+        assertTrue(muebleService.getMueblesActivos().stream()
+                .map(MuebleDTO::getNombreMueble)
+                .anyMatch("Velador Json 5"::equals));
+    }
+
+    @Test
+    void testImportarJson_ValoresQueNoSonObjetosSonFilasConError() throws Exception {
+        String json = """
+                [
+                  {"nombreMueble": "Cómoda Mixta 1", "tipo": "Cómoda", "material": "Pino", "precioBase": 59990, "stock": 2, "tamanio": "GRANDE"},
+                  1,
+                  [{"nombreMueble": "Anidada"}, [2, 3]],
+                  "texto",
+                  null,
+                  {"nombreMueble": "Cómoda Mixta 2", "tipo": "Cómoda", "material": "Pino", "precioBase": 59990, "stock": 2, "tamanio": "GRANDE"}
+                ]
+                """;
+
+        mockMvc.perform(post("/api/muebles/importar").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filasLeidas").value(6))
+                .andExpect(jsonPath("$.insertados").value(2))
+                .andExpect(jsonPath("$.conError").value(4))
+                .andExpect(jsonPath("$.errores[0].fila").value(2))
+                .andExpect(jsonPath("$.errores[0].mensaje").value("Se esperaba un objeto mueble y llegó un número"))
+                .andExpect(jsonPath("$.errores[1].fila").value(3))
+                .andExpect(jsonPath("$.errores[1].mensaje").value("Se esperaba un objeto mueble y llegó un arreglo"))
+                .andExpect(jsonPath("$.errores[2].fila").value(4))
+                .andExpect(jsonPath("$.errores[3].fila").value(5));
+
+        assertTrue(muebleService.getMueblesActivos().stream()
+                .map(MuebleDTO::getNombreMueble)
+                .anyMatch("Cómoda Mixta 2"::equals));
+    }
+
+    @Test
+    void testImportarCsv_ComillasYErroresPorLinea() throws Exception {
+        String csv = """
+                nombreMueble,tipo,material,precioBase,stock,tamanio
+                "Estante ""Nórdico"", 5 repisas",Estante,Pino,45990,7,GRANDE
+                Estante Bajo,Estante,Pino,abc,7,GRANDE
+                Estante Alto,Estante,Pino,55990,3,GIGANTE
+
+                Estante Esquinero,Estante,Roble,39990,1,mediano
+                """;
+
+        mockMvc.perform(post("/api/muebles/importar").contentType("text/csv").content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.filasLeidas").value(4))
+                .andExpect(jsonPath("$.insertados").value(2))
+                .andExpect(jsonPath("$.errores[0].fila").value(3))
+                .andExpect(jsonPath("$.errores[1].fila").value(4))
+                .andExpect(jsonPath("$.errores[1].mensaje").value("tamanio inválido: GIGANTE"));
+
+        assertTrue(muebleService.getMueblesActivos().stream()
+                .map(MuebleDTO::getNombreMueble)
+                .anyMatch("Estante \"Nórdico\", 5 repisas"::equals));
+    }
+
+    @Test
+    void testImportarJsonMalFormado_ConservaLoLeido() throws Exception {
+        String json = """
+                [
+                  {"nombreMueble": "Banca Corte 1", "tipo": "Banca", "material": "Pino", "precioBase": 9990, "stock": 1, "tamanio": "PEQUENO"},
+                  {"nombreMueble": "Banca Corte 2", "tipo": "Banca", "material": "Pino", "precioBase": 9990, "stock": 1, "tamanio": "PEQUENO"},
+                  {"nombreMueble": "Banca Corte 3", "tipo":
+                """;
+
+        mockMvc.perform(post("/api/muebles/importar").contentType(MediaType.APPLICATION_JSON).content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.insertados").value(2))
+                .andExpect(jsonPath("$.errores[0].fila").value(3))
+                .andExpect(jsonPath("$.errores[0].mensaje", startsWith("JSON mal formado")));
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.AjusteMasivoDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.service.EventoOutboxService;
+import com.tarea2Ingenieria.service.MuebleService;
+import com.tarea2Ingenieria.service.TransmisionMueblesService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+// Las tareas programadas quedan detenidas: el test publica el outbox y lee el feed a mano
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class, properties = {
+        "app.outbox.relay-ms=3600000", "app.sse.intervalo-ms=3600000", "app.sse.latido-ms=3600000",
+        "app.sse.pendientes-max=3"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MuebleStreamTest {
+
+    private static final Pattern ULTIMO_ID = Pattern.compile("id:(\\d+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TransmisionMueblesService transmisionMueblesService;
+
+    @Autowired
+    private EventoOutboxService eventoOutboxService;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testSuscripcion_RecibeStockYPrecioDeLoQueCambio() throws Exception {
+        Long mesa = crearMueble("Mesa En Vivo", 5);
+        MvcResult stream = suscribir(null);
+        esperarContenido(stream, "event:conectado");
+
+        MuebleDTO cambios = new MuebleDTO();
+        cambios.setPrecioBase(12500.0);
+        cambios.setStock(9);
+        muebleService.actualizarParcialMueble(mesa, cambios);
+        transmitir();
+
+        esperarContenido(stream, "{\"idMueble\":" + mesa + ",\"stock\":9,\"precioBase\":12500.0,\"estado\":\"ACTIVO\"}");
+        // MUEBLE_ACTUALIZADO y STOCK_MUEBLE_CAMBIADO del mismo mueble llegan como un solo cambio
+        assertEquals(1, contar(contenido(stream), "event:muebles"));
+    }
+
+    @Test
+    void testReconexion_ConLastEventIdRecibeLoPerdido() throws Exception {
+        Long silla = crearMueble("Silla Reconectada", 4);
+        MvcResult primera = suscribir(null);
+        String ultimoId = ultimoId(esperarContenido(primera, "event:conectado"));
+
+        // Cambios mientras el cliente estaba desconectado
+        muebleService.desactivarMueble(silla);
+        transmitir();
+
+        MvcResult segunda = suscribir(ultimoId);
+        String contenido = esperarContenido(segunda, "\"estado\":\"INACTIVO\"");
+        assertTrue(contenido.contains("event:muebles"));
+        assertFalse(contenido.contains("event:resincronizar"));
+    }
+
+    @Test
+    void testReconexion_FueraDelHistorialPideResincronizar() throws Exception {
+        MvcResult stream = suscribir("-1");
+        esperarContenido(stream, "event:resincronizar");
+
+        MvcResult invalido = suscribir("no-es-un-id");
+        esperarContenido(invalido, "event:resincronizar");
+    }
+
+    @Test
+    void testClienteDesbordado_SeDesconectaSinFrenarALosDemas() throws Exception {
+        List<Long> ids = List.of(crearMueble("Banco Masivo 1", 1), crearMueble("Banco Masivo 2", 1),
+                crearMueble("Banco Masivo 3", 1), crearMueble("Banco Masivo 4", 1));
+        transmitir();
+        double antes = meterRegistry.counter("muebles.stream.saturados").count();
+        suscribir(null);
+        int suscriptores = transmisionMueblesService.getSuscriptores();
+
+        // Un lote con más muebles que app.sse.pendientes-max
+        AjusteMasivoDTO ajuste = new AjusteMasivoDTO();
+        ajuste.setIds(ids);
+        ajuste.setDeltaStock(2);
+        muebleService.ajustarMasivo(ajuste, false);
+        transmitir();
+
+        assertTrue(meterRegistry.counter("muebles.stream.saturados").count() > antes);
+        assertTrue(transmisionMueblesService.getSuscriptores() < suscriptores);
+    }
+
+    @Test
+    void testLatido_ComentarioSinId() throws Exception {
+        MvcResult stream = suscribir(null);
+        esperarContenido(stream, "event:conectado");
+
+        transmisionMueblesService.enviarLatidos();
+
+        esperarContenido(stream, ":latido");
+    }
+
+    private MvcResult suscribir(String ultimoId) throws Exception {
+        return mockMvc.perform(ultimoId == null ? get("/api/muebles/stream")
+                        : get("/api/muebles/stream").header("Last-Event-ID", ultimoId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private void transmitir() {
+        eventoOutboxService.publicarPendientes();
+        transmisionMueblesService.transmitirCambios();
+    }
+
+    // Los envíos salen de otro hilo: se espera a que el texto aparezca en la respuesta
+    private static String esperarContenido(MvcResult stream, String esperado) throws Exception {
+        for (int i = 0; i < 250; i++) {
+            String contenido = contenido(stream);
+            if (contenido.contains(esperado)) {
+                return contenido;
+            }
+            Thread.sleep(20);
+        }
+        fail("El stream no recibió " + esperado + ": " + contenido(stream));
+        return null;
+    }
+
+    private static String contenido(MvcResult stream) throws Exception {
+        return stream.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static String ultimoId(String contenido) {
+        Matcher matcher = ULTIMO_ID.matcher(contenido);
+        String ultimo = null;
+        while (matcher.find()) {
+            ultimo = matcher.group(1);
+        }
+        return ultimo;
+    }
+
+    private static int contar(String texto, String buscado) {
+        return texto.split(Pattern.quote(buscado), -1).length - 1;
+    }
+
+    private Long crearMueble(String nombre, int stock) {
+        MuebleDTO dto = new MuebleDTO();
+        dto.setNombreMueble(nombre);
+        dto.setTipo("Banco");
+        dto.setMaterial("Pino");
+        dto.setTamanio("MEDIANO");
+        dto.setPrecioBase(10000.0);
+        dto.setStock(stock);
+        return muebleService.crearMueble(dto).getIdMueble();
+    }
+}
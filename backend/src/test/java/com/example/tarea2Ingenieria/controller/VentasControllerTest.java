@@ -0,0 +1,194 @@
+package com.example.tarea2Ingenieria.controller;
+
+import com.example.tarea2Ingenieria.sql.SentenciasSql;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.service.CotizacionService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class VentasControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private MuebleRepository muebleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testConfirmarVenta_SumaEnLosResumenesDelDia() throws Exception {
+        Long sillon = crearMueble("Sillón Resumen", 1000.0, 50);
+        Long vitrina = crearMueble("Vitrina Resumen", 5000.0, 50);
+        double antes = ingresosDeHoy();
+
+        double totalSillon = confirmar(sillon, 3) + confirmar(sillon, 2);
+        double totalVitrina = confirmar(vitrina, 1);
+
+        assertEquals(antes + totalSillon + totalVitrina, ingresosDeHoy(), 0.001);
+        JsonNode ranking = getJson("/api/ventas/mas-vendidos?por=mueble&limite=100");
+        JsonNode filaSillon = buscarPorId(ranking, sillon);
+        JsonNode filaVitrina = buscarPorId(ranking, vitrina);
+        assertEquals(5, filaSillon.get("unidades").asLong());
+        assertEquals(1, filaVitrina.get("unidades").asLong());
+        assertEquals(totalSillon, filaSillon.get("ingresos").asDouble(), 0.001);
+        assertEquals(totalVitrina, filaVitrina.get("ingresos").asDouble(), 0.001);
+        assertEquals("Sillón Resumen", filaSillon.get("nombre").asText());
+        for (int i = 1; i < ranking.size(); i++) {
+            assertTrue(ranking.get(i - 1).get("ingresos").asDouble() >= ranking.get(i).get("ingresos").asDouble(),
+                    "El ranking debe ir de mayor a menor ingreso");
+        }
+    }
+
+    @Test
+    void testConfirmacionFallida_NoTocaLosResumenes() throws Exception {
+        Long mueble = crearMueble("Banco Sin Stock", 2000.0, 1);
+        Long idCotizacion = cotizacionService.crearCotizacion(solicitud(mueble, 1)).getIdCotizacion();
+        jdbcTemplate.update("UPDATE muebles SET stock = 0 WHERE id_mueble = ?", mueble);
+        double antes = ingresosDeHoy();
+
+        assertThrows(RuntimeException.class, () -> cotizacionService.confirmarVenta(idCotizacion));
+
+        assertEquals(antes, ingresosDeHoy(), 0.001);
+    }
+
+    @Test
+    void testConsultas_UnaSentenciaSobreLosResumenes() throws Exception {
+        mockMvc.perform(get("/api/ventas/ingresos").param("granularidad", "mes"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.exactamente(1));
+        mockMvc.perform(get("/api/ventas/mas-vendidos")
+                        .param("por", "variante")
+                        .param("desde", "2025-01-15")
+                        .param("hasta", "2026-02-10"))
+                .andExpect(status().isOk())
+                .andExpect(SentenciasSql.exactamente(1));
+    }
+
+    @Test
+    void testReconstruir_RellenaDesdeElHistorial() throws Exception {
+        Long comoda = crearMueble("Cómoda Histórica", 10000.0, 10);
+        // Una venta vieja sin fecha_confirmacion: la reconstrucción usa la fecha de la cotización
+        historica(910001L, null, LocalDate.of(2024, 1, 5), comoda, 1, 10000.0);
+        historica(910002L, LocalDate.of(2024, 1, 20), LocalDate.of(2024, 1, 18), comoda, 2, 10000.0);
+        historica(910003L, LocalDate.of(2024, 2, 10), LocalDate.of(2024, 2, 9), comoda, 3, 12000.0);
+        historica(910004L, LocalDate.of(2024, 3, 31), LocalDate.of(2024, 3, 30), comoda, 1, 12000.0);
+        double hoyAntes = ingresosDeHoy();
+
+        mockMvc.perform(post("/api/ventas/reconstruir"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.meses").isNumber());
+
+        JsonNode meses = getJson("/api/ventas/ingresos?granularidad=mes&desde=2024-01-01&hasta=2024-03-31");
+        assertEquals(3, meses.size());
+        assertEquals("2024-01", meses.get(0).get("periodo").asText());
+        assertEquals(30000.0, meses.get(0).get("ingresos").asDouble(), 0.001);
+        assertEquals(36000.0, meses.get(1).get("ingresos").asDouble(), 0.001);
+        assertEquals(12000.0, meses.get(2).get("ingresos").asDouble(), 0.001);
+
+        JsonNode dias = getJson("/api/ventas/ingresos?desde=2024-01-01&hasta=2024-01-31");
+        assertEquals(List.of("2024-01-05", "2024-01-20"), List.of(dias.get(0).get("periodo").asText(), dias.get(1).get("periodo").asText()));
+
+        // Borde parcial de enero (desde el 10) + febrero y marzo completos desde ventas_mensuales
+        JsonNode ranking = getJson("/api/ventas/mas-vendidos?desde=2024-01-10&hasta=2024-03-31&limite=100");
+        JsonNode fila = buscarPorId(ranking, comoda);
+        assertEquals(6, fila.get("unidades").asLong());
+        assertEquals(68000.0, fila.get("ingresos").asDouble(), 0.001);
+
+        // Lo que ya se había sumado en línea queda igual después de reconstruir
+        assertEquals(hoyAntes, ingresosDeHoy(), 0.001);
+    }
+
+    // --- AUXILIARES ---
+
+    private double confirmar(Long idMueble, int cantidad) {
+        Long id = cotizacionService.crearCotizacion(solicitud(idMueble, cantidad)).getIdCotizacion();
+        return cotizacionService.confirmarVenta(id).getTotal();
+    }
+
+    private double ingresosDeHoy() throws Exception {
+        String hoy = LocalDate.now().toString();
+        JsonNode dias = getJson("/api/ventas/ingresos?desde=" + hoy + "&hasta=" + hoy);
+        return dias.isEmpty() ? 0.0 : dias.get(0).get("ingresos").asDouble();
+    }
+
+    private JsonNode getJson(String url) throws Exception {
+        String cuerpo = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(cuerpo);
+    }
+
+    private static JsonNode buscarPorId(JsonNode filas, Long id) {
+        return filas.get(indiceDe(filas, id));
+    }
+
+    private static int indiceDe(JsonNode filas, Long id) {
+        for (int i = 0; i < filas.size(); i++) {
+            if (filas.get(i).get("id").asLong() == id) {
+                return i;
+            }
+        }
+        return fail("No aparece el id " + id + " en " + filas);
+    }
+
+    private void historica(Long id, LocalDate fechaConfirmacion, LocalDate fecha, Long idMueble, int cantidad, double precio) {
+        jdbcTemplate.update("INSERT INTO cotizaciones (id_cotizacion, fecha, fecha_confirmacion, total, estado, version) "
+                + "VALUES (?, ?, ?, ?, 'CONFIRMADA', 1)", id, fecha, fechaConfirmacion, cantidad * precio);
+        jdbcTemplate.update("INSERT INTO detalles_cotizacion (id_detalle, cantidad, precio_unitario_snapshot, id_cotizacion, id_mueble, id_variante) "
+                + "VALUES (?, ?, ?, ?, ?, 1)", id, cantidad, precio, id, idMueble);
+    }
+
+    private CotizacionRequestDTO solicitud(Long idMueble, int cantidad) {
+        DetalleRequestDTO detalle = new DetalleRequestDTO();
+        detalle.setIdMueble(idMueble);
+        detalle.setIdVariante(1L);
+        detalle.setCantidad(cantidad);
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(List.of(detalle));
+        return request;
+    }
+
+    private Long crearMueble(String nombre, double precio, int stock) {
+        Mueble mueble = new Mueble();
+        mueble.setNombreMueble(nombre);
+        mueble.setTipo("Mesa");
+        mueble.setMaterial("Pino");
+        mueble.setPrecioBase(precio);
+        mueble.setStock(stock);
+        mueble.setTamanio(TamanioMueble.MEDIANO);
+        mueble.setEstado(EstadoMueble.ACTIVO);
+        return muebleRepository.save(mueble).getIdMueble();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.event.MueblesModificadosEvent;
+import com.tarea2Ingenieria.service.BusquedaTextoMuebleServiceImpl;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+// Fallas de la BD mientras se escribe el índice, con un JdbcTemplate simulado
+class BusquedaTextoMuebleServiceImplTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BusquedaTextoMuebleServiceImpl busqueda;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        busqueda = new BusquedaTextoMuebleServiceImpl(jdbcTemplate, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        busqueda.cerrar();
+    }
+
+    @Test
+    void testReconstruirIndice_FallaALaMitadConservaElIndiceAnterior() {
+        doAnswer(invocacion -> {
+            invocacion.<RowCallbackHandler>getArgument(1).processRow(fila(1L, "Sofá Cuenca"));
+            return null;
+        }).doAnswer(invocacion -> {
+            invocacion.<RowCallbackHandler>getArgument(1).processRow(fila(2L, "Mesa Cuenca"));
+            throw new DataAccessResourceFailureException("Sin conexión a la BD");
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        busqueda.reconstruirIndice();
+        assertThrows(DataAccessResourceFailureException.class, () -> busqueda.reconstruirIndice());
+
+        assertEquals(List.of("Sofá Cuenca"), nombres(busqueda.buscar("cuenca", 10)));
+    }
+
+    @Test
+    void testCambios_ElEventoNoConsultaYUnaFallaSeReintenta() {
+        busqueda.onMueblesModificados(new MueblesModificadosEvent(Set.of(3L)));
+        verifyNoInteractions(jdbcTemplate);
+
+        doThrow(new DataAccessResourceFailureException("Sin conexión a la BD"))
+                .doAnswer(invocacion -> {
+                    invocacion.<RowCallbackHandler>getArgument(1).processRow(fila(3L, "Banqueta Soria"));
+                    return null;
+                }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class), any(Object[].class));
+
+        assertDoesNotThrow(() -> busqueda.aplicarCambiosPendientes());
+        assertTrue(busqueda.buscar("soria", 10).isEmpty());
+        assertEquals(1.0, meterRegistry.get("muebles.busqueda.pendientes").gauge().value());
+
+        busqueda.aplicarCambiosPendientes();
+        assertEquals(List.of("Banqueta Soria"), nombres(busqueda.buscar("soria", 10)));
+        assertEquals(0.0, meterRegistry.get("muebles.busqueda.pendientes").gauge().value());
+    }
+
+    private static ResultSet fila(long id, String nombre) throws SQLException {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id_mueble")).thenReturn(id);
+        when(rs.getString("nombre_mueble")).thenReturn(nombre);
+        when(rs.getString("tipo")).thenReturn("Sofa");
+        when(rs.getString("material")).thenReturn("Lino");
+        when(rs.getDouble("precio_base")).thenReturn(50000.0);
+        when(rs.getInt("stock")).thenReturn(5);
+        when(rs.getString("tamanio")).thenReturn("MEDIANO");
+        when(rs.getString("estado")).thenReturn("ACTIVO");
+        when(rs.getLong("version")).thenReturn(0L);
+        return rs;
+    }
+
+    private static List<String> nombres(List<MuebleDTO> muebles) {
+        return muebles.stream().map(MuebleDTO::getNombreMueble).toList();
+    }
+}
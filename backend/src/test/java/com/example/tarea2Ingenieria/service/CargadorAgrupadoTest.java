@@ -0,0 +1,178 @@
+package com.example.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.service.CargadorAgrupado;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CargadorAgrupadoTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<Long>> consultas = new CopyOnWriteArrayList<>();
+
+    @Test
+    void testMismoIdConcurrente_UnaSolaConsulta() throws Exception {
+        CargadorAgrupado<Long, String> cargador = cargador(Duration.ofMillis(200), 100, ids -> {
+            esperarSolicitudes(200);
+            return nombres(ids);
+        });
+
+        List<Optional<String>> resultados = enParalelo(200, i -> cargador.cargar(7L));
+
+        assertEquals(1, consultas.size());
+        assertEquals(List.of(7L), consultas.get(0));
+        resultados.forEach(resultado -> assertEquals(Optional.of("mueble-7"), resultado));
+        assertEquals(200.0, cargador.razon());
+    }
+
+    @Test
+    void testIdsDistintosMientrasHayUnaConsulta_UnFindAllById() throws Exception {
+        // La primera lectura sale sola; las que llegan mientras corre su consulta se juntan en la siguiente
+        CargadorAgrupado<Long, String> cargador = cargador(Duration.ofSeconds(30), 100, ids -> {
+            if (consultas.size() == 1) {
+                esperarSolicitudes(20);
+            }
+            return nombres(ids);
+        });
+
+        long inicio = System.nanoTime();
+        List<Optional<String>> resultados = enParalelo(20, i -> cargador.cargar((long) i % 10));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toSeconds() < 10, "esperó la ventana completa");
+        assertEquals(2, consultas.size());
+        assertEquals(1, consultas.get(0).size());
+        assertEquals(10, Stream.concat(consultas.get(0).stream(), consultas.get(1).stream()).distinct().count());
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Optional.of("mueble-" + i % 10), resultados.get(i));
+        }
+    }
+
+    @Test
+    void testLoteLleno_NoEsperaLaVentanaYNoSuperaElMaximo() throws Exception {
+        CargadorAgrupado<Long, String> cargador = cargador(Duration.ofSeconds(30), 4, ids -> {
+            if (consultas.size() == 1) {
+                esperarSolicitudes(8);
+            }
+            return nombres(ids);
+        });
+
+        long inicio = System.nanoTime();
+        enParalelo(8, i -> cargador.cargar((long) i));
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toSeconds() < 10, "esperó la ventana completa");
+        consultas.forEach(ids -> assertTrue(ids.size() <= 4, ids.toString()));
+        assertTrue(consultas.stream().anyMatch(ids -> ids.size() == 4), consultas.toString());
+        assertEquals(8, consultas.stream().mapToInt(List::size).sum());
+    }
+
+    @Test
+    void testLecturasSinConcurrencia_NoEsperanLaVentana() {
+        // Como previsualizarCotizacion: lecturas seguidas del mismo hilo, sin nadie más consultando
+        CargadorAgrupado<Long, String> cargador = cargador(Duration.ofSeconds(30), 100, this::nombres);
+
+        long inicio = System.nanoTime();
+        for (long id = 1; id <= 3; id++) {
+            assertEquals(Optional.of("mueble-" + id), cargador.cargar(id));
+        }
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - inicio).toSeconds() < 10, "esperó la ventana");
+        assertEquals(List.of(List.of(1L), List.of(2L), List.of(3L)), consultas);
+    }
+
+    @Test
+    void testIdInexistente_Vacio() {
+        CargadorAgrupado<Long, String> cargador = cargador(Duration.ZERO, 100, ids -> Map.of());
+
+        assertEquals(Optional.empty(), cargador.cargar(999L));
+    }
+
+    @Test
+    void testError_LlegaATodoElLoteYNoQuedaEnVuelo() throws Exception {
+        RuntimeException caida = new RuntimeException("Sin conexión a la BD");
+        CargadorAgrupado<Long, String> cargador = cargador(Duration.ofMillis(100), 100, ids -> {
+            if (consultas.size() == 1) {
+                esperarSolicitudes(5);
+                throw caida;
+            }
+            return nombres(ids);
+        });
+
+        List<Optional<String>> errores = enParalelo(5, i -> {
+            RuntimeException ex = assertThrows(RuntimeException.class, () -> cargador.cargar(1L));
+            assertSame(caida, ex);
+            return Optional.empty();
+        });
+
+        assertEquals(5, errores.size());
+        assertEquals(Optional.of("mueble-1"), cargador.cargar(1L));
+        assertEquals(2, consultas.size());
+    }
+
+    private CargadorAgrupado<Long, String> cargador(Duration ventana, int maximoLote,
+                                                    Function<Collection<Long>, Map<Long, String>> cargarTodos) {
+        return new CargadorAgrupado<>("prueba", ids -> {
+            consultas.add(List.copyOf(ids));
+            dormir(20);
+            return cargarTodos.apply(ids);
+        }, ventana, maximoLote, meterRegistry);
+    }
+
+    // Retiene la consulta hasta que todas las lecturas del test entraron al cargador
+    private void esperarSolicitudes(int cantidad) {
+        long limite = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (meterRegistry.get("coalescencia.solicitudes").counter().count() < cantidad && System.nanoTime() < limite) {
+            dormir(5);
+        }
+        // Contada no es lo mismo que sumada a un lote: margen para que terminen de entrar
+        dormir(50);
+    }
+
+    private Map<Long, String> nombres(Collection<Long> ids) {
+        return ids.stream().collect(Collectors.toMap(Function.identity(), id -> "mueble-" + id));
+    }
+
+    private static List<Optional<String>> enParalelo(int hilos, Function<Integer, Optional<String>> lectura) throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<Optional<String>>> futuros = new ArrayList<>();
+        try (ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < hilos; i++) {
+                int indice = i;
+                futuros.add(ejecutor.submit(() -> {
+                    largada.await();
+                    return lectura.apply(indice);
+                }));
+            }
+            largada.countDown();
+            List<Optional<String>> resultados = new ArrayList<>();
+            for (Future<Optional<String>> futuro : futuros) {
+                resultados.add(futuro.get());
+            }
+            return resultados;
+        }
+    }
+
+    private static void dormir(long milisegundos) {
+        try {
+            Thread.sleep(milisegundos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.tarea2Ingenieria.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.tarea2Ingenieria.CacheConfig;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.dto.VarianteDTO;
+import com.tarea2Ingenieria.service.MuebleService;
+import com.tarea2Ingenieria.service.VarianteService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@ActiveProfiles("test")
+class CatalogoCacheTest {
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private VarianteService varianteService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void limpiarCaches() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+    }
+
+    @Test
+    void testCatalogoActivo_SeSirveDesdeCacheHastaUnaMutacion() {
+        List<MuebleDTO> primera = muebleService.getMueblesActivos();
+        List<MuebleDTO> segunda = muebleService.getMueblesActivos();
+        assertSame(primera, segunda);
+
+        MuebleDTO cambio = new MuebleDTO();
+        cambio.setStock(99);
+        muebleService.actualizarParcialMueble(primera.get(0).getIdMueble(), cambio);
+
+        List<MuebleDTO> tercera = muebleService.getMueblesActivos();
+        assertNotSame(primera, tercera);
+        assertEquals(99, tercera.get(0).getStock());
+    }
+
+    @Test
+    void testMueblePorId_SoloSeInvalidaElModificado() {
+        MuebleDTO mueble1 = muebleService.getMuebleById(1L);
+        MuebleDTO mueble2 = muebleService.getMuebleById(2L);
+
+        muebleService.desactivarMueble(1L);
+        muebleService.activarMueble(1L);
+
+        assertNotSame(mueble1, muebleService.getMuebleById(1L));
+        assertSame(mueble2, muebleService.getMuebleById(2L));
+    }
+
+    @Test
+    void testVariantes_SeInvalidanAlCrear() {
+        List<VarianteDTO> antes = varianteService.getAllVariantes();
+        assertSame(antes, varianteService.getAllVariantes());
+
+        VarianteDTO nueva = new VarianteDTO();
+        nueva.setNombre("Laca Brillante " + System.nanoTime());
+        nueva.setAumentoPrecio(1500.0);
+        varianteService.crearVariante(nueva);
+
+        assertEquals(antes.size() + 1, varianteService.getAllVariantes().size());
+    }
+
+    @Test
+    void testEstadisticas_RegistranAciertosYFallos() {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.MUEBLES_ACTIVOS);
+        CacheStats antes = cache.getNativeCache().stats();
+
+        muebleService.getMueblesActivos();
+        muebleService.getMueblesActivos();
+
+        CacheStats despues = cache.getNativeCache().stats().minus(antes);
+        assertEquals(1, despues.missCount());
+        assertEquals(1, despues.hitCount());
+    }
+}
@@ -0,0 +1,182 @@
+package com.example.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.repository.VarianteRepository;
+import com.tarea2Ingenieria.service.CotizacionService;
+import com.tarea2Ingenieria.service.ReservaStockService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@ActiveProfiles("test")
+class ConfirmarVentaConcurrenciaTest {
+
+    private static final int CONFIRMACIONES = 300;
+    private static final int STOCK_INICIAL = 120;
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private MuebleRepository muebleRepository;
+
+    @Autowired
+    private VarianteRepository varianteRepository;
+
+    @Autowired
+    private ReservaStockService reservaStockService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testConfirmacionesParalelas_NoSobrevendenStock() throws Exception {
+        Mueble mueble = crearMueble(STOCK_INICIAL);
+        List<Long> cotizaciones = new ArrayList<>();
+        for (int i = 0; i < CONFIRMACIONES; i++) {
+            if (i > 0 && i % STOCK_INICIAL == 0) {
+                vencerReservas();
+            }
+            cotizaciones.add(crearCotizacion(mueble.getIdMueble(), 1));
+        }
+        // Sin reservas vigentes, las 300 compiten al confirmar por las 120 unidades
+        vencerReservas();
+
+        AtomicInteger exitosas = new AtomicInteger();
+        AtomicInteger sinStock = new AtomicInteger();
+        ejecutarEnParalelo(cotizaciones, id -> {
+            try {
+                cotizacionService.confirmarVenta(id);
+                exitosas.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().startsWith("Stock insuficiente"), e.getMessage());
+                sinStock.incrementAndGet();
+            }
+        });
+
+        assertEquals(STOCK_INICIAL, exitosas.get());
+        assertEquals(CONFIRMACIONES - STOCK_INICIAL, sinStock.get());
+        assertEquals(0, muebleRepository.findById(mueble.getIdMueble()).orElseThrow().getStock());
+    }
+
+    @Test
+    void testCreacionesParalelas_ReservanSoloElStockYTodasSeConfirman() throws Exception {
+        Mueble mueble = crearMueble(STOCK_INICIAL);
+
+        List<Long> cotizaciones = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger sinStock = new AtomicInteger();
+        ejecutarEnParalelo(Collections.nCopies(CONFIRMACIONES, mueble.getIdMueble()), idMueble -> {
+            try {
+                cotizaciones.add(crearCotizacion(idMueble, 1));
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().startsWith("Stock insuficiente"), e.getMessage());
+                sinStock.incrementAndGet();
+            }
+        });
+
+        assertEquals(STOCK_INICIAL, cotizaciones.size());
+        assertEquals(CONFIRMACIONES - STOCK_INICIAL, sinStock.get());
+        assertEquals(STOCK_INICIAL, muebleRepository.findById(mueble.getIdMueble()).orElseThrow().getReservado());
+
+        // Lo que se cotizó quedó reservado: ninguna confirmación falla por stock
+        AtomicInteger exitosas = new AtomicInteger();
+        ejecutarEnParalelo(cotizaciones, id -> {
+            cotizacionService.confirmarVenta(id);
+            exitosas.incrementAndGet();
+        });
+
+        assertEquals(STOCK_INICIAL, exitosas.get());
+        Mueble vendido = muebleRepository.findById(mueble.getIdMueble()).orElseThrow();
+        assertEquals(0, vendido.getStock());
+        assertEquals(0, vendido.getReservado());
+    }
+
+    @Test
+    void testMismaCotizacionConfirmadaEnParalelo_SoloDescuentaUnaVez() throws Exception {
+        Mueble mueble = crearMueble(10);
+        Long idCotizacion = crearCotizacion(mueble.getIdMueble(), 3);
+
+        AtomicInteger exitosas = new AtomicInteger();
+        ejecutarEnParalelo(Collections.nCopies(50, idCotizacion), id -> {
+            try {
+                cotizacionService.confirmarVenta(id);
+                exitosas.incrementAndGet();
+            } catch (RuntimeException e) {
+                assertTrue(e.getMessage().contains("ya fue confirmada"), e.getMessage());
+            }
+        });
+
+        assertEquals(1, exitosas.get());
+        assertEquals(7, muebleRepository.findById(mueble.getIdMueble()).orElseThrow().getStock());
+    }
+
+    private void ejecutarEnParalelo(List<Long> ids, Consumer<Long> accion) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(32);
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<?>> tareas = new ArrayList<>();
+        for (Long id : ids) {
+            tareas.add(executor.submit(() -> {
+                largada.await();
+                accion.accept(id);
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarea : tareas) {
+            tarea.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+    }
+
+    private void vencerReservas() {
+        jdbcTemplate.update("UPDATE reservas_stock SET expira_en = ?", Timestamp.from(Instant.now().minusSeconds(1)));
+        reservaStockService.liberarVencidas();
+    }
+
+    private Mueble crearMueble(int stock) {
+        Mueble mueble = new Mueble();
+        mueble.setNombreMueble("Silla Concurrida");
+        mueble.setTipo("Silla");
+        mueble.setMaterial("Roble");
+        mueble.setPrecioBase(10000.0);
+        mueble.setStock(stock);
+        mueble.setTamanio(TamanioMueble.MEDIANO);
+        mueble.setEstado(EstadoMueble.ACTIVO);
+        return muebleRepository.save(mueble);
+    }
+
+    private Long crearCotizacion(Long idMueble, int cantidad) {
+        DetalleRequestDTO detalle = new DetalleRequestDTO();
+        detalle.setIdMueble(idMueble);
+        detalle.setIdVariante(varianteRepository.findByNombre("Normal").orElseThrow().getIdVariante());
+        detalle.setCantidad(cantidad);
+
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(List.of(detalle));
+        return cotizacionService.crearCotizacion(request).getIdCotizacion();
+    }
+}
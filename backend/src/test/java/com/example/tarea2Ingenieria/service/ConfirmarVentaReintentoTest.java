@@ -0,0 +1,83 @@
+package com.example.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.model.enums.EstadoCotizacion;
+import com.tarea2Ingenieria.model.enums.EstadoMueble;
+import com.tarea2Ingenieria.model.enums.TamanioMueble;
+import com.tarea2Ingenieria.repository.CotizacionRepository;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.repository.VarianteRepository;
+import com.tarea2Ingenieria.service.CotizacionService;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@ActiveProfiles("test")
+class ConfirmarVentaReintentoTest {
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @MockitoSpyBean
+    private MuebleRepository muebleRepository;
+
+    @Autowired
+    private VarianteRepository varianteRepository;
+
+    @Autowired
+    private CotizacionRepository cotizacionRepository;
+
+    @Test
+    void testConfirmarVenta_ReintentaTrasConflictoTransitorio() {
+        Mueble mueble = new Mueble();
+        mueble.setNombreMueble("Mesa Disputada");
+        mueble.setTipo("Mesa");
+        mueble.setMaterial("Pino");
+        mueble.setPrecioBase(20000.0);
+        mueble.setStock(5);
+        mueble.setTamanio(TamanioMueble.GRANDE);
+        mueble.setEstado(EstadoMueble.ACTIVO);
+        mueble = muebleRepository.save(mueble);
+
+        DetalleRequestDTO detalle = new DetalleRequestDTO();
+        detalle.setIdMueble(mueble.getIdMueble());
+        detalle.setIdVariante(varianteRepository.findByNombre("Normal").orElseThrow().getIdVariante());
+        detalle.setCantidad(2);
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(List.of(detalle));
+        Long idCotizacion = cotizacionService.crearCotizacion(request).getIdCotizacion();
+
+        // Primer intento: el motor aborta por lock (deadlock/timeout); el segundo llega a la BD
+        Answer<?> repositorioReal = mockingDetails(muebleRepository).getMockCreationSettings().getDefaultAnswer();
+        AtomicInteger intentos = new AtomicInteger();
+        doAnswer(invocacion -> {
+            if (intentos.incrementAndGet() == 1) {
+                throw new CannotAcquireLockException("deadlock simulado");
+            }
+            return repositorioReal.answer(invocacion);
+        }).when(muebleRepository).descontarStock(eq(mueble.getIdMueble()), anyInt(), anyInt());
+
+        cotizacionService.confirmarVenta(idCotizacion);
+
+        verify(muebleRepository, times(2)).descontarStock(mueble.getIdMueble(), 2, 2);
+        assertEquals(3, muebleRepository.findById(mueble.getIdMueble()).orElseThrow().getStock());
+        // El primer intento se revirtió completo: la cotización se confirmó una sola vez
+        assertEquals(EstadoCotizacion.CONFIRMADA, cotizacionRepository.findById(idCotizacion).orElseThrow().getEstado());
+    }
+}
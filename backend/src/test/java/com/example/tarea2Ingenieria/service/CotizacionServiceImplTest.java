@@ -1,8 +1,14 @@
 package com.example.tarea2Ingenieria.service;
 
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.tarea2Ingenieria.dto.CotizacionExportFilaDTO;
+import com.tarea2Ingenieria.dto.CotizacionPaginaDTO;
 import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.CotizacionResponseDTO;
 import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.event.MueblesModificadosEvent;
 import com.tarea2Ingenieria.model.Cotizacion;
 import com.tarea2Ingenieria.model.DetalleCotizacion;
 import com.tarea2Ingenieria.model.Mueble;
@@ -13,19 +19,33 @@ import com.tarea2Ingenieria.repository.CotizacionRepository;
 import com.tarea2Ingenieria.repository.MuebleRepository;
 import com.tarea2Ingenieria.repository.VarianteRepository;
 import com.tarea2Ingenieria.service.CotizacionServiceImpl;
+import com.tarea2Ingenieria.service.EventoOutboxService;
+import com.tarea2Ingenieria.service.ParametroInvalidoException;
+import com.tarea2Ingenieria.service.ReservaStockService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.jpa.domain.Specification;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -40,6 +60,19 @@ class CotizacionServiceImplTest {
     @Mock
     private CotizacionRepository cotizacionRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ReservaStockService reservaStockService;
+
+    @Mock
+    private EventoOutboxService eventoOutboxService;
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
     @InjectMocks
     private CotizacionServiceImpl cotizacionService;
 
@@ -77,8 +110,8 @@ class CotizacionServiceImplTest {
 
         mueblePrueba.setStock(2);
 
-        when(muebleRepository.findById(1L)).thenReturn(Optional.of(mueblePrueba));
-        when(varianteRepository.findById(1L)).thenReturn(Optional.of(variantePrueba));
+        when(muebleRepository.findAllById(anyCollection())).thenReturn(List.of(mueblePrueba));
+        when(varianteRepository.findAllById(anyCollection())).thenReturn(List.of(variantePrueba));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             cotizacionService.crearCotizacion(cotizacionRequest);
@@ -90,7 +123,8 @@ class CotizacionServiceImplTest {
     @Test
     void testCrearCotizacion_ErrorMuebleInactivo() {
         mueblePrueba.setEstado(EstadoMueble.INACTIVO);
-        when(muebleRepository.findById(1L)).thenReturn(Optional.of(mueblePrueba));
+        when(muebleRepository.findAllById(anyCollection())).thenReturn(List.of(mueblePrueba));
+        when(varianteRepository.findAllById(anyCollection())).thenReturn(List.of(variantePrueba));
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             cotizacionService.crearCotizacion(cotizacionRequest);
@@ -116,17 +150,178 @@ class CotizacionServiceImplTest {
         cotizacionExistente.setDetalles(Collections.singletonList(detalle));
 
 
-        when(cotizacionRepository.findById(1L)).thenReturn(Optional.of(cotizacionExistente));
-        when(cotizacionRepository.save(any(Cotizacion.class))).thenReturn(cotizacionExistente);
+        when(cotizacionRepository.findByIdConDetalles(1L)).thenReturn(Optional.of(cotizacionExistente));
+        when(cotizacionRepository.marcarConfirmada(eq(1L), any(LocalDate.class))).thenReturn(1);
+        when(reservaStockService.consumir(1L)).thenReturn(Map.of(1L, 5));
+        when(muebleRepository.descontarStock(1L, 5, 5)).thenReturn(1);
 
         cotizacionService.confirmarVenta(1L);
 
-        ArgumentCaptor<Mueble> muebleCaptor = ArgumentCaptor.forClass(Mueble.class);
-        verify(muebleRepository, times(1)).save(muebleCaptor.capture());
-
-        Mueble muebleGuardado = muebleCaptor.getValue();
-        assertEquals(5, muebleGuardado.getStock());
+        // El descuento es un UPDATE condicional, no un read-modify-write con save()
+        verify(muebleRepository, times(1)).descontarStock(1L, 5, 5);
+        verify(muebleRepository, never()).save(any(Mueble.class));
+        verify(eventPublisher).publishEvent(new MueblesModificadosEvent(Set.of(1L)));
 
         assertEquals(EstadoCotizacion.CONFIRMADA, cotizacionExistente.getEstado());
     }
+
+    @Test
+    void testCrearCotizacion_CargaMueblesYVariantesEnLote() {
+        DetalleRequestDTO otraLinea = new DetalleRequestDTO();
+        otraLinea.setIdMueble(1L);
+        otraLinea.setIdVariante(1L);
+        otraLinea.setCantidad(2);
+        cotizacionRequest.setDetalles(List.of(cotizacionRequest.getDetalles().get(0), otraLinea));
+
+        when(muebleRepository.findAllById(anyCollection())).thenReturn(List.of(mueblePrueba));
+        when(varianteRepository.findAllById(anyCollection())).thenReturn(List.of(variantePrueba));
+        when(cotizacionRepository.save(any(Cotizacion.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        CotizacionResponseDTO resultado = cotizacionService.crearCotizacion(cotizacionRequest);
+
+        assertEquals(2, resultado.getDetalles().size());
+        assertEquals(700000.0, resultado.getTotal());
+        verify(muebleRepository, times(1)).findAllById(anyCollection());
+        verify(varianteRepository, times(1)).findAllById(anyCollection());
+        verify(muebleRepository, never()).findById(any());
+        verify(varianteRepository, never()).findById(any());
+    }
+
+    @Test
+    void testGetAllCotizaciones_UsaConsultaConFetchJoin() {
+        DetalleCotizacion detalle = new DetalleCotizacion();
+        detalle.setMueble(mueblePrueba);
+        detalle.setVariante(variantePrueba);
+        detalle.setCantidad(1);
+        detalle.setPrecioUnitarioSnapshot(100000.0);
+
+        Cotizacion cotizacion = new Cotizacion();
+        cotizacion.setIdCotizacion(1L);
+        cotizacion.setEstado(EstadoCotizacion.PENDIENTE);
+        cotizacion.setTotal(100000.0);
+        cotizacion.setDetalles(Collections.singletonList(detalle));
+
+        when(cotizacionRepository.findAllConDetalles()).thenReturn(List.of(cotizacion));
+
+        List<CotizacionResponseDTO> resultado = cotizacionService.getAllCotizaciones();
+
+        assertEquals(1, resultado.size());
+        assertEquals("Silla Gamer", resultado.get(0).getDetalles().get(0).getNombreMueble());
+        verify(cotizacionRepository, never()).findAll();
+    }
+
+    @Test
+    void testGetCotizacionesPaginadas_DevuelveCursorCuandoHayMas() {
+        List<Cotizacion> filas = new ArrayList<>();
+        for (long id = 3; id >= 1; id--) {
+            Cotizacion c = new Cotizacion();
+            c.setIdCotizacion(id);
+            c.setFecha(LocalDate.of(2025, 1, 10));
+            c.setTotal(0.0);
+            c.setEstado(EstadoCotizacion.PENDIENTE);
+            c.setDetalles(Collections.emptyList());
+            filas.add(c);
+        }
+
+        when(cotizacionRepository.findBy(any(Specification.class), any())).thenReturn(filas);
+        when(cotizacionRepository.findAllConDetallesByIds(List.of(3L, 2L))).thenReturn(List.of(filas.get(1), filas.get(0)));
+
+        CotizacionPaginaDTO pagina = cotizacionService.getCotizacionesPaginadas(null, null, null, null, 2, "desc");
+
+        assertTrue(pagina.isHayMas());
+        assertEquals("2025-01-10_2", pagina.getSiguienteCursor());
+        assertEquals(List.of(3L, 2L), pagina.getContenido().stream().map(CotizacionResponseDTO::getIdCotizacion).toList());
+    }
+
+    @Test
+    void testGetCotizacionesPaginadas_CursorInvalido() {
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            cotizacionService.getCotizacionesPaginadas(null, null, null, "no-es-cursor", 20, "desc");
+        });
+        assertTrue(exception.getMessage().startsWith("Cursor inválido"));
+    }
+
+    @Test
+    void testGetCotizacionesPaginadas_EstadoInvalido() {
+        ParametroInvalidoException exception = assertThrows(ParametroInvalidoException.class, () -> {
+            cotizacionService.getCotizacionesPaginadas("archivada", null, null, null, 20, "desc");
+        });
+        assertTrue(exception.getMessage().startsWith("Estado de cotización inválido"));
+        verifyNoInteractions(cotizacionRepository);
+    }
+
+    @Test
+    void testExportarCotizaciones_NdjsonUnaLineaPorCotizacion() {
+        LocalDate fecha = LocalDate.of(2025, 1, 10);
+        when(cotizacionRepository.streamExportacion()).thenReturn(Stream.of(
+                new CotizacionExportFilaDTO(1L, fecha, EstadoCotizacion.CONFIRMADA, 30000.0, 10L, 1L, "Silla", "Normal", 2, 15000.0),
+                new CotizacionExportFilaDTO(2L, fecha, EstadoCotizacion.PENDIENTE, 15000.0, 11L, 1L, "Silla", "Normal", 1, 15000.0),
+                new CotizacionExportFilaDTO(2L, fecha, EstadoCotizacion.PENDIENTE, 15000.0, 12L, 1L, "Silla", "Normal", 0, 15000.0)));
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        cotizacionService.exportarCotizaciones(salida, "ndjson");
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].contains("\"idCotizacion\":1"));
+        assertTrue(lineas[1].contains("\"fecha\":\"2025-01-10\""));
+        assertEquals(2, lineas[1].split("nombreMueble").length - 1);
+    }
+
+    @Test
+    void testExportarCotizaciones_CsvEscapaComas() {
+        when(cotizacionRepository.streamExportacion()).thenReturn(Stream.of(
+                new CotizacionExportFilaDTO(1L, LocalDate.of(2025, 1, 10), EstadoCotizacion.PENDIENTE, 15000.0,
+                        10L, 1L, "Mesa, grande", "Normal", 1, 15000.0)));
+
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        cotizacionService.exportarCotizaciones(salida, "csv");
+
+        String[] lineas = salida.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lineas.length);
+        assertTrue(lineas[0].startsWith("idCotizacion,fecha"));
+        assertEquals("1,2025-01-10,PENDIENTE,15000.0,10,1,\"Mesa, grande\",Normal,1,15000.0", lineas[1]);
+    }
+
+    @Test
+    void testConfirmarVenta_ErrorSiElDescuentoAtomicoFalla() {
+        DetalleCotizacion detalle = new DetalleCotizacion();
+        detalle.setMueble(mueblePrueba);
+        detalle.setVariante(variantePrueba);
+        detalle.setCantidad(5);
+        detalle.setPrecioUnitarioSnapshot(100000.0);
+
+        Cotizacion cotizacionExistente = new Cotizacion();
+        cotizacionExistente.setIdCotizacion(1L);
+        cotizacionExistente.setEstado(EstadoCotizacion.PENDIENTE);
+        cotizacionExistente.setDetalles(Collections.singletonList(detalle));
+
+        when(cotizacionRepository.findByIdConDetalles(1L)).thenReturn(Optional.of(cotizacionExistente));
+        when(cotizacionRepository.marcarConfirmada(eq(1L), any(LocalDate.class))).thenReturn(1);
+        when(muebleRepository.descontarStock(1L, 5, 0)).thenReturn(0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            cotizacionService.confirmarVenta(1L);
+        });
+
+        assertEquals("Stock insuficiente para: Silla Gamer", exception.getMessage());
+    }
+
+    @Test
+    void testConfirmarVenta_ErrorSiOtraConfirmacionGano() {
+        Cotizacion cotizacionExistente = new Cotizacion();
+        cotizacionExistente.setIdCotizacion(1L);
+        cotizacionExistente.setEstado(EstadoCotizacion.PENDIENTE);
+        cotizacionExistente.setDetalles(Collections.emptyList());
+
+        when(cotizacionRepository.findByIdConDetalles(1L)).thenReturn(Optional.of(cotizacionExistente));
+        when(cotizacionRepository.marcarConfirmada(eq(1L), any(LocalDate.class))).thenReturn(0);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> {
+            cotizacionService.confirmarVenta(1L);
+        });
+
+        assertEquals("Esta cotización ya fue confirmada como venta.", exception.getMessage());
+        verifyNoInteractions(muebleRepository);
+    }
 }
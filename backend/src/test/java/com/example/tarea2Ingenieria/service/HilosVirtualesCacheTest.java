@@ -0,0 +1,80 @@
+package com.example.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.CacheConfig;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.service.MuebleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+// Modo hilos virtuales: las cachés cargan de forma asíncrona (sin pinning) y siguen cargando una vez por clave
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class, properties = "spring.threads.virtual.enabled=true")
+@ActiveProfiles("test")
+class HilosVirtualesCacheTest {
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoSpyBean
+    private MuebleRepository muebleRepository;
+
+    @BeforeEach
+    void limpiarCaches() {
+        cacheManager.getCacheNames().forEach(nombre -> cacheManager.getCache(nombre).clear());
+        clearInvocations(muebleRepository);
+    }
+
+    @Test
+    void testCaches_EnModoAsincrono() {
+        CaffeineCache cache = (CaffeineCache) cacheManager.getCache(CacheConfig.MUEBLES);
+
+        assertNotNull(cache.getAsyncCache());
+    }
+
+    @Test
+    void testMueblePorId_CargaUnaVezConMuchosHilosVirtuales() throws Exception {
+        CountDownLatch largada = new CountDownLatch(1);
+        List<Future<MuebleDTO>> resultados = new ArrayList<>();
+        try (ExecutorService hilos = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 200; i++) {
+                resultados.add(hilos.submit(() -> {
+                    largada.await();
+                    return muebleService.getMuebleById(1L);
+                }));
+            }
+            largada.countDown();
+            for (Future<MuebleDTO> resultado : resultados) {
+                assertEquals(1L, resultado.get().getIdMueble());
+            }
+        }
+
+        verify(muebleRepository, times(1)).findAllById(List.of(1L));
+    }
+
+    @Test
+    void testMuebleInexistente_PropagaLaExcepcionOriginal() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> muebleService.getMuebleById(999_999L));
+
+        assertEquals("Mueble no encontrado", ex.getMessage());
+    }
+}
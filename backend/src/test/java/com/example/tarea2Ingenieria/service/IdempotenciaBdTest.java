@@ -0,0 +1,111 @@
+package com.example.tarea2Ingenieria.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.VarianteDTO;
+import com.tarea2Ingenieria.repository.ClaveIdempotenciaRepository;
+import com.tarea2Ingenieria.service.ClaveIdempotenciaEnCursoException;
+import com.tarea2Ingenieria.service.ClaveIdempotenciaReutilizadaException;
+import com.tarea2Ingenieria.service.IdempotenciaService;
+import com.tarea2Ingenieria.service.IdempotenciaServiceImpl;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Con almacen=bd una segunda instancia (otro IdempotenciaServiceImpl, con su propia memoria) ve las claves
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class, properties = "app.idempotencia.almacen=bd")
+@ActiveProfiles("test")
+class IdempotenciaBdTest {
+
+    @Autowired
+    private IdempotenciaService idempotenciaService;
+
+    @Autowired
+    private ClaveIdempotenciaRepository claveIdempotenciaRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testOtraInstancia_ReproduceLaRespuestaGuardada() {
+        AtomicInteger ejecuciones = new AtomicInteger();
+        idempotenciaService.ejecutar("prueba", "bd-1", 7, VarianteDTO.class, () -> {
+            ejecuciones.incrementAndGet();
+            return new ResponseEntity<>(variante(7L, "Barniz"), HttpStatus.CREATED);
+        });
+
+        ResponseEntity<VarianteDTO> repetida = otraInstancia().ejecutar("prueba", "bd-1", 7, VarianteDTO.class, () -> {
+            ejecuciones.incrementAndGet();
+            return new ResponseEntity<>(variante(8L, "Otra"), HttpStatus.CREATED);
+        });
+
+        assertEquals(1, ejecuciones.get());
+        assertEquals(HttpStatus.CREATED, repetida.getStatusCode());
+        assertEquals("Barniz", repetida.getBody().getNombre());
+        assertEquals("true", repetida.getHeaders().getFirst(IdempotenciaService.CABECERA_REPRODUCIDA));
+        assertThrows(ClaveIdempotenciaReutilizadaException.class, () -> otraInstancia().ejecutar(
+                "prueba", "bd-1", 8, VarianteDTO.class, () -> ResponseEntity.ok(new VarianteDTO())));
+    }
+
+    @Test
+    void testEnCursoEnOtraInstancia_409YElErrorLiberaLaClave() {
+        IdempotenciaService instancia = otraInstancia();
+        // Mientras la primera instancia ejecuta, la otra sólo ve la reserva sin completar
+        assertThrows(IllegalStateException.class, () -> idempotenciaService.ejecutar("prueba", "bd-2", 1, VarianteDTO.class,
+                () -> {
+                    assertThrows(ClaveIdempotenciaEnCursoException.class, () -> instancia.ejecutar(
+                            "prueba", "bd-2", 1, VarianteDTO.class, () -> ResponseEntity.ok(new VarianteDTO())));
+                    throw new IllegalStateException("Stock insuficiente");
+                }));
+
+        ResponseEntity<VarianteDTO> reintento = instancia.ejecutar("prueba", "bd-2", 1, VarianteDTO.class,
+                () -> ResponseEntity.ok(variante(2L, "Reintento")));
+        assertEquals("Reintento", reintento.getBody().getNombre());
+    }
+
+    @Test
+    void testReservaAbandonada_OtraInstanciaLaRetoma() {
+        assertThrows(IllegalStateException.class, () -> idempotenciaService.ejecutar("prueba", "bd-3", 1, VarianteDTO.class,
+                () -> {
+                    // Simula una instancia que se cayó hace rato con la clave reservada
+                    jdbcTemplate.update("UPDATE claves_idempotencia SET creada_en = ?",
+                            Timestamp.from(Instant.now().minus(Duration.ofHours(1))));
+                    ResponseEntity<VarianteDTO> retomada = otraInstancia().ejecutar("prueba", "bd-3", 1, VarianteDTO.class,
+                            () -> ResponseEntity.ok(variante(3L, "Retomada")));
+                    assertEquals("Retomada", retomada.getBody().getNombre());
+                    throw new IllegalStateException("la original termina con error");
+                }));
+
+        // El error de la original no borra la respuesta de quien la retomó
+        ResponseEntity<VarianteDTO> repetida = otraInstancia().ejecutar("prueba", "bd-3", 1, VarianteDTO.class,
+                () -> ResponseEntity.ok(new VarianteDTO()));
+        assertEquals("Retomada", repetida.getBody().getNombre());
+    }
+
+    private static VarianteDTO variante(Long id, String nombre) {
+        VarianteDTO dto = new VarianteDTO();
+        dto.setIdVariante(id);
+        dto.setNombre(nombre);
+        return dto;
+    }
+
+    private IdempotenciaService otraInstancia() {
+        return new IdempotenciaServiceImpl(claveIdempotenciaRepository, objectMapper, new SimpleMeterRegistry(),
+                "bd", 100, Duration.ofHours(24), Duration.ofSeconds(1), Duration.ofMinutes(2));
+    }
+}
@@ -1,10 +1,15 @@
 package com.example.tarea2Ingenieria.service;
 
+import com.tarea2Ingenieria.dto.AjusteMasivoDTO;
+import com.tarea2Ingenieria.dto.AjusteMasivoResultadoDTO;
 import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.event.MueblesModificadosEvent;
 import com.tarea2Ingenieria.model.Mueble;
 import com.tarea2Ingenieria.model.enums.EstadoMueble;
 import com.tarea2Ingenieria.model.enums.TamanioMueble;
 import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.service.CargadorAgrupado;
+import com.tarea2Ingenieria.service.EventoOutboxService;
 import com.tarea2Ingenieria.service.MuebleServiceImpl;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -13,8 +18,13 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -26,6 +36,15 @@ class MuebleServiceImplTest {
     @Mock
     private MuebleRepository muebleRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EventoOutboxService eventoOutboxService;
+
+    @Mock
+    private CargadorAgrupado<Long, Mueble> cargadorMuebles;
+
     @InjectMocks
     private MuebleServiceImpl muebleService;
 
@@ -63,7 +82,7 @@ class MuebleServiceImplTest {
     @Test
     void testGetMuebleById_Encontrado() {
 
-        when(muebleRepository.findById(1L)).thenReturn(Optional.of(mueblePrueba));
+        when(cargadorMuebles.cargar(1L)).thenReturn(Optional.of(mueblePrueba));
 
         MuebleDTO resultado = muebleService.getMuebleById(1L);
         assertNotNull(resultado);
@@ -72,7 +91,7 @@ class MuebleServiceImplTest {
 
     @Test
     void testGetMuebleById_NoEncontrado() {
-        when(muebleRepository.findById(99L)).thenReturn(Optional.empty());
+        when(cargadorMuebles.cargar(99L)).thenReturn(Optional.empty());
 
         RuntimeException exception = assertThrows(RuntimeException.class, () -> {
             muebleService.getMuebleById(99L);
@@ -89,6 +108,7 @@ class MuebleServiceImplTest {
 
         Mueble muebleGuardado = captor.getValue();
         assertEquals(EstadoMueble.INACTIVO, muebleGuardado.getEstado());
+        verify(eventPublisher).publishEvent(new MueblesModificadosEvent(Set.of(1L)));
     }
 
     @Test
@@ -103,4 +123,72 @@ class MuebleServiceImplTest {
         Mueble muebleGuardado = captor.getValue();
         assertEquals(EstadoMueble.ACTIVO, muebleGuardado.getEstado());
     }
+
+    @Test
+    void testActualizarMueble_VersionDesactualizada() {
+        mueblePrueba.setVersion(3L);
+        muebleDTOPrueba.setVersion(2L);
+        when(muebleRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(mueblePrueba));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> {
+            muebleService.actualizarMueble(1L, muebleDTOPrueba);
+        });
+        verify(muebleRepository, never()).saveAndFlush(any(Mueble.class));
+    }
+
+    @Test
+    void testActualizarParcialMueble_VersionVigente() {
+        mueblePrueba.setVersion(3L);
+        muebleDTOPrueba.setVersion(3L);
+        muebleDTOPrueba.setNombreMueble("Mesa Ratona");
+        when(muebleRepository.findByIdParaActualizar(1L)).thenReturn(Optional.of(mueblePrueba));
+        when(muebleRepository.saveAndFlush(any(Mueble.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        MuebleDTO resultado = muebleService.actualizarParcialMueble(1L, muebleDTOPrueba);
+
+        assertEquals("Mesa Ratona", resultado.getNombreMueble());
+        assertEquals(3L, resultado.getVersion());
+    }
+
+    @Test
+    void testAjusteMasivo_SinFiltrosSeRechaza() {
+        AjusteMasivoDTO ajuste = new AjusteMasivoDTO();
+        ajuste.setPorcentajePrecio(10.0);
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> muebleService.ajustarMasivo(ajuste, false));
+        assertTrue(ex.getMessage().startsWith("Debe indicar al menos un filtro"));
+        verifyNoInteractions(muebleRepository);
+    }
+
+    @Test
+    void testAjusteMasivo_UpdatesPorBloquesYUnSoloEvento() {
+        List<Long> ids = LongStream.rangeClosed(1, 2500).boxed().toList();
+        when(muebleRepository.buscarIds(any())).thenReturn(ids);
+        when(muebleRepository.ajustarPrecioYStock(anyList(), eq(10.0), isNull()))
+                .thenAnswer(invocacion -> ((List<?>) invocacion.getArgument(0)).size());
+
+        AjusteMasivoDTO ajuste = new AjusteMasivoDTO();
+        ajuste.setTipo("Silla");
+        ajuste.setPorcentajePrecio(10.0);
+        AjusteMasivoResultadoDTO resultado = muebleService.ajustarMasivo(ajuste, false);
+
+        assertEquals(2500, resultado.getAfectados());
+        verify(muebleRepository, times(3)).ajustarPrecioYStock(anyList(), eq(10.0), isNull());
+        verify(eventPublisher).publishEvent(new MueblesModificadosEvent(Set.copyOf(ids)));
+    }
+
+    @Test
+    void testAjusteMasivo_SimulacionNoActualiza() {
+        when(muebleRepository.buscarIds(any())).thenReturn(List.of(1L, 2L));
+
+        AjusteMasivoDTO ajuste = new AjusteMasivoDTO();
+        ajuste.setMaterial("Roble");
+        ajuste.setDeltaStock(5);
+        AjusteMasivoResultadoDTO resultado = muebleService.ajustarMasivo(ajuste, true);
+
+        assertEquals(2, resultado.getAfectados());
+        assertTrue(resultado.isSimulado());
+        verify(muebleRepository, never()).ajustarPrecioYStock(any(), any(), any());
+        verifyNoInteractions(eventPublisher);
+    }
 }
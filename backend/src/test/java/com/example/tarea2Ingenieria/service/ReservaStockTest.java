@@ -0,0 +1,188 @@
+package com.example.tarea2Ingenieria.service;
+
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.dto.CotizacionRequestDTO;
+import com.tarea2Ingenieria.dto.DetalleRequestDTO;
+import com.tarea2Ingenieria.dto.DisponibilidadStockDTO;
+import com.tarea2Ingenieria.dto.MuebleDTO;
+import com.tarea2Ingenieria.model.Mueble;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.service.CotizacionService;
+import com.tarea2Ingenieria.service.MuebleService;
+import com.tarea2Ingenieria.service.ReservaStockService;
+import com.tarea2Ingenieria.service.StockMenorQueReservadoException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@ActiveProfiles("test")
+class ReservaStockTest {
+
+    @Autowired
+    private CotizacionService cotizacionService;
+
+    @Autowired
+    private MuebleService muebleService;
+
+    @Autowired
+    private ReservaStockService reservaStockService;
+
+    @Autowired
+    private MuebleRepository muebleRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCrearCotizacion_ReservaPorDetalle() {
+        Long mesa = crearMueble("Mesa Reservada", 10);
+
+        Long idCotizacion = cotizacionService.crearCotizacion(solicitud(linea(mesa, 1L, 2), linea(mesa, 2L, 3))).getIdCotizacion();
+
+        assertEquals(2, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservas_stock WHERE id_cotizacion = ?", Integer.class, idCotizacion));
+        DisponibilidadStockDTO disponibilidad = disponibilidad(mesa);
+        assertEquals(10, disponibilidad.getStock());
+        assertEquals(5, disponibilidad.getReservado());
+        assertEquals(5, disponibilidad.getDisponible());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> cotizacionService.crearCotizacion(solicitud(linea(mesa, 1L, 6))));
+        assertEquals("Stock insuficiente para: Mesa Reservada", exception.getMessage());
+        // La cotización rechazada no dejó nada reservado
+        assertEquals(5, disponibilidad(mesa).getReservado());
+    }
+
+    @Test
+    void testBarrido_LiberaSoloLasReservasVencidas() {
+        Long silla = crearMueble("Silla Vencida", 5);
+        Long vencida = cotizacionService.crearCotizacion(solicitud(linea(silla, 1L, 3))).getIdCotizacion();
+        cotizacionService.crearCotizacion(solicitud(linea(silla, 1L, 1)));
+        vencer(vencida);
+
+        assertTrue(reservaStockService.liberarVencidas() >= 3);
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM reservas_stock WHERE id_cotizacion = ?", Integer.class, vencida));
+        assertEquals(1, disponibilidad(silla).getReservado());
+        assertEquals(4, disponibilidad(silla).getDisponible());
+        // Un segundo barrido no encuentra nada más que liberar de este mueble
+        reservaStockService.liberarVencidas();
+        assertEquals(1, disponibilidad(silla).getReservado());
+    }
+
+    @Test
+    void testConfirmarConReservaVencida_CompiteConElStockLibre() {
+        Long banco = crearMueble("Banco Disputado", 3);
+        Long primera = cotizacionService.crearCotizacion(solicitud(linea(banco, 1L, 3))).getIdCotizacion();
+        vencer(primera);
+        reservaStockService.liberarVencidas();
+        Long segunda = cotizacionService.crearCotizacion(solicitud(linea(banco, 1L, 2))).getIdCotizacion();
+
+        // La segunda tiene 2 reservadas: a la primera solo le queda 1 libre
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> cotizacionService.confirmarVenta(primera));
+        assertEquals("Stock insuficiente para: Banco Disputado", exception.getMessage());
+
+        cotizacionService.confirmarVenta(segunda);
+        Mueble mueble = muebleRepository.findById(banco).orElseThrow();
+        assertEquals(1, mueble.getStock());
+        assertEquals(0, mueble.getReservado());
+    }
+
+    @Test
+    void testEditarMueble_NoPisaLoReservado() {
+        Long repisa = crearMueble("Repisa Editada", 4);
+        cotizacionService.crearCotizacion(solicitud(linea(repisa, 1L, 3)));
+
+        MuebleDTO cambios = new MuebleDTO();
+        cambios.setStock(8);
+        muebleService.actualizarParcialMueble(repisa, cambios);
+
+        assertEquals(3, disponibilidad(repisa).getReservado());
+        assertEquals(5, disponibilidad(repisa).getDisponible());
+    }
+
+    @Test
+    void testEditarMueble_StockMenorQueLoReservadoSeRechaza() {
+        Long comoda = crearMueble("Cómoda Editada", 6);
+        cotizacionService.crearCotizacion(solicitud(linea(comoda, 1L, 4)));
+
+        MuebleDTO parcial = new MuebleDTO();
+        parcial.setStock(3);
+        StockMenorQueReservadoException exception = assertThrows(StockMenorQueReservadoException.class,
+                () -> muebleService.actualizarParcialMueble(comoda, parcial));
+        assertEquals("El stock (3) no puede quedar por debajo de las 4 unidades reservadas por cotizaciones pendientes.",
+                exception.getMessage());
+
+        MuebleDTO completo = new MuebleDTO();
+        completo.setNombreMueble("Cómoda Editada");
+        completo.setTipo("Mesa");
+        completo.setMaterial("Pino");
+        completo.setPrecioBase(10000.0);
+        completo.setStock(2);
+        assertThrows(StockMenorQueReservadoException.class, () -> muebleService.actualizarMueble(comoda, completo));
+
+        // Nada cambió; justo lo reservado sí se acepta y deja 0 disponible
+        assertEquals(6, disponibilidad(comoda).getStock());
+        parcial.setStock(4);
+        muebleService.actualizarParcialMueble(comoda, parcial);
+        assertEquals(4, disponibilidad(comoda).getStock());
+        assertEquals(0, disponibilidad(comoda).getDisponible());
+    }
+
+    @Test
+    void testDisponibilidad_VariosMueblesOrdenadosPorId() {
+        Long velador = crearMueble("Velador Consultado", 6);
+        Long comoda = crearMueble("Cómoda Consultada", 2);
+        cotizacionService.crearCotizacion(solicitud(linea(velador, 1L, 4)));
+
+        List<DisponibilidadStockDTO> disponibilidad = reservaStockService.getDisponibilidad(List.of(comoda, velador));
+
+        assertEquals(List.of(velador, comoda), disponibilidad.stream().map(DisponibilidadStockDTO::getIdMueble).toList());
+        assertEquals(2, disponibilidad.get(0).getDisponible());
+        assertEquals(2, disponibilidad.get(1).getDisponible());
+    }
+
+    private void vencer(Long idCotizacion) {
+        jdbcTemplate.update("UPDATE reservas_stock SET expira_en = ? WHERE id_cotizacion = ?",
+                Timestamp.from(Instant.now().minusSeconds(1)), idCotizacion);
+    }
+
+    private DisponibilidadStockDTO disponibilidad(Long idMueble) {
+        return reservaStockService.getDisponibilidad(List.of(idMueble)).get(0);
+    }
+
+    private static DetalleRequestDTO linea(Long idMueble, Long idVariante, int cantidad) {
+        DetalleRequestDTO detalle = new DetalleRequestDTO();
+        detalle.setIdMueble(idMueble);
+        detalle.setIdVariante(idVariante);
+        detalle.setCantidad(cantidad);
+        return detalle;
+    }
+
+    private static CotizacionRequestDTO solicitud(DetalleRequestDTO... lineas) {
+        CotizacionRequestDTO request = new CotizacionRequestDTO();
+        request.setDetalles(List.of(lineas));
+        return request;
+    }
+
+    private Long crearMueble(String nombre, int stock) {
+        MuebleDTO dto = new MuebleDTO();
+        dto.setNombreMueble(nombre);
+        dto.setTipo("Mesa");
+        dto.setMaterial("Pino");
+        dto.setTamanio("MEDIANO");
+        dto.setPrecioBase(10000.0);
+        dto.setStock(stock);
+        return muebleService.crearMueble(dto).getIdMueble();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.tarea2Ingenieria.sql;
+
+import com.tarea2Ingenieria.Tarea2IngenieriaApplication;
+import com.tarea2Ingenieria.repository.MuebleRepository;
+import com.tarea2Ingenieria.sql.ContadorSentencias;
+import com.tarea2Ingenieria.sql.PresupuestoSqlExcedidoException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(classes = Tarea2IngenieriaApplication.class)
+@ActiveProfiles("test")
+class ContadorSentenciasTest {
+
+    @Autowired
+    private MuebleRepository muebleRepository;
+
+    @AfterEach
+    void cerrarMedicion() {
+        ContadorSentencias.terminar();
+    }
+
+    @Test
+    void testSinMedicionAbierta_NoCuenta() {
+        muebleRepository.findAll();
+
+        assertNull(ContadorSentencias.terminar());
+    }
+
+    @Test
+    void testModoLog_CuentaYMarcaExceso() {
+        ContadorSentencias.iniciar("GET /prueba", 1, false);
+        muebleRepository.findById(1L);
+        muebleRepository.count();
+
+        ContadorSentencias.Medicion medicion = ContadorSentencias.terminar();
+        assertEquals(2, medicion.getSentencias());
+        assertTrue(medicion.excedida());
+    }
+
+    @Test
+    void testModoFallar_CortaEnLaSentenciaQueExcede() {
+        ContadorSentencias.iniciar("GET /prueba", 1, true);
+        muebleRepository.findById(1L);
+
+        PresupuestoSqlExcedidoException ex = assertThrows(PresupuestoSqlExcedidoException.class,
+                () -> muebleRepository.count());
+        assertTrue(ex.getMessage().contains("GET /prueba"));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.tarea2Ingenieria.sql;
+
+import com.tarea2Ingenieria.sql.PresupuestoSqlInterceptor;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Matchers de MockMvc sobre las sentencias SQL que ejecutó un request:
+//   mockMvc.perform(get("/api/cotizaciones")).andExpect(SentenciasSql.maximo(2));
+public final class SentenciasSql {
+
+    private SentenciasSql() {
+    }
+
+    public static ResultMatcher maximo(int maximo) {
+        return resultado -> {
+            int sentencias = contar(resultado);
+            assertTrue(sentencias <= maximo, "Se esperaban a lo más " + maximo + " sentencias SQL y hubo " + sentencias);
+        };
+    }
+
+    public static ResultMatcher exactamente(int esperadas) {
+        return resultado -> assertEquals(esperadas, contar(resultado), "Sentencias SQL del request");
+    }
+
+    public static int contar(MvcResult resultado) {
+        Object sentencias = resultado.getRequest().getAttribute(PresupuestoSqlInterceptor.SENTENCIAS_SQL);
+        assertNotNull(sentencias, "El request no pasó por PresupuestoSqlInterceptor");
+        return (Integer) sentencias;
+    }
+}
@@ -1,10 +1,13 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import api from './api/axiosConfig';
+import { suscribirCambiosMuebles } from './api/streamMuebles';
 import { Furniture, Variant, Quote, QuoteItem } from './types/furniture';
 import { ClientCatalog } from './components/ClientCatalog';
 import { QuoteView } from './components/QuoteView';
 import { AdminDashboard } from './components/AdminDashboard';
 
+const MAXIMO_MUEBLES_POR_ID = 20;
+
 export default function App() {
     const [view, setView] = useState<'catalog' | 'quote' | 'admin'>('catalog');
 
@@ -16,6 +19,11 @@ export default function App() {
 
     const [quoteItems, setQuoteItems] = useState<QuoteItem[]>([]);
     const [loading, setLoading] = useState(true);
+    // Misma Idempotency-Key en cada reintento de la misma cotización; se renueva si cambian los ítems o al enviarla
+    const claveCotizacion = useRef<string | null>(null);
+    useEffect(() => {
+        claveCotizacion.current = null;
+    }, [quoteItems]);
 
 
     const fetchData = async () => {
@@ -44,8 +52,46 @@ export default function App() {
         }
     };
 
+    // Un mueble creado o reactivado no está en la lista y el cambio no trae nombre ni tipo: se pide por id.
+    // Si llegan muchos juntos (una importación, un ajuste masivo) conviene recargar el catálogo entero.
+    const agregarMuebles = async (ids: number[]) => {
+        if (ids.length > MAXIMO_MUEBLES_POR_ID) {
+            fetchData();
+            return;
+        }
+        try {
+            const respuestas = await Promise.all(ids.map(id => api.get(`/muebles/${id}`)));
+            const nuevos = respuestas.map(res => ({ ...res.data, image: getImageForType(res.data.tipo) }));
+            setFurniture(actual => [...actual.filter(item => !ids.includes(item.idMueble)), ...nuevos]);
+        } catch (error) {
+            console.error("Error trayendo muebles nuevos:", error);
+            fetchData();
+        }
+    };
+
+    // Ids que ya están en la lista, para reconocer los que llegan por primera vez en el stream
+    const mueblesActuales = useRef<Furniture[]>([]);
     useEffect(() => {
-        fetchData();
+        mueblesActuales.current = furniture;
+    }, [furniture]);
+
+    // Stock, precio y estado en vivo, sin volver a pedir todo el catálogo. Primero se suscribe y el catálogo
+    // se pide con el evento "conectado" (ver suscribirCambiosMuebles)
+    useEffect(() => {
+        return suscribirCambiosMuebles((cambios) => {
+            const porId = new Map(cambios.map(cambio => [cambio.idMueble, cambio]));
+            setFurniture(actual => actual
+                .map(item => porId.has(item.idMueble) ? { ...item, ...porId.get(item.idMueble) } : item)
+                .filter(item => item.estado === 'ACTIVO'));
+
+            const conocidos = new Set(mueblesActuales.current.map(item => item.idMueble));
+            const nuevos = cambios
+                .filter(cambio => cambio.estado === 'ACTIVO' && !conocidos.has(cambio.idMueble))
+                .map(cambio => cambio.idMueble);
+            if (nuevos.length > 0) {
+                agregarMuebles(nuevos);
+            }
+        }, fetchData);
     }, []);
 
 
@@ -174,8 +220,11 @@ export default function App() {
             }))
         };
 
+        claveCotizacion.current ??= crypto.randomUUID();
+
         try {
-            await api.post('/cotizaciones', payload);
+            await api.post('/cotizaciones', payload, { headers: { 'Idempotency-Key': claveCotizacion.current } });
+            claveCotizacion.current = null;
             alert('¡Cotización enviada exitosamente!');
             setQuoteItems([]);
             setView('catalog');
@@ -190,7 +239,8 @@ export default function App() {
     const handleConfirmSale = async (quoteId: number) => {
         try {
 
-            await api.post(`/cotizaciones/${quoteId}/confirmar`);
+            await api.post(`/cotizaciones/${quoteId}/confirmar`, null,
+                { headers: { 'Idempotency-Key': `confirmar-${quoteId}` } });
             alert('¡Venta confirmada! Stock descontado.');
             fetchData();
         } catch (error: any) {
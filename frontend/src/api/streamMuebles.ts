@@ -0,0 +1,33 @@
+import api from './axiosConfig';
+import { Furniture } from '../types/furniture';
+
+export type CambioMueble = Pick<Furniture, 'idMueble' | 'stock' | 'precioBase' | 'estado'>;
+
+// Cambios en vivo de stock, precio y estado (GET /api/muebles/stream).
+// onSincronizar se llama cuando hay que (volver a) pedir el catálogo:
+//  - con "conectado": la suscripción ya está abierta, así que ningún cambio posterior a esa carga se pierde.
+//    Pedir el catálogo antes de suscribirse deja un hueco donde un cambio no llega por ninguno de los dos lados.
+//  - con "resincronizar": EventSource reconecta solo y manda Last-Event-ID; si el backend ya no tiene lo
+//    perdido avisa con este evento.
+//  - si la conexión falla antes del primer "conectado", para que el catálogo cargue igual sin stream.
+// Devuelve la función para cerrar la conexión.
+export function suscribirCambiosMuebles(
+    onCambios: (cambios: CambioMueble[]) => void,
+    onSincronizar: () => void
+): () => void {
+    const fuente = new EventSource(`${api.defaults.baseURL}/muebles/stream`);
+    let sincronizado = false;
+    const sincronizar = () => {
+        sincronizado = true;
+        onSincronizar();
+    };
+    fuente.addEventListener('conectado', sincronizar);
+    fuente.addEventListener('resincronizar', sincronizar);
+    fuente.addEventListener('muebles', (evento) => onCambios(JSON.parse((evento as MessageEvent).data)));
+    fuente.addEventListener('error', () => {
+        if (!sincronizado) {
+            sincronizar();
+        }
+    });
+    return () => fuente.close();
+}